@@ -18,26 +18,42 @@
 package org.azkfw.toolbox;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URLClassLoader;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import javax.swing.JMenuItem;
+import javax.swing.SwingUtilities;
 
 import org.azkfw.business.task.server.MultiTaskServer;
 import org.azkfw.gui.dialog.PreferenceDialog;
-import org.azkfw.toolbox.plugin.ImageViewerPlugin;
 import org.azkfw.toolbox.plugin.ToolBoxPlugin;
 import org.azkfw.toolbox.support.ToolBoxFileOpen;
 import org.azkfw.toolbox.support.ToolBoxFileOpenSupport;
 import org.azkfw.toolbox.support.ToolBoxFilePopupMenuSupport;
+import org.azkfw.toolbox.support.ToolBoxPreferenceChangeSupport;
 import org.azkfw.toolbox.support.ToolBoxPreferenceSupport;
+import org.azkfw.toolbox.task.MultiTaskServerExecutor;
+import org.azkfw.toolbox.task.ToolBoxTaskExecutor;
+import org.azkfw.toolbox.task.ToolBoxTaskScheduler;
+import org.azkfw.toolbox.task.VirtualThreadTaskExecutor;
 
 /**
  * このクラスは、ツールボックスのメインクラスです。
@@ -60,43 +76,153 @@ public class ToolBox {
 	private static final ToolBox INSTANCE = new ToolBox();
 
 	private String title;
-	private MultiTaskServer server;
+	private int progressFrameRate;
+	private ToolBoxTaskRetentionPolicy taskRetentionPolicy;
+	private ToolBoxTaskHistory taskHistory;
+	private ToolBoxTaskExecutor executor;
+	private ToolBoxTaskScheduler scheduler;
+	private int taskPoolSize;
+	private Map<Class<? extends ToolBoxPlugin>, Integer> taskWeights;
 	private ToolBoxFrame frame;
 	private List<Class<? extends ToolBoxPlugin>> pluginList;
+	/** 登録順(登録解除しても再利用しない) */
+	private int pluginOrder;
 	private Map<Class<? extends ToolBoxPlugin>, ToolBoxPlugin> plugins;
 	private Map<Class<? extends ToolBoxPlugin>, Properties> pluginProperties;
+	private ToolBoxFileTypeIndex fileOpenIndex;
+	private ToolBoxFileTypeIndex filePopupMenuIndex;
+	private Map<Class<? extends ToolBoxPlugin>, Future<Properties>> pluginPropertiesLoads;
+	private ToolBoxPreferenceStore preferenceStore;
+	private ToolBoxPreferenceWatcher preferenceWatcher;
+	private ToolBoxFileNameIndex fileNameIndex;
+	private List<File> fileSearchRoots;
+	private boolean fileSearchIndexPersistent;
+	private boolean preferenceWatchEnabled;
+	private ToolBoxStartupReport startupReport;
+	private List<URLClassLoader> pluginLoaders;
+	private Map<Class<? extends ToolBoxPlugin>, ToolBoxPluginDiscovery.Result> pluginSources;
+	private boolean pluginDirectoryEnabled;
 
 	private ToolBox() {
+		startupReport = new ToolBoxStartupReport();
+		long start = startupReport.start();
+
 		pluginList = new ArrayList<Class<? extends ToolBoxPlugin>>();
 		plugins = new HashMap<Class<? extends ToolBoxPlugin>, ToolBoxPlugin>();
 		pluginProperties = new HashMap<Class<? extends ToolBoxPlugin>, Properties>();
-
-		registerPlugin(ImageViewerPlugin.class);
+		fileOpenIndex = new ToolBoxFileTypeIndex();
+		filePopupMenuIndex = new ToolBoxFileTypeIndex();
+		pluginPropertiesLoads = new HashMap<Class<? extends ToolBoxPlugin>, Future<Properties>>();
+		pluginLoaders = new ArrayList<URLClassLoader>();
+		pluginSources = new HashMap<Class<? extends ToolBoxPlugin>, ToolBoxPluginDiscovery.Result>();
+		pluginDirectoryEnabled = true;
+		preferenceWatchEnabled = true;
+		// ファイルシステム全体の索引は時間がかかる為、既定はホームディレクトリのみとする
+		fileSearchRoots = Arrays.asList(new File(System.getProperty("user.home")));
+		fileSearchIndexPersistent = true;
+		progressFrameRate = ToolBoxTaskProgressAggregator.DEFAULT_FRAME_RATE;
+		taskRetentionPolicy = ToolBoxTaskRetentionPolicy.keepLast(1000);
+		// 実行バックエンドから決める
+		taskPoolSize = 0;
+		taskWeights = new HashMap<Class<? extends ToolBoxPlugin>, Integer>();
+		taskHistory = new ToolBoxTaskHistory(Paths.get(".", "history", "task.dat").toFile());
+		preferenceStore = new ToolBoxPreferenceStore(Paths.get(".", "plugin").toFile());
+
+		registerPlugins(ToolBoxPluginDiscovery.discover(ToolBox.class.getClassLoader()));
+		startupReport.record("initialize", start);
 	}
 
 	public static ToolBox getInstance() {
 		return INSTANCE;
 	}
 
+	/**
+	 * ツールボックスを起動する。
+	 * <p>
+	 * プラグインは生成せず、設定ファイルの読み込みをバックグラウンドで並列に開始してからフレームを表示します。
+	 * プラグインは初めて必要になった時に生成されます。
+	 * </p>
+	 * 
+	 * @return フレームを表示した場合、<code>true</code>
+	 */
 	public synchronized boolean setup() {
 		boolean result = false;
 
-		loadData();
+		long start = startupReport.start();
+		if (pluginDirectoryEnabled) {
+			registerPluginDirectory(Paths.get(".", "plugin").toFile());
+		}
+		startupReport.record("plugin discovery", start);
+
+		start = startupReport.start();
+		startLoadData();
+		startupReport.record("preference load (submit)", start);
+
+		if (preferenceWatchEnabled) {
+			startWatchData();
+		}
+
+		start = startupReport.start();
+		if (null == executor) {
+			executor = new MultiTaskServerExecutor();
+		}
+		executor.start();
 
-		server = new MultiTaskServer();
-		server.start();
+		scheduler = new ToolBoxTaskScheduler(executor, (0 < taskPoolSize) ? taskPoolSize : getDefaultTaskPoolSize(executor));
+		for (Map.Entry<Class<? extends ToolBoxPlugin>, Integer> entry : taskWeights.entrySet()) {
+			scheduler.setWeight(entry.getKey(), entry.getValue());
+		}
+		startupReport.record("task executor", start);
 
 		if (null == frame) {
+			start = startupReport.start();
 			frame = new ToolBoxFrame();
 			frame.setTitle(title);
+			synchronized (plugins) {
+				for (ToolBoxPlugin plugin : plugins.values()) {
+					plugin.setToolBoxFrame(frame);
+				}
+			}
 			frame.setVisible(true);
+			startupReport.record("frame", start);
 			result = true;
 		}
 		return result;
 	}
 
+	/**
+	 * 起動時の各フェーズの所要時間を取得する。
+	 * 
+	 * @return 起動レポート
+	 */
+	public ToolBoxStartupReport getStartupReport() {
+		return startupReport;
+	}
+
 	public synchronized void terminate() {
+		if (null != preferenceWatcher) {
+			preferenceWatcher.stop();
+			preferenceWatcher = null;
+		}
 		storeData();
+		// 保存待ちの設定を書き出す
+		preferenceStore.close();
+		taskHistory.close();
+		if (null != fileNameIndex) {
+			fileNameIndex.close();
+			fileNameIndex = null;
+		}
+
+		synchronized (plugins) {
+			for (URLClassLoader loader : pluginLoaders) {
+				try {
+					loader.close();
+				} catch (IOException ex) {
+					ex.printStackTrace();
+				}
+			}
+			pluginLoaders.clear();
+		}
 	}
 
 	public ToolBox setTitle(final String aTitle) {
@@ -104,6 +230,329 @@ public class ToolBox {
 		return this;
 	}
 
+	/**
+	 * タスク進捗のタスクテーブルへの反映頻度を設定する。
+	 * 
+	 * @param aFrameRate フレームレート(回/秒)
+	 * @return ツールボックス
+	 */
+	public ToolBox setProgressFrameRate(final int aFrameRate) {
+		progressFrameRate = aFrameRate;
+		return this;
+	}
+
+	public int getProgressFrameRate() {
+		return progressFrameRate;
+	}
+
+	/**
+	 * 終了したタスクの保持ポリシーを設定する。
+	 * 
+	 * @param aPolicy 保持ポリシー
+	 * @return ツールボックス
+	 */
+	public ToolBox setTaskRetentionPolicy(final ToolBoxTaskRetentionPolicy aPolicy) {
+		taskRetentionPolicy = aPolicy;
+		return this;
+	}
+
+	public ToolBoxTaskRetentionPolicy getTaskRetentionPolicy() {
+		return taskRetentionPolicy;
+	}
+
+	/**
+	 * タスクの実行バックエンドを設定する。
+	 * <p>
+	 * {@link #setup()}より前に設定してください。未設定の場合は{@link MultiTaskServer}を使用します。
+	 * </p>
+	 * 
+	 * @param aExecutor 実行バックエンド
+	 * @return ツールボックス
+	 */
+	public ToolBox setTaskExecutor(final ToolBoxTaskExecutor aExecutor) {
+		executor = aExecutor;
+		return this;
+	}
+
+	/**
+	 * 同時に実行するタスク数を設定する。
+	 * <p>
+	 * 未設定の場合、{@link VirtualThreadTaskExecutor}ではその同時実行数の上限、それ以外ではプロセッサ数とします。
+	 * </p>
+	 * 
+	 * @param aSize タスク数
+	 * @return ツールボックス
+	 */
+	public ToolBox setTaskPoolSize(final int aSize) {
+		taskPoolSize = aSize;
+		if (null != scheduler) {
+			scheduler.setPoolSize(aSize);
+		}
+		return this;
+	}
+
+	/**
+	 * 実行バックエンドに応じた同時に実行するタスク数を取得する。
+	 * <p>
+	 * 仮想スレッドはI/O待ちのタスクを多数同時に実行する為のものなので、プロセッサ数で制限しません。
+	 * </p>
+	 * 
+	 * @param aExecutor 実行バックエンド
+	 * @return タスク数
+	 */
+	private static int getDefaultTaskPoolSize(final ToolBoxTaskExecutor aExecutor) {
+		if (aExecutor instanceof VirtualThreadTaskExecutor) {
+			return ((VirtualThreadTaskExecutor) aExecutor).getConcurrency();
+		}
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * プラグインのタスクの重みを設定する。
+	 * <p>
+	 * 同じ優先度のタスクは、プラグインの重みに比例した割合で実行されます。
+	 * </p>
+	 * 
+	 * @param aClass プラグイン
+	 * @param aWeight 重み
+	 * @return ツールボックス
+	 */
+	public ToolBox setTaskWeight(final Class<? extends ToolBoxPlugin> aClass, final int aWeight) {
+		taskWeights.put(aClass, aWeight);
+		if (null != scheduler) {
+			scheduler.setWeight(aClass, aWeight);
+		}
+		return this;
+	}
+
+	public ToolBoxTaskHistory getTaskHistory() {
+		return taskHistory;
+	}
+
+	/**
+	 * 設定の保存先を設定する。
+	 * <p>
+	 * 起動前に設定してください。 プラグインの設定を1つのファイルにまとめる場合は、{@link ToolBoxBinaryPreferenceStore}を設定します。
+	 * </p>
+	 * 
+	 * @param aStore 設定の保存先
+	 * @return ツールボックス
+	 */
+	public ToolBox setPreferenceStore(final ToolBoxPreferenceStore aStore) {
+		preferenceStore = aStore;
+		return this;
+	}
+
+	/**
+	 * 設定ファイルの外部での変更を監視するか設定する。
+	 * 
+	 * @param aEnabled 監視する場合、<code>true</code>
+	 * @return ツールボックス
+	 */
+	public ToolBox setPreferenceWatchEnabled(final boolean aEnabled) {
+		preferenceWatchEnabled = aEnabled;
+		return this;
+	}
+
+	/**
+	 * ファイル検索の対象を設定する。
+	 * <p>
+	 * 索引を作成する前に設定してください。既定はホームディレクトリです。
+	 * ファイルシステム全体を対象にする場合は、<code>Arrays.asList(File.listRoots())</code>を設定してください。
+	 * </p>
+	 * 
+	 * @param aRoots ルート
+	 * @return ツールボックス
+	 */
+	public ToolBox setFileSearchRoots(final List<File> aRoots) {
+		fileSearchRoots = new ArrayList<File>(aRoots);
+		return this;
+	}
+
+	/**
+	 * ファイル検索の索引を保存するか設定する。
+	 * 
+	 * @param aPersistent 保存する場合、<code>true</code>
+	 * @return ツールボックス
+	 */
+	public ToolBox setFileSearchIndexPersistent(final boolean aPersistent) {
+		fileSearchIndexPersistent = aPersistent;
+		return this;
+	}
+
+	/**
+	 * ファイル検索の索引を取得する。
+	 * <p>
+	 * 初めて取得した時に索引の作成を開始します。
+	 * </p>
+	 * 
+	 * @return 索引
+	 */
+	public synchronized ToolBoxFileNameIndex getFileNameIndex() {
+		if (null == fileNameIndex) {
+			File file = (fileSearchIndexPersistent) ? Paths.get(".", "index", "filename.dat").toFile() : null;
+			fileNameIndex = new ToolBoxFileNameIndex(fileSearchRoots, file);
+			fileNameIndex.build();
+		}
+		return fileNameIndex;
+	}
+
+	/**
+	 * 設定の保存先を取得する。
+	 * 
+	 * @return 設定の保存先
+	 */
+	public ToolBoxPreferenceStore getPreferenceStore() {
+		return preferenceStore;
+	}
+
+	/**
+	 * 起動時にプラグインディレクトリ(<code>./plugin</code>)からプラグインを検出するか設定する。
+	 * 
+	 * @param aEnabled 検出する場合、<code>true</code>
+	 * @return ツールボックス
+	 */
+	public ToolBox setPluginDirectoryEnabled(final boolean aEnabled) {
+		pluginDirectoryEnabled = aEnabled;
+		return this;
+	}
+
+	/**
+	 * ディレクトリに配置されたJARファイルのプラグインを登録する。
+	 * <p>
+	 * JARファイル毎に独立したクラスローダーで読み込み、 各JARファイルの<code>META-INF/services/org.azkfw.toolbox.plugin.ToolBoxPlugin</code>
+	 * に記述されたプラグインのみを登録します。
+	 * </p>
+	 * 
+	 * @param aDirectory ディレクトリ
+	 * @return ツールボックス
+	 */
+	public ToolBox registerPluginDirectory(final File aDirectory) {
+		for (ToolBoxPluginDiscovery.Result result : ToolBoxPluginDiscovery.discover(aDirectory)) {
+			registerPluginJar(result);
+		}
+		return this;
+	}
+
+	private void registerPluginJar(final ToolBoxPluginDiscovery.Result aResult) {
+		synchronized (plugins) {
+			pluginLoaders.add(aResult.getClassLoader());
+			for (Class<? extends ToolBoxPlugin> clazz : aResult.getClasses()) {
+				pluginSources.put(clazz, aResult);
+			}
+		}
+		registerPlugins(aResult.getClasses());
+	}
+
+	/**
+	 * プラグインを登録解除する。
+	 * <p>
+	 * 以下の順で行います。
+	 * <ol>
+	 * <li>ファイルのオープン・ポップアップメニューの対象から外す</li>
+	 * <li>プラグインが投入したタスクの終了を待つ</li>
+	 * <li>設定を書き出す</li>
+	 * <li>プラグインが追加したタブを閉じる</li>
+	 * </ol>
+	 * タスクの終了を待つ為、EDT以外のスレッドから呼び出してください。
+	 * </p>
+	 * 
+	 * @param aClass プラグイン
+	 * @return 登録解除した場合、<code>true</code>
+	 * @throws InterruptedException タスクの終了待ちに割り込まれた場合
+	 */
+	public boolean unregisterPlugin(final Class<? extends ToolBoxPlugin> aClass) throws InterruptedException {
+		ToolBoxPlugin plugin;
+		Properties p;
+		synchronized (plugins) {
+			if (!pluginList.remove(aClass)) {
+				return false;
+			}
+			fileOpenIndex.remove(aClass);
+			filePopupMenuIndex.remove(aClass);
+			plugin = plugins.remove(aClass);
+			p = pluginProperties.remove(aClass);
+			pluginPropertiesLoads.remove(aClass);
+			pluginSources.remove(aClass);
+		}
+
+		if (null != scheduler) {
+			scheduler.awaitIdle(aClass);
+		}
+
+		if (null != plugin) {
+			storeData(plugin, p);
+
+			if (null != frame) {
+				final ToolBoxPlugin owner = plugin;
+				try {
+					SwingUtilities.invokeAndWait(new Runnable() {
+						@Override
+						public void run() {
+							frame.removeTabs(owner);
+						}
+					});
+				} catch (InvocationTargetException ex) {
+					ex.printStackTrace();
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * プラグインを再読み込みする。
+	 * <p>
+	 * プラグインを登録解除した後、改めて登録します。プラグインは次に必要になった時に生成され、書き出した設定を読み込みます。
+	 * プラグインディレクトリのJARファイルから読み込んだプラグインは、JARファイルを新しいクラスローダーで読み込み直します。
+	 * この場合、同じJARファイルに含まれる他のプラグインも合わせて再読み込みされます。
+	 * </p>
+	 * <p>
+	 * タスクの終了を待つ為、EDT以外のスレッドから呼び出してください。
+	 * </p>
+	 * 
+	 * @param aClass プラグイン
+	 * @return 再読み込みしたプラグイン
+	 * @throws InterruptedException タスクの終了待ちに割り込まれた場合
+	 */
+	public List<Class<? extends ToolBoxPlugin>> reloadPlugin(final Class<? extends ToolBoxPlugin> aClass)
+			throws InterruptedException {
+		List<Class<? extends ToolBoxPlugin>> classes = new ArrayList<Class<? extends ToolBoxPlugin>>();
+
+		ToolBoxPluginDiscovery.Result source;
+		synchronized (plugins) {
+			source = pluginSources.get(aClass);
+		}
+		if (null == source) {
+			if (unregisterPlugin(aClass)) {
+				registerPlugin(aClass);
+				classes.add(aClass);
+			}
+			return classes;
+		}
+
+		for (Class<? extends ToolBoxPlugin> clazz : source.getClasses()) {
+			unregisterPlugin(clazz);
+		}
+		synchronized (plugins) {
+			pluginLoaders.remove(source.getClassLoader());
+		}
+		try {
+			source.getClassLoader().close();
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		}
+
+		try {
+			ToolBoxPluginDiscovery.Result result = ToolBoxPluginDiscovery.discoverJar(source.getFile());
+			registerPluginJar(result);
+			classes.addAll(result.getClasses());
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		}
+		return classes;
+	}
+
 	public ToolBox registerPlugins(final List<Class<? extends ToolBoxPlugin>> classes) {
 		for (Class<? extends ToolBoxPlugin> clazz : classes) {
 			registerPlugin(clazz);
@@ -118,29 +567,77 @@ public class ToolBox {
 		return this;
 	}
 
+	/**
+	 * プラグインを登録する。
+	 * <p>
+	 * プラグインはクラスのみ登録し、初めて必要になった時に生成されます。
+	 * </p>
+	 * 
+	 * @param aClass プラグイン
+	 * @return ツールボックス
+	 */
 	public ToolBox registerPlugin(final Class<? extends ToolBoxPlugin> aClass) {
-		try {
-			Object obj = aClass.newInstance();
-			if (obj instanceof ToolBoxPlugin) {
-				pluginList.add(aClass);
-				plugins.put(aClass, (ToolBoxPlugin) obj);
-				pluginProperties.put(aClass, new Properties());
-				// System.out.println("Add plugin.[" + aClass.getName() + "]");
-			} else {
-				// System.out.println("Unsupported ToolBoxPlugin.[" +
-				// aClass.getName() + "]");
-			}
-		} catch (IllegalAccessException ex) {
-			ex.printStackTrace();
-		} catch (InstantiationException ex) {
-			ex.printStackTrace();
+		synchronized (plugins) {
+			if (pluginList.contains(aClass)) {
+				return this;
+			}
+			int order = pluginOrder++;
+			pluginList.add(aClass);
+			pluginProperties.put(aClass, new Properties());
+			if (ToolBoxFileOpenSupport.class.isAssignableFrom(aClass)) {
+				fileOpenIndex.add(order, aClass);
+			}
+			if (ToolBoxFilePopupMenuSupport.class.isAssignableFrom(aClass)) {
+				filePopupMenuIndex.add(order, aClass);
+			}
 		}
 		return this;
 	}
 
+	/**
+	 * プラグインを取得する。
+	 * <p>
+	 * 未生成のプラグインはこの時に生成し、設定を読み込みます。
+	 * </p>
+	 * 
+	 * @param aClass プラグイン
+	 * @return プラグイン。登録されていないまたは生成に失敗した場合、<code>null</code>
+	 */
+	public ToolBoxPlugin getPlugin(final Class<? extends ToolBoxPlugin> aClass) {
+		synchronized (plugins) {
+			ToolBoxPlugin plugin = plugins.get(aClass);
+			if (null != plugin || !pluginList.contains(aClass)) {
+				return plugin;
+			}
+
+			long start = startupReport.start();
+			try {
+				plugin = aClass.newInstance();
+			} catch (IllegalAccessException ex) {
+				ex.printStackTrace();
+				return null;
+			} catch (InstantiationException ex) {
+				ex.printStackTrace();
+				return null;
+			}
+			if (null != frame) {
+				plugin.setToolBoxFrame(frame);
+			}
+			if (plugin instanceof ToolBoxPreferenceSupport) {
+				((ToolBoxPreferenceSupport) plugin).load(getLoadedProperties(aClass));
+			}
+			plugins.put(aClass, plugin);
+			startupReport.record("plugin " + aClass.getSimpleName(), start);
+			return plugin;
+		}
+	}
+
 	public void putPreferenceSupport(final PreferenceDialog aDialog) {
-		for (Class<? extends ToolBoxPlugin> clazz : pluginList) {
-			ToolBoxPlugin plugin = plugins.get(clazz);
+		for (Class<? extends ToolBoxPlugin> clazz : getPluginClasses()) {
+			if (!ToolBoxPreferenceSupport.class.isAssignableFrom(clazz)) {
+				continue;
+			}
+			ToolBoxPlugin plugin = getPlugin(clazz);
 			if (plugin instanceof ToolBoxPreferenceSupport) {
 				ToolBoxPreferenceSupport support = (ToolBoxPreferenceSupport) plugin;
 
@@ -154,68 +651,269 @@ public class ToolBox {
 		}
 	}
 
+	/**
+	 * 設定を読み込む。
+	 * <p>
+	 * 設定ファイルを読み込み直し、生成済みのプラグインへ反映します。
+	 * </p>
+	 */
 	public void loadData() {
-		for (Class<? extends ToolBoxPlugin> clazz : pluginList) {
-			ToolBoxPlugin plugin = plugins.get(clazz);
+		startLoadData();
+
+		for (ToolBoxPlugin plugin : getLoadedPlugins()) {
 			if (plugin instanceof ToolBoxPreferenceSupport) {
-				ToolBoxPreferenceSupport support = (ToolBoxPreferenceSupport) plugin;
+				((ToolBoxPreferenceSupport) plugin).load(getLoadedProperties(plugin.getClass()));
+			}
+		}
+	}
 
-				Properties p = pluginProperties.get(plugin.getClass());
+	/**
+	 * 設定ファイルの読み込みをバックグラウンドで並列に開始する。
+	 * <p>
+	 * 設定を必要になった時に読み込む保存先の場合は、何もしません。
+	 * </p>
+	 */
+	private void startLoadData() {
+		final long start = startupReport.start();
+		if (preferenceStore.isLazy()) {
+			// プラグインが生成される時に読み込む
+			startupReport.record("preference load", start);
+			return;
+		}
+		ExecutorService loader = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable aRunnable) {
+				Thread thread = new Thread(aRunnable, "ToolBox-PreferenceLoader");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
 
-				try {
-					File proFile = Paths.get(".", "plugin", plugin.getClass().getName(), "preference.properties").toFile();
-					if (proFile.isFile()) {
-						p.load(new FileInputStream(proFile));
+		final List<Future<Properties>> futures = new ArrayList<Future<Properties>>();
+		synchronized (plugins) {
+			for (final Class<? extends ToolBoxPlugin> clazz : pluginList) {
+				if (!ToolBoxPreferenceSupport.class.isAssignableFrom(clazz)) {
+					continue;
+				}
+				final Properties p = pluginProperties.get(clazz);
+				Future<Properties> future = loader.submit(new Callable<Properties>() {
+					@Override
+					public Properties call() throws IOException {
+						loadProperties(clazz, p);
+						return p;
+					}
+				});
+				pluginPropertiesLoads.put(clazz, future);
+				futures.add(future);
+			}
+		}
+		loader.shutdown();
+
+		Thread reporter = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				for (Future<Properties> future : futures) {
+					try {
+						future.get();
+					} catch (InterruptedException ex) {
+						return;
+					} catch (ExecutionException ex) {
+						// getLoadedPropertiesで出力する
 					}
-				} catch (IOException ex) {
-					ex.printStackTrace();
 				}
-
-				support.load(p);
+				startupReport.record("preference load", start);
 			}
+		}, "ToolBox-PreferenceLoadReporter");
+		reporter.setDaemon(true);
+		reporter.start();
+	}
+
+	/**
+	 * 設定ファイルの監視を開始する。
+	 */
+	private void startWatchData() {
+		Set<String> shared = Collections.singleton(ToolBoxBinaryPreferenceStore.DATA_FILE_NAME);
+		preferenceWatcher = new ToolBoxPreferenceWatcher(preferenceStore.getDirectory(), shared,
+				new ToolBoxPreferenceWatcher.Listener() {
+					@Override
+					public void preferenceFilesChanged(final Set<String> aClassNames) {
+						reloadData(aClassNames);
+					}
+				});
+		try {
+			preferenceWatcher.start();
+		} catch (IOException ex) {
+			ex.printStackTrace();
+			preferenceWatcher = null;
 		}
 	}
 
-	public void storeData() {
-		for (Class<? extends ToolBoxPlugin> clazz : pluginList) {
-			ToolBoxPlugin plugin = plugins.get(clazz);
-			if (plugin instanceof ToolBoxPreferenceSupport) {
-				ToolBoxPreferenceSupport support = (ToolBoxPreferenceSupport) plugin;
+	/**
+	 * 外部で変更された設定を読み込み直し、変更されたキーのみをプラグインへ通知する。
+	 * <p>
+	 * 保存待ちの設定があるプラグインは、外部の変更を反映しません。
+	 * </p>
+	 * 
+	 * @param aClassNames 変更されたプラグインのクラス名。全てのプラグインの場合、<code>null</code>
+	 */
+	private void reloadData(final Set<String> aClassNames) {
+		preferenceStore.refresh();
+		for (Class<? extends ToolBoxPlugin> clazz : getPluginClasses()) {
+			if (!ToolBoxPreferenceSupport.class.isAssignableFrom(clazz)) {
+				continue;
+			}
+			if (null != aClassNames && !aClassNames.contains(clazz.getName())) {
+				continue;
+			}
 
-				Properties p = pluginProperties.get(plugin.getClass());
+			final Properties p;
+			final ToolBoxPlugin plugin;
+			Future<Properties> future;
+			synchronized (plugins) {
+				p = pluginProperties.get(clazz);
+				plugin = plugins.get(clazz);
+				future = pluginPropertiesLoads.get(clazz);
+			}
+			if (null == p || (null == plugin && null == future)) {
+				// まだ読み込んでいない設定は、読み込む時に最新の内容になる
+				continue;
+			}
+			if (null != future) {
+				getLoadedProperties(clazz);
+			}
 
-				support.store(p);
+			final Properties fresh;
+			try {
+				fresh = preferenceStore.reload(clazz);
+			} catch (IOException ex) {
+				ex.printStackTrace();
+				continue;
+			}
+			if (null == fresh) {
+				continue;
+			}
 
-				try {
-					File proFile = Paths.get(".", "plugin", plugin.getClass().getName(), "preference.properties").toFile();
-					File parentDir = proFile.getParentFile();
-					parentDir.mkdirs();
+			final Set<String> keys = new HashSet<String>();
+			synchronized (p) {
+				keys.addAll(p.stringPropertyNames());
+				keys.addAll(fresh.stringPropertyNames());
+				for (Iterator<String> it = keys.iterator(); it.hasNext();) {
+					String key = it.next();
+					String value = p.getProperty(key);
+					if (null == value ? null == fresh.getProperty(key) : value.equals(fresh.getProperty(key))) {
+						it.remove();
+					}
+				}
+			}
+			if (keys.isEmpty()) {
+				continue;
+			}
 
-					p.store(new FileOutputStream(proFile), null);
-				} catch (IOException ex) {
-					ex.printStackTrace();
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					synchronized (p) {
+						p.clear();
+						p.putAll(fresh);
+					}
+					if (plugin instanceof ToolBoxPreferenceChangeSupport) {
+						((ToolBoxPreferenceChangeSupport) plugin).preferenceChanged(p, Collections.unmodifiableSet(keys));
+					} else if (plugin instanceof ToolBoxPreferenceSupport) {
+						// 通知に対応していないプラグインは読み込み直す
+						((ToolBoxPreferenceSupport) plugin).load(p);
+					}
 				}
+			});
+		}
+	}
+
+	/**
+	 * 読み込みの完了した設定を取得する。
+	 * 
+	 * @param aClass プラグイン
+	 * @return 設定
+	 */
+	private Properties getLoadedProperties(final Class<? extends ToolBoxPlugin> aClass) {
+		Future<Properties> future;
+		Properties p;
+		synchronized (plugins) {
+			future = pluginPropertiesLoads.get(aClass);
+			p = pluginProperties.get(aClass);
+		}
+		if (null != future) {
+			try {
+				future.get();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException ex) {
+				ex.getCause().printStackTrace();
+			}
+		} else {
+			// 起動後に登録されたプラグイン
+			try {
+				loadProperties(aClass, p);
+			} catch (IOException ex) {
+				ex.printStackTrace();
 			}
 		}
+		return p;
+	}
+
+	private void loadProperties(final Class<? extends ToolBoxPlugin> aClass, final Properties aProperties)
+			throws IOException {
+		preferenceStore.load(aClass, aProperties);
+	}
+
+	private List<Class<? extends ToolBoxPlugin>> getPluginClasses() {
+		synchronized (plugins) {
+			return new ArrayList<Class<? extends ToolBoxPlugin>>(pluginList);
+		}
+	}
+
+	private List<ToolBoxPlugin> getLoadedPlugins() {
+		synchronized (plugins) {
+			return new ArrayList<ToolBoxPlugin>(plugins.values());
+		}
+	}
+
+	/**
+	 * 設定を保存する。
+	 * <p>
+	 * 変更された設定のみをバックグラウンドで書き出す為、すぐに戻ります。
+	 * </p>
+	 */
+	public void storeData() {
+		// 生成していないプラグインの設定は変更されていない為、書き出さない
+		for (ToolBoxPlugin plugin : getLoadedPlugins()) {
+			storeData(plugin, pluginProperties.get(plugin.getClass()));
+		}
+	}
+
+	private void storeData(final ToolBoxPlugin aPlugin, final Properties aProperties) {
+		if (aPlugin instanceof ToolBoxPreferenceSupport) {
+			ToolBoxPreferenceSupport support = (ToolBoxPreferenceSupport) aPlugin;
+
+			Properties p = aProperties;
+
+			support.store(p);
+
+			preferenceStore.store(aPlugin.getClass(), p);
+		}
 	}
 
 	public ToolBoxFileOpen getFileSupport(final File aFile) {
 		ToolBoxFileOpen execute = null;
 
-		for (Class<? extends ToolBoxPlugin> clazz : pluginList) {
-			ToolBoxPlugin plugin = plugins.get(clazz);
-			if (plugin instanceof ToolBoxFileOpenSupport) {
-				// XXX:微妙
-				plugin.setToolBoxFrame(frame);
-
-				ToolBoxFileOpenSupport support = (ToolBoxFileOpenSupport) plugin;
+		for (Class<? extends ToolBoxPlugin> clazz : fileOpenIndex.get(aFile)) {
+			ToolBoxPlugin plugin = getPlugin(clazz);
+			if (!(plugin instanceof ToolBoxFileOpenSupport)) {
+				continue;
+			}
+			ToolBoxFileOpenSupport support = (ToolBoxFileOpenSupport) plugin;
 
-				if (support.isSupportFileOpen(aFile)) {
-					execute = support;
-					break;
-				}
-			} else {
-				// System.out.println("Unsupported file support.");
+			if (support.isSupportFileOpen(aFile)) {
+				execute = support;
+				break;
 			}
 		}
 
@@ -225,33 +923,41 @@ public class ToolBox {
 	public List<JMenuItem> getPopupMenu(final File aFile) {
 		List<JMenuItem> menus = new ArrayList<>();
 
-		for (Class<? extends ToolBoxPlugin> clazz : pluginList) {
-			ToolBoxPlugin plugin = plugins.get(clazz);
-			if (plugin instanceof ToolBoxFilePopupMenuSupport) {
-				// XXX:微妙
-				plugin.setToolBoxFrame(frame);
-
-				ToolBoxFilePopupMenuSupport support = (ToolBoxFilePopupMenuSupport) plugin;
+		for (Class<? extends ToolBoxPlugin> clazz : filePopupMenuIndex.get(aFile)) {
+			ToolBoxPlugin plugin = getPlugin(clazz);
+			if (!(plugin instanceof ToolBoxFilePopupMenuSupport)) {
+				continue;
+			}
+			ToolBoxFilePopupMenuSupport support = (ToolBoxFilePopupMenuSupport) plugin;
 
-				if (support.isSupportFilePopupMenu(aFile)) {
+			if (support.isSupportFilePopupMenu(aFile)) {
 
-					List<JMenuItem> lst = support.pupupMenuFile(aFile);
-					if (null != lst) {
-						menus.addAll(lst);
-					}
+				List<JMenuItem> lst = support.pupupMenuFile(aFile);
+				if (null != lst) {
+					menus.addAll(lst);
 				}
-			} else {
-				// System.out.println("Unsupported file support.");
 			}
 		}
 		return menus;
 	}
 
-	public ToolBoxPlugin getPlugin(final Class<? extends ToolBoxPlugin> aClass) {
-		return plugins.get(aClass);
+	/**
+	 * タスクサーバを取得する。
+	 * 
+	 * @return タスクサーバ。{@link MultiTaskServer}以外のバックエンドを使用している場合、<code>null</code>
+	 */
+	public MultiTaskServer getServer() {
+		if (executor instanceof MultiTaskServerExecutor) {
+			return ((MultiTaskServerExecutor) executor).getServer();
+		}
+		return null;
 	}
 
-	public MultiTaskServer getServer() {
-		return server;
+	public ToolBoxTaskExecutor getTaskExecutor() {
+		return executor;
+	}
+
+	public ToolBoxTaskScheduler getScheduler() {
+		return scheduler;
 	}
 }
@@ -0,0 +1,377 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+import org.azkfw.toolbox.plugin.ToolBoxPlugin;
+
+/**
+ * このクラスは、全てのプラグインの設定を1つのバイナリファイルへ保存するクラスです。
+ * <p>
+ * ファイルはまとめて読み込み、プラグインのクラス名による索引のみを作成します。
+ * 書き出しで置き換えられる様、ファイルはメモリマップせずに開いたままにしません。
+ * 設定はプラグインが初めて読み込む時にデコードする為、起動時にプラグイン毎のファイルを開く必要はありません。
+ * 各設定と、ファイル全体にはCRC32のチェックサムを付けます。
+ * </p>
+ * <p>
+ * このファイルに設定のないプラグインは、従来のプラグイン毎の設定ファイルから読み込みます。
+ * {@link #load(Class, Properties)}で読み込んだ場合のみ、次の書き出しでこのファイルへ移行します。
+ * {@link #migrate(Collection)}でまとめて移行することもできます。従来の設定ファイルは削除しません。
+ * </p>
+ * 
+ * <pre>
+ * ファイル   : magic(int) version(int) count(int) entry* crc32(int)
+ * entry      : nameLength(int) name(UTF-8) dataLength(int) data crc32(int)
+ * data       : count(int) (keyLength(int) key(UTF-8) valueLength(int) value(UTF-8))*
+ * </pre>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ToolBoxBinaryPreferenceStore extends ToolBoxPreferenceStore {
+
+	/** 設定ファイル名 */
+	public static final String DATA_FILE_NAME = "preference.dat";
+
+	/** ファイルの先頭 */
+	private static final int MAGIC = 0x415A5046;
+
+	/** ファイルの形式 */
+	private static final int VERSION = 1;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** 設定ファイル */
+	private File file;
+
+	/** 開いた場合、<code>true</code> */
+	private boolean opened;
+
+	/** ファイルの内容 */
+	private ByteBuffer content;
+
+	/** クラス名→設定の位置 */
+	private Map<String, Entry> index;
+
+	/** クラス名→従来の設定ファイルから読み込んだ設定 */
+	private Map<String, Properties> legacies;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aDirectory ディレクトリ
+	 */
+	public ToolBoxBinaryPreferenceStore(final File aDirectory) {
+		super(aDirectory);
+		file = new File(aDirectory, DATA_FILE_NAME);
+		index = new LinkedHashMap<String, Entry>();
+		legacies = new HashMap<String, Properties>();
+	}
+
+	/**
+	 * 設定ファイルを取得する。
+	 * 
+	 * @return 設定ファイル
+	 */
+	public File getDataFile() {
+		return file;
+	}
+
+	@Override
+	public boolean isLazy() {
+		return true;
+	}
+
+	/**
+	 * 従来のプラグイン毎の設定ファイルを移行する。
+	 * <p>
+	 * このファイルに設定のないプラグインのみを移行し、すぐに書き出します。
+	 * </p>
+	 * 
+	 * @param aClasses プラグイン
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public void migrate(final Collection<Class<? extends ToolBoxPlugin>> aClasses) throws IOException {
+		for (Class<? extends ToolBoxPlugin> clazz : aClasses) {
+			synchronized (this) {
+				open();
+				if (index.containsKey(clazz.getName())) {
+					continue;
+				}
+			}
+			Properties p = super.read(clazz);
+			if (!p.isEmpty()) {
+				markDirty(clazz, p);
+			}
+		}
+		flush();
+	}
+
+	@Override
+	public void load(final Class<? extends ToolBoxPlugin> aClass, final Properties aProperties) throws IOException {
+		super.load(aClass, aProperties);
+		Properties legacy;
+		synchronized (this) {
+			legacy = legacies.remove(aClass.getName());
+		}
+		if (null != legacy) {
+			// 従来の設定ファイルから移行する
+			markDirty(aClass, legacy);
+		}
+	}
+
+	@Override
+	public Properties reload(final Class<? extends ToolBoxPlugin> aClass) throws IOException {
+		Properties p = super.reload(aClass);
+		synchronized (this) {
+			// 読み込み直しでは移行しない
+			legacies.remove(aClass.getName());
+		}
+		return p;
+	}
+
+	@Override
+	public synchronized void refresh() {
+		opened = false;
+	}
+
+	@Override
+	protected Properties read(final Class<? extends ToolBoxPlugin> aClass) throws IOException {
+		ByteBuffer data = null;
+		Entry entry;
+		synchronized (this) {
+			open();
+			entry = index.get(aClass.getName());
+			if (null != entry) {
+				data = slice(entry);
+			}
+		}
+
+		if (null == entry) {
+			// 従来の設定ファイルから読み込み、移行するかは呼び出し元で判断する
+			Properties p = super.read(aClass);
+			if (!p.isEmpty()) {
+				Properties copy = new Properties();
+				copy.putAll(p);
+				synchronized (this) {
+					legacies.put(aClass.getName(), copy);
+				}
+			}
+			return p;
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(toBytes(data.duplicate()));
+		if ((int) crc.getValue() != entry.crc) {
+			throw new IOException("Broken preference " + aClass.getName() + " in " + file.getPath());
+		}
+		return decode(data);
+	}
+
+	@Override
+	protected void write(final Map<Class<? extends ToolBoxPlugin>, Properties> aTargets) throws IOException {
+		// 変更のないプラグインの設定はそのまま書き戻す
+		Map<String, byte[]> entries = new LinkedHashMap<String, byte[]>();
+		synchronized (this) {
+			open();
+			for (Map.Entry<String, Entry> entry : index.entrySet()) {
+				entries.put(entry.getKey(), toBytes(slice(entry.getValue())));
+			}
+		}
+		for (Map.Entry<Class<? extends ToolBoxPlugin>, Properties> entry : aTargets.entrySet()) {
+			entries.put(entry.getKey().getName(), encode(entry.getValue()));
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(entries.size());
+			for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+				byte[] name = entry.getKey().getBytes(UTF8);
+				byte[] data = entry.getValue();
+				CRC32 crc = new CRC32();
+				crc.update(data);
+
+				out.writeInt(name.length);
+				out.write(name);
+				out.writeInt(data.length);
+				out.write(data);
+				out.writeInt((int) crc.getValue());
+			}
+			out.flush();
+			CRC32 crc = new CRC32();
+			crc.update(bytes.toByteArray());
+			out.writeInt((int) crc.getValue());
+		}
+		writeAtomically(file, bytes.toByteArray());
+
+		synchronized (this) {
+			opened = false;
+			open();
+		}
+	}
+
+	/**
+	 * ファイルを読み込み、索引を作成する。
+	 * <p>
+	 * ファイルが壊れている場合は、従来の設定ファイルから読み込みます。
+	 * </p>
+	 */
+	private void open() {
+		if (opened) {
+			return;
+		}
+		opened = true;
+		content = null;
+		index.clear();
+		if (!file.isFile()) {
+			return;
+		}
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (16 > size || Integer.MAX_VALUE < size) {
+				throw new IOException("Invalid preference file " + file.getPath());
+			}
+			ByteBuffer buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining()) {
+				if (0 > channel.read(buffer, buffer.position())) {
+					throw new IOException("Truncated preference file " + file.getPath());
+				}
+			}
+			buffer.clear();
+
+			int length = (int) size - 4;
+			CRC32 crc = new CRC32();
+			ByteBuffer body = buffer.duplicate();
+			body.limit(length);
+			crc.update(toBytes(body));
+			if (MAGIC != buffer.getInt(0) || VERSION != buffer.getInt(4) || (int) crc.getValue() != buffer.getInt(length)) {
+				throw new IOException("Broken preference file " + file.getPath());
+			}
+
+			Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+			int count = buffer.getInt(8);
+			int position = 12;
+			for (int i = 0; i < count; i++) {
+				int nameLength = buffer.getInt(position);
+				byte[] name = new byte[nameLength];
+				ByteBuffer b = buffer.duplicate();
+				b.position(position + 4);
+				b.get(name);
+				position += 4 + nameLength;
+				int dataLength = buffer.getInt(position);
+				int offset = position + 4;
+				position = offset + dataLength;
+				int dataCrc = buffer.getInt(position);
+				position += 4;
+				entries.put(new String(name, UTF8), new Entry(offset, dataLength, dataCrc));
+			}
+			content = buffer;
+			index.putAll(entries);
+		} catch (IOException | RuntimeException ex) {
+			ex.printStackTrace();
+			index.clear();
+		}
+	}
+
+	private ByteBuffer slice(final Entry aEntry) {
+		ByteBuffer buffer = content.duplicate();
+		buffer.position(aEntry.offset);
+		buffer.limit(aEntry.offset + aEntry.length);
+		return buffer.slice();
+	}
+
+	private static byte[] toBytes(final ByteBuffer aBuffer) {
+		byte[] bytes = new byte[aBuffer.remaining()];
+		aBuffer.get(bytes);
+		return bytes;
+	}
+
+	private static byte[] encode(final Properties aProperties) throws IOException {
+		List<String> keys = new ArrayList<String>(aProperties.stringPropertyNames());
+		Collections.sort(keys);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(keys.size());
+			for (String key : keys) {
+				writeString(out, key);
+				writeString(out, aProperties.getProperty(key));
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Properties decode(final ByteBuffer aData) {
+		Properties p = new Properties();
+		int count = aData.getInt();
+		for (int i = 0; i < count; i++) {
+			String key = readString(aData);
+			String value = readString(aData);
+			p.setProperty(key, value);
+		}
+		return p;
+	}
+
+	private static void writeString(final DataOutputStream aOut, final String aValue) throws IOException {
+		byte[] bytes = aValue.getBytes(UTF8);
+		aOut.writeInt(bytes.length);
+		aOut.write(bytes);
+	}
+
+	private static String readString(final ByteBuffer aBuffer) {
+		byte[] bytes = new byte[aBuffer.getInt()];
+		aBuffer.get(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	private static final class Entry {
+
+		private final int offset;
+
+		private final int length;
+
+		private final int crc;
+
+		private Entry(final int aOffset, final int aLength, final int aCrc) {
+			offset = aOffset;
+			length = aLength;
+			crc = aCrc;
+		}
+	}
+}
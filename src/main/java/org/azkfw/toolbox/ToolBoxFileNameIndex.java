@@ -0,0 +1,931 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * このクラスは、ファイル名の索引クラスです。
+ * <p>
+ * ルート配下のファイル名をメモリ上のツリーに索引付けし、部分一致・グロブで検索します。
+ * 索引は{@link ForkJoinPool}で並列に走査して作成し、作成後は{@link WatchService}の変更通知で差分のみを更新します。
+ * 検索は作成とは別の{@link ForkJoinPool}で行う為、索引の作成中でも走査の完了を待たずに検索できます。
+ * 監視するディレクトリは{@link #WATCH_LIMIT}件までとし、監視できなかったディレクトリは{@link #REFRESH_INTERVAL}毎に走査し直します。
+ * その間の変更は直ちには反映されない為、{@link #isLive()}で判断できます。
+ * </p>
+ * <p>
+ * 保存先を指定した場合、終了時に索引を保存し、次回は保存した索引で検索しながら作成し直します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ToolBoxFileNameIndex {
+
+	/** 監視するディレクトリの上限 */
+	public static final int WATCH_LIMIT = 4096;
+
+	/** 監視できなかったディレクトリを走査し直す間隔(ミリ秒) */
+	public static final long REFRESH_INTERVAL = 5L * 60L * 1000L;
+
+	/** 検索結果の上限 */
+	public static final int MAX_RESULTS = 10000;
+
+	private static final int MAGIC = 0x415A4649;
+	private static final int VERSION = 1;
+
+	/**
+	 * このインターフェースは、索引の更新を受け取るリスナーです。
+	 */
+	public interface Listener {
+
+		/**
+		 * 索引が更新された時に呼び出される。EDT以外から呼び出されます。
+		 * 
+		 * @param aIndex 索引
+		 */
+		public void fileNameIndexUpdated(final ToolBoxFileNameIndex aIndex);
+	}
+
+	private final List<File> roots;
+	private final File file;
+
+	private final ReadWriteLock lock;
+	private final ForkJoinPool pool;
+	/** 検索用(作成用のpoolとは分ける) */
+	private final ForkJoinPool searchPool;
+	private final List<Listener> listeners;
+
+	/** ルート(lockで保護) */
+	private List<Entry> rootEntries;
+	/** 件数(lockで保護) */
+	private int count;
+
+	private volatile boolean building;
+	private volatile boolean closed;
+	/** 作成中の件数 */
+	private final AtomicInteger buildCount;
+
+	/** 監視(watchKeysで保護) */
+	private WatchService watchService;
+	private final Map<WatchKey, Entry> watchKeys;
+	/** 上限を超えて監視できなかったディレクトリ(watchKeysで保護) */
+	private final List<Entry> unwatched;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aRoots ルート
+	 * @param aFile 保存先。保存しない場合、<code>null</code>
+	 */
+	public ToolBoxFileNameIndex(final List<File> aRoots, final File aFile) {
+		roots = new ArrayList<File>(aRoots);
+		file = aFile;
+		lock = new ReentrantReadWriteLock();
+		pool = new ForkJoinPool();
+		searchPool = new ForkJoinPool();
+		listeners = new ArrayList<Listener>();
+		rootEntries = new ArrayList<Entry>();
+		buildCount = new AtomicInteger();
+		watchKeys = new HashMap<WatchKey, Entry>();
+		unwatched = new ArrayList<Entry>();
+	}
+
+	public synchronized void addListener(final Listener aListener) {
+		listeners.add(aListener);
+	}
+
+	public synchronized void removeListener(final Listener aListener) {
+		listeners.remove(aListener);
+	}
+
+	/**
+	 * ルートを取得する。
+	 * 
+	 * @return ルート
+	 */
+	public List<File> getRoots() {
+		return Collections.unmodifiableList(roots);
+	}
+
+	/**
+	 * 索引の件数を取得する。
+	 * <p>
+	 * 作成中は作成済みの件数を返します。
+	 * </p>
+	 * 
+	 * @return 件数
+	 */
+	public int size() {
+		if (building) {
+			return buildCount.get();
+		}
+		lock.readLock().lock();
+		try {
+			return count;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 作成中か判断する。
+	 * 
+	 * @return 作成中の場合、<code>true</code>
+	 */
+	public boolean isBuilding() {
+		return building;
+	}
+
+	/**
+	 * 全てのディレクトリの変更を直ちに反映しているか判断する。
+	 * <p>
+	 * 監視するディレクトリが{@link #WATCH_LIMIT}件を超えた場合、超えた分は{@link #REFRESH_INTERVAL}毎の反映となります。
+	 * </p>
+	 * 
+	 * @return 全てのディレクトリを監視している場合、<code>true</code>
+	 */
+	public boolean isLive() {
+		synchronized (watchKeys) {
+			return null != watchService && unwatched.isEmpty();
+		}
+	}
+
+	/**
+	 * 索引の作成をバックグラウンドで開始する。
+	 * <p>
+	 * 作成中は以前の索引(初回は保存した索引)で検索します。作成中の場合は何もしません。
+	 * </p>
+	 */
+	public synchronized void build() {
+		if (building || closed) {
+			return;
+		}
+		building = true;
+		buildCount.set(0);
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					doBuild();
+				} finally {
+					synchronized (ToolBoxFileNameIndex.this) {
+						building = false;
+						ToolBoxFileNameIndex.this.notifyAll();
+					}
+					fireUpdated();
+				}
+			}
+		}, "ToolBox-FileNameIndex");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * ファイル名を検索する。
+	 * <p>
+	 * 大文字・小文字は区別しません。<code>*</code>、<code>?</code>、<code>[</code>を含む場合はグロブとして名前全体に一致させ、
+	 * それ以外は部分一致とします。区切り文字を含む場合はパスで比較します。
+	 * </p>
+	 * 
+	 * @param aQuery 検索文字列
+	 * @param aLimit 上限
+	 * @return ファイル(パス順)
+	 */
+	public List<File> search(final String aQuery, final int aLimit) {
+		final NameMatcher matcher = createMatcher(aQuery.trim());
+		if (null == matcher || closed) {
+			return new ArrayList<File>();
+		}
+		final int limit = Math.min(aLimit, MAX_RESULTS);
+		final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<Entry>();
+		final AtomicInteger found = new AtomicInteger();
+
+		List<Entry> entries;
+		lock.readLock().lock();
+		try {
+			entries = rootEntries;
+			List<SearchTask> tasks = new ArrayList<SearchTask>();
+			for (Entry entry : entries) {
+				tasks.add(new SearchTask(entry, matcher, queue, found, limit));
+			}
+			// 呼び出したスレッドが読み込みロックを保持したまま待つ
+			for (SearchTask task : tasks) {
+				searchPool.execute(task);
+			}
+			for (SearchTask task : tasks) {
+				task.join();
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		List<File> files = new ArrayList<File>(queue.size());
+		for (Entry entry : queue) {
+			files.add(new File(entry.getPath()));
+			if (files.size() >= limit) {
+				break;
+			}
+		}
+		Collections.sort(files);
+		return files;
+	}
+
+	/**
+	 * 監視を終了し、索引を保存する。
+	 */
+	public void close() {
+		closed = true;
+		closeWatchService();
+		pool.shutdownNow();
+		searchPool.shutdownNow();
+		if (null != file && !building) {
+			lock.readLock().lock();
+			try {
+				if (!rootEntries.isEmpty()) {
+					save(rootEntries);
+				}
+			} catch (IOException ex) {
+				ex.printStackTrace();
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+	}
+
+	private void doBuild() {
+		boolean empty;
+		lock.readLock().lock();
+		try {
+			empty = rootEntries.isEmpty();
+		} finally {
+			lock.readLock().unlock();
+		}
+		if (empty && null != file && file.isFile()) {
+			try {
+				List<Entry> entries = load();
+				if (null != entries) {
+					publish(entries);
+				}
+			} catch (IOException ex) {
+				ex.printStackTrace();
+			}
+		}
+
+		closeWatchService();
+		synchronized (watchKeys) {
+			if (closed) {
+				return;
+			}
+			try {
+				watchService = FileSystems.getDefault().newWatchService();
+				final WatchService service = watchService;
+				Thread thread = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						watch(service);
+					}
+				}, "ToolBox-FileNameIndexWatcher");
+				thread.setDaemon(true);
+				thread.start();
+			} catch (IOException ex) {
+				ex.printStackTrace();
+			}
+		}
+
+		List<Entry> entries = new ArrayList<Entry>();
+		List<WalkTask> tasks = new ArrayList<WalkTask>();
+		for (File root : roots) {
+			Entry entry = new Entry(null, root.getPath(), true);
+			entries.add(entry);
+			tasks.add(new WalkTask(entry, root.toPath()));
+		}
+		try {
+			for (WalkTask task : tasks) {
+				pool.execute(task);
+			}
+			for (WalkTask task : tasks) {
+				task.join();
+			}
+		} catch (RuntimeException ex) {
+			// 終了した
+			if (!closed) {
+				ex.printStackTrace();
+			}
+			return;
+		}
+		if (!closed) {
+			publish(entries);
+		}
+	}
+
+	private void publish(final List<Entry> aEntries) {
+		int size = 0;
+		for (Entry entry : aEntries) {
+			size += entry.count();
+		}
+		lock.writeLock().lock();
+		try {
+			rootEntries = aEntries;
+			count = size;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		fireUpdated();
+	}
+
+	private void fireUpdated() {
+		List<Listener> targets;
+		synchronized (this) {
+			targets = new ArrayList<Listener>(listeners);
+		}
+		for (Listener listener : targets) {
+			listener.fileNameIndexUpdated(this);
+		}
+	}
+
+	private void register(final Entry aEntry, final Path aPath) {
+		synchronized (watchKeys) {
+			if (null == watchService) {
+				return;
+			}
+			if (WATCH_LIMIT <= watchKeys.size()) {
+				// 定期的に走査し直す
+				unwatched.add(aEntry);
+				return;
+			}
+			try {
+				WatchKey key = aPath.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_DELETE);
+				watchKeys.put(key, aEntry);
+			} catch (IOException | ClosedWatchServiceException ex) {
+				// 監視できないディレクトリは作成し直すまで更新しない
+			}
+		}
+	}
+
+	private void closeWatchService() {
+		synchronized (watchKeys) {
+			if (null != watchService) {
+				try {
+					watchService.close();
+				} catch (IOException ex) {
+					ex.printStackTrace();
+				}
+				watchService = null;
+			}
+			watchKeys.clear();
+			unwatched.clear();
+		}
+	}
+
+	private void watch(final WatchService aService) {
+		try {
+			while (true) {
+				WatchKey key = aService.poll(REFRESH_INTERVAL, TimeUnit.MILLISECONDS);
+				// 作成中の索引は走査と競合しない様、作成後に更新する
+				synchronized (this) {
+					while (building) {
+						wait();
+					}
+				}
+				if (null == key) {
+					refreshUnwatched(aService);
+					continue;
+				}
+				Entry entry;
+				synchronized (watchKeys) {
+					entry = watchKeys.get(key);
+				}
+				List<WatchEvent<?>> events = key.pollEvents();
+				if (!key.reset()) {
+					synchronized (watchKeys) {
+						watchKeys.remove(key);
+					}
+				}
+				if (null == entry) {
+					continue;
+				}
+				Path dir = (Path) key.watchable();
+				for (WatchEvent<?> event : events) {
+					if (StandardWatchEventKinds.OVERFLOW == event.kind()) {
+						refresh(entry, dir);
+					} else {
+						Path path = dir.resolve((Path) event.context());
+						if (StandardWatchEventKinds.ENTRY_CREATE == event.kind()) {
+							created(entry, path);
+						} else {
+							deleted(entry, path.getFileName().toString());
+						}
+					}
+				}
+				fireUpdated();
+			}
+		} catch (InterruptedException | ClosedWatchServiceException ex) {
+			// 終了
+		}
+	}
+
+	/**
+	 * 監視できなかったディレクトリを走査し直す。
+	 * <p>
+	 * 監視の通知と競合しない様、監視のスレッドから呼び出す。
+	 * </p>
+	 * 
+	 * @param aService 呼び出し元の監視
+	 */
+	private void refreshUnwatched(final WatchService aService) {
+		List<Entry> entries;
+		synchronized (watchKeys) {
+			if (aService != watchService || unwatched.isEmpty()) {
+				return;
+			}
+			entries = new ArrayList<Entry>(unwatched);
+			// 走査で改めて監視できなかったディレクトリが登録される
+			unwatched.clear();
+		}
+		// 親を先に走査し直し、置き換えられた子は読み飛ばす
+		Collections.sort(entries, new Comparator<Entry>() {
+			@Override
+			public int compare(final Entry o1, final Entry o2) {
+				return Integer.compare(o1.getPath().length(), o2.getPath().length());
+			}
+		});
+		for (Entry entry : entries) {
+			if (closed) {
+				return;
+			}
+			if (entry.isAttached()) {
+				refresh(entry, Paths.get(entry.getPath()));
+			}
+		}
+		fireUpdated();
+	}
+
+	private void created(final Entry aParent, final Path aPath) {
+		BasicFileAttributes attrs;
+		try {
+			attrs = Files.readAttributes(aPath, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+		} catch (IOException ex) {
+			return;
+		}
+		Entry entry = new Entry(aParent, aPath.getFileName().toString(), attrs.isDirectory());
+		if (entry.directory) {
+			// 作成されたディレクトリは索引に加える前に走査する
+			pool.invoke(new WalkTask(entry, aPath));
+		}
+		Entry old;
+		lock.writeLock().lock();
+		try {
+			old = aParent.children.put(entry.name, entry);
+			count += entry.count() - ((null != old) ? old.count() : 0);
+		} finally {
+			lock.writeLock().unlock();
+		}
+		if (null != old && old.directory) {
+			unregister(old);
+		}
+	}
+
+	private void deleted(final Entry aParent, final String aName) {
+		Entry old;
+		lock.writeLock().lock();
+		try {
+			old = aParent.children.remove(aName);
+			if (null != old) {
+				count -= old.count();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+		if (null != old && old.directory) {
+			unregister(old);
+		}
+	}
+
+	private void refresh(final Entry aEntry, final Path aPath) {
+		Entry entry = new Entry(aEntry.parent, aEntry.name, true);
+		pool.invoke(new WalkTask(entry, aPath));
+		lock.writeLock().lock();
+		try {
+			count += entry.count() - aEntry.count();
+			aEntry.children = entry.children;
+			for (Entry child : aEntry.children.values()) {
+				child.parent = aEntry;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+		// 走査で登録した監視を元のエントリーへ付け替える
+		synchronized (watchKeys) {
+			for (Map.Entry<WatchKey, Entry> e : watchKeys.entrySet()) {
+				if (e.getValue() == entry) {
+					e.setValue(aEntry);
+				}
+			}
+			int i = unwatched.indexOf(entry);
+			if (-1 != i) {
+				unwatched.set(i, aEntry);
+			}
+		}
+		unregister(aEntry);
+	}
+
+	/**
+	 * 置き換えた、または削除したエントリー配下の監視を解除する。
+	 */
+	private void unregister(final Entry aEntry) {
+		synchronized (watchKeys) {
+			for (Iterator<Map.Entry<WatchKey, Entry>> it = watchKeys.entrySet().iterator(); it.hasNext();) {
+				Map.Entry<WatchKey, Entry> e = it.next();
+				if (e.getValue().isDescendantOf(aEntry) && !e.getValue().isAttached()) {
+					e.getKey().cancel();
+					it.remove();
+				}
+			}
+		}
+	}
+
+	private void save(final List<Entry> aEntries) throws IOException {
+		File dir = file.getAbsoluteFile().getParentFile();
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Failed to create directory.[" + dir + "]");
+		}
+		File temp = new File(dir, file.getName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(temp))))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(aEntries.size());
+			for (Entry entry : aEntries) {
+				write(out, entry);
+			}
+		}
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static void write(final DataOutputStream aOut, final Entry aEntry) throws IOException {
+		aOut.writeUTF(aEntry.name);
+		aOut.writeBoolean(aEntry.directory);
+		if (aEntry.directory) {
+			aOut.writeInt(aEntry.children.size());
+			for (Entry child : aEntry.children.values()) {
+				write(aOut, child);
+			}
+		}
+	}
+
+	private List<Entry> load() throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+			if (MAGIC != in.readInt() || VERSION != in.readInt()) {
+				return null;
+			}
+			int size = in.readInt();
+			List<Entry> entries = new ArrayList<Entry>(size);
+			for (int i = 0; i < size; i++) {
+				entries.add(read(in, null));
+			}
+			// ルートが変わった場合は使用しない
+			if (entries.size() != roots.size()) {
+				return null;
+			}
+			for (int i = 0; i < size; i++) {
+				if (!entries.get(i).name.equals(roots.get(i).getPath())) {
+					return null;
+				}
+			}
+			return entries;
+		}
+	}
+
+	private static Entry read(final DataInputStream aIn, final Entry aParent) throws IOException {
+		Entry entry = new Entry(aParent, aIn.readUTF(), aIn.readBoolean());
+		if (entry.directory) {
+			int size = aIn.readInt();
+			for (int i = 0; i < size; i++) {
+				Entry child = read(aIn, entry);
+				entry.children.put(child.name, child);
+			}
+		}
+		return entry;
+	}
+
+	private static NameMatcher createMatcher(final String aQuery) {
+		if (0 == aQuery.length()) {
+			return null;
+		}
+		boolean path = (-1 != aQuery.indexOf('/') || -1 != aQuery.indexOf(File.separatorChar));
+		if (-1 != aQuery.indexOf('*') || -1 != aQuery.indexOf('?') || -1 != aQuery.indexOf('[')) {
+			return new GlobMatcher(aQuery, path);
+		}
+		return new SubstringMatcher(aQuery, path);
+	}
+
+	/**
+	 * ファイル名の比較
+	 */
+	private static abstract class NameMatcher {
+
+		private final boolean path;
+
+		protected NameMatcher(final boolean aPath) {
+			path = aPath;
+		}
+
+		public final boolean matches(final Entry aEntry) {
+			return matches((path) ? aEntry.getPath() : aEntry.name);
+		}
+
+		protected abstract boolean matches(final String aName);
+	}
+
+	/**
+	 * 部分一致
+	 */
+	private static class SubstringMatcher extends NameMatcher {
+
+		private final char[] lower;
+		private final char[] upper;
+
+		public SubstringMatcher(final String aQuery, final boolean aPath) {
+			super(aPath);
+			lower = aQuery.toLowerCase(Locale.ENGLISH).toCharArray();
+			upper = aQuery.toUpperCase(Locale.ENGLISH).toCharArray();
+		}
+
+		@Override
+		protected boolean matches(final String aName) {
+			// 名前毎に小文字の文字列を作らない
+			int last = aName.length() - lower.length;
+			for (int i = 0; i <= last; i++) {
+				int j = 0;
+				for (; j < lower.length; j++) {
+					char c = aName.charAt(i + j);
+					if (c != lower[j] && c != upper[j] && Character.toLowerCase(c) != lower[j]) {
+						break;
+					}
+				}
+				if (j == lower.length) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * グロブ
+	 */
+	private static class GlobMatcher extends NameMatcher {
+
+		private final Pattern pattern;
+
+		public GlobMatcher(final String aQuery, final boolean aPath) {
+			super(aPath);
+			// 全体に一致させる為、パスの場合は先頭を任意とする
+			String glob = (aPath && !aQuery.startsWith("*")) ? "*" + aQuery : aQuery;
+			pattern = Pattern.compile(toRegex(glob), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+		}
+
+		@Override
+		protected boolean matches(final String aName) {
+			return pattern.matcher(aName).matches();
+		}
+
+		private static String toRegex(final String aGlob) {
+			StringBuilder s = new StringBuilder();
+			boolean bracket = false;
+			for (int i = 0; i < aGlob.length(); i++) {
+				char c = aGlob.charAt(i);
+				if (bracket) {
+					if (']' == c) {
+						bracket = false;
+						s.append(']');
+					} else if ('\\' == c || '[' == c || '&' == c) {
+						s.append('\\').append(c);
+					} else {
+						s.append(c);
+					}
+				} else if ('*' == c) {
+					s.append(".*");
+				} else if ('?' == c) {
+					s.append('.');
+				} else if ('[' == c && -1 != aGlob.indexOf(']', i + 1)) {
+					bracket = true;
+					s.append('[');
+					if (i + 1 < aGlob.length() && '!' == aGlob.charAt(i + 1)) {
+						s.append('^');
+						i++;
+					}
+				} else {
+					s.append(Pattern.quote(String.valueOf(c)));
+				}
+			}
+			return s.toString();
+		}
+	}
+
+	/**
+	 * 索引のエントリー
+	 */
+	private static class Entry {
+
+		private Entry parent;
+		private final String name;
+		private final boolean directory;
+		/** 子エントリー(ディレクトリの場合) */
+		private Map<String, Entry> children;
+
+		public Entry(final Entry aParent, final String aName, final boolean aDirectory) {
+			parent = aParent;
+			name = aName;
+			directory = aDirectory;
+			if (aDirectory) {
+				children = new HashMap<String, Entry>();
+			}
+		}
+
+		public String getPath() {
+			if (null == parent) {
+				return name;
+			}
+			String path = parent.getPath();
+			return (path.endsWith(File.separator)) ? path + name : path + File.separator + name;
+		}
+
+		public int count() {
+			int result = 1;
+			if (null != children) {
+				for (Entry child : children.values()) {
+					result += child.count();
+				}
+			}
+			return result;
+		}
+
+		public boolean isDescendantOf(final Entry aEntry) {
+			for (Entry entry = this; null != entry; entry = entry.parent) {
+				if (entry == aEntry) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * 索引から辿れるか判断する。
+		 */
+		public boolean isAttached() {
+			Entry entry = this;
+			while (null != entry.parent) {
+				if (entry.parent.children.get(entry.name) != entry) {
+					return false;
+				}
+				entry = entry.parent;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * ディレクトリを並列に走査するタスク
+	 */
+	private class WalkTask extends RecursiveAction {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = -2870347566287216413L;
+
+		private final Entry entry;
+		private final Path path;
+
+		public WalkTask(final Entry aEntry, final Path aPath) {
+			entry = aEntry;
+			path = aPath;
+		}
+
+		@Override
+		protected void compute() {
+			if (closed) {
+				return;
+			}
+			register(entry, path);
+			List<WalkTask> tasks = new ArrayList<WalkTask>();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+				for (Path child : stream) {
+					BasicFileAttributes attrs;
+					try {
+						// シンボリックリンクは辿らない
+						attrs = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+					} catch (IOException ex) {
+						continue;
+					}
+					Entry e = new Entry(entry, child.getFileName().toString(), attrs.isDirectory());
+					entry.children.put(e.name, e);
+					buildCount.incrementAndGet();
+					if (e.directory) {
+						tasks.add(new WalkTask(e, child));
+					}
+				}
+			} catch (IOException | DirectoryIteratorException ex) {
+				// 読み込めないディレクトリは除く
+			}
+			invokeAll(tasks);
+		}
+	}
+
+	/**
+	 * 索引を並列に検索するタスク
+	 */
+	private static class SearchTask extends RecursiveAction {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = 6532805512446385104L;
+
+		private final Entry entry;
+		private final NameMatcher matcher;
+		private final ConcurrentLinkedQueue<Entry> queue;
+		private final AtomicInteger found;
+		private final int limit;
+
+		public SearchTask(final Entry aEntry, final NameMatcher aMatcher, final ConcurrentLinkedQueue<Entry> aQueue,
+				final AtomicInteger aFound, final int aLimit) {
+			entry = aEntry;
+			matcher = aMatcher;
+			queue = aQueue;
+			found = aFound;
+			limit = aLimit;
+		}
+
+		@Override
+		protected void compute() {
+			List<SearchTask> tasks = new ArrayList<SearchTask>();
+			for (Entry child : entry.children.values()) {
+				if (found.get() >= limit) {
+					return;
+				}
+				if (matcher.matches(child)) {
+					found.incrementAndGet();
+					queue.add(child);
+				}
+				if (child.directory && !child.children.isEmpty()) {
+					tasks.add(new SearchTask(child, matcher, queue, found, limit));
+				}
+			}
+			invokeAll(tasks);
+		}
+	}
+}
@@ -0,0 +1,291 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.AbstractListModel;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import org.azkfw.toolbox.support.ToolBoxFileOpen;
+
+/**
+ * このクラスは、ファイル名の索引を検索するパネルクラスです。
+ * <p>
+ * 入力が止まってから検索し、結果を開く時は{@link ToolBox#getFileSupport(File)}で対応するプラグインを選びます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ToolBoxFileSearchPanel extends JPanel {
+
+	/** serialVersionUID */
+	private static final long serialVersionUID = -4620932367101465082L;
+
+	/** 入力が止まってから検索するまでの時間(ミリ秒) */
+	private static final int DELAY = 200;
+
+	private final ToolBoxFileNameIndex index;
+	private final ToolBoxFileNameIndex.Listener indexListener;
+
+	private JTextField txtQuery;
+	private JLabel lblStatus;
+	private JList<File> lstResult;
+	private ResultListModel model;
+	private Timer timer;
+
+	/** 最新の検索 */
+	private SwingWorker<List<File>, Void> worker;
+	private long searchTime;
+
+	public ToolBoxFileSearchPanel(final ToolBoxFileNameIndex aIndex) {
+		index = aIndex;
+		setLayout(new BorderLayout());
+
+		txtQuery = new JTextField();
+		txtQuery.setToolTipText("部分一致。*、?、[ ]を含む場合はグロブ");
+		JButton btnRebuild = new JButton("再作成");
+		btnRebuild.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(final ActionEvent event) {
+				index.build();
+				doUpdateStatus();
+			}
+		});
+		lblStatus = new JLabel(" ");
+
+		JPanel pnlQuery = new JPanel(new BorderLayout(4, 4));
+		pnlQuery.setBorder(new EmptyBorder(4, 4, 4, 4));
+		pnlQuery.add(txtQuery, BorderLayout.CENTER);
+		pnlQuery.add(btnRebuild, BorderLayout.EAST);
+		pnlQuery.add(lblStatus, BorderLayout.SOUTH);
+		add(pnlQuery, BorderLayout.NORTH);
+
+		model = new ResultListModel();
+		lstResult = new JList<File>(model);
+		lstResult.setCellRenderer(new FileCellRenderer());
+		lstResult.setPrototypeCellValue(new File("prototype"));
+		lstResult.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(final MouseEvent event) {
+				if (2 == event.getClickCount()) {
+					doOpenFile();
+				}
+			}
+		});
+		lstResult.addKeyListener(new KeyAdapter() {
+			@Override
+			public void keyPressed(final KeyEvent event) {
+				if (KeyEvent.VK_ENTER == event.getKeyCode()) {
+					doOpenFile();
+				}
+			}
+		});
+		JScrollPane scroll = new JScrollPane(lstResult);
+		scroll.setBorder(new EmptyBorder(0, 0, 0, 0));
+		add(scroll, BorderLayout.CENTER);
+
+		timer = new Timer(DELAY, new ActionListener() {
+			@Override
+			public void actionPerformed(final ActionEvent event) {
+				doSearch();
+			}
+		});
+		timer.setRepeats(false);
+		txtQuery.getDocument().addDocumentListener(new DocumentListener() {
+			@Override
+			public void insertUpdate(final DocumentEvent event) {
+				timer.restart();
+			}
+
+			@Override
+			public void removeUpdate(final DocumentEvent event) {
+				timer.restart();
+			}
+
+			@Override
+			public void changedUpdate(final DocumentEvent event) {
+				timer.restart();
+			}
+		});
+
+		indexListener = new ToolBoxFileNameIndex.Listener() {
+			@Override
+			public void fileNameIndexUpdated(final ToolBoxFileNameIndex aIndex) {
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						doUpdateStatus();
+						// 索引の更新を結果へ反映する
+						if (0 < txtQuery.getText().trim().length()) {
+							timer.restart();
+						}
+					}
+				});
+			}
+		};
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		index.addListener(indexListener);
+		doUpdateStatus();
+	}
+
+	@Override
+	public void removeNotify() {
+		index.removeListener(indexListener);
+		timer.stop();
+		if (null != worker) {
+			worker.cancel(false);
+			worker = null;
+		}
+		super.removeNotify();
+	}
+
+	private void doSearch() {
+		if (null != worker) {
+			worker.cancel(false);
+		}
+		final String query = txtQuery.getText();
+		final long start = System.currentTimeMillis();
+		worker = new SwingWorker<List<File>, Void>() {
+			@Override
+			protected List<File> doInBackground() throws Exception {
+				return index.search(query, ToolBoxFileNameIndex.MAX_RESULTS);
+			}
+
+			@Override
+			protected void done() {
+				if (this != worker || isCancelled()) {
+					return;
+				}
+				worker = null;
+				try {
+					model.setFiles(get());
+				} catch (InterruptedException | ExecutionException ex) {
+					ex.printStackTrace();
+					return;
+				}
+				searchTime = System.currentTimeMillis() - start;
+				doUpdateStatus();
+			}
+		};
+		worker.execute();
+	}
+
+	private void doUpdateStatus() {
+		StringBuilder s = new StringBuilder();
+		s.append(String.format("%,d件", model.getSize()));
+		if (ToolBoxFileNameIndex.MAX_RESULTS <= model.getSize()) {
+			s.append("以上");
+		}
+		s.append(String.format(" (%dms)  索引: %,d件", searchTime, index.size()));
+		if (index.isBuilding()) {
+			s.append(" 作成中…");
+		} else if (!index.isLive()) {
+			// 監視の上限を超えたディレクトリは定期的にしか反映されない
+			s.append(String.format(" 一部の変更は%d分毎に反映", ToolBoxFileNameIndex.REFRESH_INTERVAL / 60000L));
+		}
+		lblStatus.setText(s.toString());
+	}
+
+	private void doOpenFile() {
+		File file = lstResult.getSelectedValue();
+		if (null == file || !file.isFile()) {
+			return;
+		}
+		ToolBoxFileOpen execute = ToolBox.getInstance().getFileSupport(file);
+		if (null != execute) {
+			execute.openFile(file);
+		}
+	}
+
+	private static class ResultListModel extends AbstractListModel<File> {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = 2851023672920395519L;
+
+		private List<File> files = new ArrayList<File>();
+
+		public void setFiles(final List<File> aFiles) {
+			int size = files.size();
+			files = new ArrayList<File>();
+			if (0 < size) {
+				fireIntervalRemoved(this, 0, size - 1);
+			}
+			files = aFiles;
+			if (0 < files.size()) {
+				fireIntervalAdded(this, 0, files.size() - 1);
+			}
+		}
+
+		@Override
+		public int getSize() {
+			return files.size();
+		}
+
+		@Override
+		public File getElementAt(final int aIndex) {
+			return files.get(aIndex);
+		}
+	}
+
+	/**
+	 * ファイル名と親ディレクトリを表示するレンダラー
+	 */
+	private static class FileCellRenderer extends DefaultListCellRenderer {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = -1768223091946785035L;
+
+		@Override
+		public Component getListCellRendererComponent(final JList<?> list, final Object value, final int index,
+				final boolean isSelected, final boolean cellHasFocus) {
+			File file = (File) value;
+			String text = file.getName() + "    " + ((null != file.getParent()) ? file.getParent() : "");
+			return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+		}
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.awt.Component;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JMenuItem;
+import javax.swing.JPopupMenu;
+import javax.swing.JTree;
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeExpansionListener;
+import javax.swing.event.TreeWillExpandListener;
+import javax.swing.tree.DefaultTreeCellRenderer;
+import javax.swing.tree.ExpandVetoException;
+import javax.swing.tree.TreePath;
+
+/**
+ * このクラスは、ディレクトリを非同期に読み込むファイルツリークラスです。
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ * @see ToolBoxFileTreeModel
+ */
+public class ToolBoxFileTree extends JTree {
+
+	/** serialVersionUID */
+	private static final long serialVersionUID = 7307958496839466419L;
+
+	private ToolBoxFileTreeModel model;
+
+	private List<ToolBoxFileTreeListener> listeners;
+
+	/**
+	 * コンストラクタ
+	 */
+	public ToolBoxFileTree() {
+		this(new ToolBoxFileTreeModel());
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aModel モデル
+	 */
+	public ToolBoxFileTree(final ToolBoxFileTreeModel aModel) {
+		super(aModel);
+		model = aModel;
+		listeners = new ArrayList<ToolBoxFileTreeListener>();
+		setRootVisible(false);
+		setShowsRootHandles(true);
+		setCellRenderer(new FileCellRenderer());
+
+		addTreeWillExpandListener(new TreeWillExpandListener() {
+			@Override
+			public void treeWillExpand(final TreeExpansionEvent event) throws ExpandVetoException {
+				model.load(event.getPath().getLastPathComponent());
+			}
+
+			@Override
+			public void treeWillCollapse(final TreeExpansionEvent event) throws ExpandVetoException {
+			}
+		});
+		addTreeExpansionListener(new TreeExpansionListener() {
+			@Override
+			public void treeExpanded(final TreeExpansionEvent event) {
+			}
+
+			@Override
+			public void treeCollapsed(final TreeExpansionEvent event) {
+				// 折り畳んだディレクトリは監視しない
+				model.collapse(event.getPath().getLastPathComponent());
+			}
+		});
+		addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(final MouseEvent event) {
+				if (2 == event.getClickCount() && !event.isPopupTrigger()) {
+					doClickFile(event);
+				}
+			}
+
+			@Override
+			public void mousePressed(final MouseEvent event) {
+				if (event.isPopupTrigger()) {
+					doPopupMenu(event);
+				}
+			}
+
+			@Override
+			public void mouseReleased(final MouseEvent event) {
+				if (event.isPopupTrigger()) {
+					doPopupMenu(event);
+				}
+			}
+		});
+	}
+
+	public void addToolBoxFileTreeListener(final ToolBoxFileTreeListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * 読み込みと監視を終了する。
+	 */
+	public void dispose() {
+		model.dispose();
+	}
+
+	private void doClickFile(final MouseEvent event) {
+		File file = getFile(event);
+		if (null == file) {
+			return;
+		}
+		for (ToolBoxFileTreeListener listener : listeners) {
+			listener.toolBoxFileTreeClickedFile(file);
+		}
+	}
+
+	private void doPopupMenu(final MouseEvent event) {
+		File file = getFile(event);
+		if (null == file) {
+			return;
+		}
+		setSelectionPath(getPathForLocation(event.getX(), event.getY()));
+
+		List<JMenuItem> items = new ArrayList<JMenuItem>();
+		for (ToolBoxFileTreeListener listener : listeners) {
+			List<JMenuItem> result = listener.toolBoxFileTreeMenuFile(file);
+			if (null != result) {
+				items.addAll(result);
+			}
+		}
+		if (items.isEmpty()) {
+			return;
+		}
+		JPopupMenu menu = new JPopupMenu();
+		for (JMenuItem item : items) {
+			menu.add(item);
+		}
+		menu.show(this, event.getX(), event.getY());
+	}
+
+	private File getFile(final MouseEvent event) {
+		TreePath path = getPathForLocation(event.getX(), event.getY());
+		if (null == path) {
+			return null;
+		}
+		return model.getFile(path.getLastPathComponent());
+	}
+
+	/**
+	 * ファイル名を表示するレンダラー
+	 */
+	private static class FileCellRenderer extends DefaultTreeCellRenderer {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = -6130384771853937016L;
+
+		@Override
+		public Component getTreeCellRendererComponent(final JTree tree, final Object value, final boolean sel,
+				final boolean expanded, final boolean leaf, final int row, final boolean hasFocus) {
+			super.getTreeCellRendererComponent(tree, value, sel, expanded, leaf, row, hasFocus);
+			if (null == ((ToolBoxFileTree) tree).model.getFile(value)) {
+				// 読み込み中
+				setIcon(null);
+			}
+			return this;
+		}
+	}
+}
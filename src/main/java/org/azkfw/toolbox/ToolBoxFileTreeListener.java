@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.io.File;
+import java.util.List;
+
+import javax.swing.JMenuItem;
+
+/**
+ * このインターフェースは、ファイルツリーの操作を受け取るリスナーです。
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public interface ToolBoxFileTreeListener {
+
+	/**
+	 * ファイルがダブルクリックされた時に呼び出される。
+	 * 
+	 * @param aFile ファイル
+	 */
+	public void toolBoxFileTreeClickedFile(final File aFile);
+
+	/**
+	 * ファイルのポップアップメニューを表示する時に呼び出される。
+	 * 
+	 * @param aFile ファイル
+	 * @return メニュー項目
+	 */
+	public List<JMenuItem> toolBoxFileTreeMenuFile(final File aFile);
+}
@@ -0,0 +1,533 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.SwingUtilities;
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreeNode;
+
+/**
+ * このクラスは、ディレクトリを非同期に読み込むファイルツリーのモデルクラスです。
+ * <p>
+ * ディレクトリは展開された時に{@link DirectoryStream}でバックグラウンドに一覧し、{@link #BATCH_SIZE}件毎にツリーへ追加します。
+ * 読み込み中は「読み込み中…」ノードを表示します。読み込んだディレクトリは{@link WatchService}で監視し、
+ * 一覧し直さずに作成・削除されたファイルのみを反映します。 折り畳んだディレクトリは配下も含めて監視を解除し、次に展開した時に一覧し直します。
+ * </p>
+ * <p>
+ * ノードの操作は全てEDTで行います。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ToolBoxFileTreeModel extends DefaultTreeModel {
+
+	/** serialVersionUID */
+	private static final long serialVersionUID = -2486431846730618457L;
+
+	/** 一度にツリーへ追加する件数 */
+	public static final int BATCH_SIZE = 500;
+
+	/** 読み込み中ノードの表示 */
+	private static final String LOADING_TEXT = "読み込み中…";
+
+	/** ディレクトリ、名前順 */
+	private static final Comparator<Node> COMPARATOR = new Comparator<Node>() {
+		@Override
+		public int compare(final Node o1, final Node o2) {
+			if (o1.directory != o2.directory) {
+				return (o1.directory) ? -1 : 1;
+			}
+			int result = o1.getName().compareToIgnoreCase(o2.getName());
+			if (0 == result) {
+				result = o1.getName().compareTo(o2.getName());
+			}
+			return result;
+		}
+	};
+
+	private final ExecutorService loader;
+
+	private WatchService watchService;
+
+	/** 監視キー→ディレクトリ */
+	private final Map<WatchKey, Node> watchKeys;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * ファイルシステムのルートを最上位に表示します。
+	 * </p>
+	 */
+	public ToolBoxFileTreeModel() {
+		this(File.listRoots());
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aRoots 最上位に表示するディレクトリ
+	 */
+	public ToolBoxFileTreeModel(final File[] aRoots) {
+		super(new Node(null, false), true);
+		watchKeys = Collections.synchronizedMap(new HashMap<WatchKey, Node>());
+		loader = Executors.newFixedThreadPool(2, new ThreadFactory() {
+			private int count = 0;
+
+			@Override
+			public synchronized Thread newThread(final Runnable aRunnable) {
+				Thread thread = new Thread(aRunnable, "ToolBox-FileTreeLoader-" + (++count));
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		Node root = (Node) getRoot();
+		root.setAllowsChildren(true);
+		root.state = Node.LOADED;
+		for (File file : aRoots) {
+			root.add(new Node(file, true));
+		}
+	}
+
+	/**
+	 * ディレクトリの読み込みを開始する。
+	 * <p>
+	 * 読み込み済み、または読み込み中の場合は何もしません。
+	 * </p>
+	 * 
+	 * @param aNode ノード
+	 */
+	public void load(final Object aNode) {
+		if (!(aNode instanceof Node)) {
+			return;
+		}
+		final Node node = (Node) aNode;
+		if (!node.directory || Node.UNLOADED != node.state) {
+			return;
+		}
+		node.state = Node.LOADING;
+		final int generation = ++node.generation;
+		// 一覧中の変更を逃さない様、一覧する前に監視する
+		register(node);
+		loader.execute(new Runnable() {
+			@Override
+			public void run() {
+				list(node, generation);
+			}
+		});
+	}
+
+	/**
+	 * ディレクトリを読み込み直す。
+	 * 
+	 * @param aNode ノード
+	 */
+	public void reload(final Object aNode) {
+		if (!(aNode instanceof Node)) {
+			return;
+		}
+		Node node = (Node) aNode;
+		if (!node.directory || Node.UNLOADED == node.state) {
+			return;
+		}
+		for (int i = 0; i < node.getChildCount(); i++) {
+			unload((Node) node.getChildAt(i));
+		}
+		node.generation++;
+		node.pending.clear();
+		node.removeAllChildren();
+		node.add(new Node(null, false));
+		node.state = Node.UNLOADED;
+		nodeStructureChanged(node);
+		load(node);
+	}
+
+	/**
+	 * 折り畳まれたディレクトリを未読み込みに戻す。
+	 * <p>
+	 * 配下も含めて監視を解除し、一覧中の読み込みは破棄します。
+	 * </p>
+	 * 
+	 * @param aNode ノード
+	 */
+	public void collapse(final Object aNode) {
+		if (!(aNode instanceof Node)) {
+			return;
+		}
+		Node node = (Node) aNode;
+		if (!node.directory || Node.UNLOADED == node.state) {
+			return;
+		}
+		unload(node);
+		node.pending.clear();
+		node.removeAllChildren();
+		node.add(new Node(null, false));
+		node.state = Node.UNLOADED;
+		nodeStructureChanged(node);
+	}
+
+	/**
+	 * ノードのファイルを取得する。
+	 * 
+	 * @param aNode ノード
+	 * @return ファイル。読み込み中ノードの場合、<code>null</code>
+	 */
+	public File getFile(final Object aNode) {
+		if (aNode instanceof Node) {
+			return ((Node) aNode).file;
+		}
+		return null;
+	}
+
+	/**
+	 * 読み込みと監視を終了する。
+	 */
+	public void dispose() {
+		loader.shutdownNow();
+		synchronized (watchKeys) {
+			if (null != watchService) {
+				try {
+					watchService.close();
+				} catch (IOException ex) {
+					ex.printStackTrace();
+				}
+				watchService = null;
+			}
+			watchKeys.clear();
+		}
+	}
+
+	private void list(final Node aNode, final int aGeneration) {
+		List<Node> batch = new ArrayList<Node>(BATCH_SIZE);
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(aNode.file.toPath())) {
+			for (Path path : stream) {
+				if (aGeneration != aNode.generation) {
+					return;
+				}
+				batch.add(new Node(path.toFile(), Files.isDirectory(path)));
+				if (BATCH_SIZE <= batch.size()) {
+					publish(aNode, aGeneration, batch, false);
+					batch = new ArrayList<Node>(BATCH_SIZE);
+				}
+			}
+		} catch (IOException | DirectoryIteratorException ex) {
+			ex.printStackTrace();
+		}
+		publish(aNode, aGeneration, batch, true);
+	}
+
+	private void publish(final Node aNode, final int aGeneration, final List<Node> aBatch, final boolean aDone) {
+		Collections.sort(aBatch, COMPARATOR);
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				if (aGeneration != aNode.generation) {
+					return;
+				}
+				int[] indices = aNode.merge(aBatch);
+				if (0 < indices.length) {
+					nodesWereInserted(aNode, indices);
+				}
+				if (aDone) {
+					int index = aNode.getChildCount() - 1;
+					if (0 <= index && null == ((Node) aNode.getChildAt(index)).file) {
+						Object placeholder = aNode.getChildAt(index);
+						aNode.remove(index);
+						nodesWereRemoved(aNode, new int[] { index }, new Object[] { placeholder });
+					}
+					aNode.state = Node.LOADED;
+					List<Change> pending = new ArrayList<Change>(aNode.pending);
+					aNode.pending.clear();
+					apply(aNode, pending);
+				}
+			}
+		});
+	}
+
+	private void register(final Node aNode) {
+		synchronized (watchKeys) {
+			try {
+				if (null == watchService) {
+					watchService = FileSystems.getDefault().newWatchService();
+					Thread thread = new Thread(new Runnable() {
+						@Override
+						public void run() {
+							watch();
+						}
+					}, "ToolBox-FileTreeWatcher");
+					thread.setDaemon(true);
+					thread.start();
+				}
+				WatchKey key = aNode.file.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+				aNode.watchKey = key;
+				watchKeys.put(key, aNode);
+			} catch (IOException | ClosedWatchServiceException ex) {
+				ex.printStackTrace();
+			}
+		}
+	}
+
+	private void unload(final Node aNode) {
+		aNode.generation++;
+		if (null != aNode.watchKey) {
+			watchKeys.remove(aNode.watchKey);
+			aNode.watchKey.cancel();
+			aNode.watchKey = null;
+		}
+		for (int i = 0; i < aNode.getChildCount(); i++) {
+			unload((Node) aNode.getChildAt(i));
+		}
+	}
+
+	private void watch() {
+		WatchService service;
+		synchronized (watchKeys) {
+			service = watchService;
+		}
+		try {
+			while (true) {
+				WatchKey key = service.take();
+				final Node node = watchKeys.get(key);
+				List<WatchEvent<?>> events = key.pollEvents();
+				key.reset();
+				if (null == node) {
+					continue;
+				}
+
+				// ファイルの種類の判定はEDTで行わない
+				final List<Change> changes = new ArrayList<Change>(events.size());
+				for (WatchEvent<?> event : events) {
+					if (StandardWatchEventKinds.OVERFLOW == event.kind()) {
+						changes.add(new Change(StandardWatchEventKinds.OVERFLOW, null));
+						continue;
+					}
+					Path path = ((Path) key.watchable()).resolve((Path) event.context());
+					if (StandardWatchEventKinds.ENTRY_CREATE == event.kind()) {
+						changes.add(new Change(event.kind(), new Node(path.toFile(), Files.isDirectory(path))));
+					} else {
+						changes.add(new Change(event.kind(), new Node(path.toFile(), false)));
+					}
+				}
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						if (Node.LOADING == node.state) {
+							// 一覧の完了後に反映する
+							node.pending.addAll(changes);
+						} else if (Node.LOADED == node.state) {
+							apply(node, changes);
+						}
+					}
+				});
+			}
+		} catch (InterruptedException | ClosedWatchServiceException ex) {
+			// 終了
+		}
+	}
+
+	private void apply(final Node aNode, final List<Change> aChanges) {
+		if (null == aNode.watchKey) {
+			return;
+		}
+		for (Change change : aChanges) {
+			if (StandardWatchEventKinds.OVERFLOW == change.kind) {
+				reload(aNode);
+				return;
+			}
+			int index = aNode.indexOf(change.node);
+			if (0 > index && StandardWatchEventKinds.ENTRY_CREATE != change.kind) {
+				// 削除されたファイルは種類を判定できない為、ディレクトリとしても探す
+				index = aNode.indexOf(new Node(change.node.file, true));
+			}
+			if (StandardWatchEventKinds.ENTRY_CREATE == change.kind) {
+				if (0 > index) {
+					insertNodeInto(change.node, aNode, -index - 1);
+				}
+			} else if (0 <= index) {
+				Node child = (Node) aNode.getChildAt(index);
+				if (StandardWatchEventKinds.ENTRY_DELETE == change.kind) {
+					unload(child);
+					removeNodeFromParent(child);
+				} else {
+					nodeChanged(child);
+				}
+			}
+		}
+	}
+
+	/**
+	 * ディレクトリの変更
+	 */
+	private static class Change {
+		private final WatchEvent.Kind<?> kind;
+		private final Node node;
+
+		public Change(final WatchEvent.Kind<?> aKind, final Node aNode) {
+			kind = aKind;
+			node = aNode;
+		}
+	}
+
+	/**
+	 * ファイルのノード
+	 * <p>
+	 * ファイルが<code>null</code>のノードは読み込み中ノードです。未読み込みのディレクトリは読み込み中ノードを子に持ちます。
+	 * </p>
+	 */
+	private static class Node extends DefaultMutableTreeNode {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = 4126453001857290462L;
+
+		private static final int UNLOADED = 0;
+		private static final int LOADING = 1;
+		private static final int LOADED = 2;
+
+		private final File file;
+		private final boolean directory;
+
+		/** EDTでのみ参照する */
+		private int state;
+		/** 読み込みの世代。古い読み込みの結果を破棄する */
+		private volatile int generation;
+		/** 読み込み中に受け取った変更 */
+		private final List<Change> pending;
+		private WatchKey watchKey;
+
+		public Node(final File aFile, final boolean aDirectory) {
+			super((null == aFile) ? LOADING_TEXT : aFile, aDirectory);
+			file = aFile;
+			directory = aDirectory;
+			state = UNLOADED;
+			pending = new ArrayList<Change>();
+			if (aDirectory) {
+				add(new Node(null, false));
+			}
+		}
+
+		public String getName() {
+			if (null == file) {
+				return LOADING_TEXT;
+			}
+			String name = file.getName();
+			return (0 < name.length()) ? name : file.getPath();
+		}
+
+		/**
+		 * 子ノードの位置を二分探索する。読み込み中ノードは除きます。
+		 * 
+		 * @param aNode ノード
+		 * @return 位置。存在しない場合、(-(挿入位置) - 1)
+		 */
+		public int indexOf(final Node aNode) {
+			int low = 0;
+			int high = getFileCount() - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int result = COMPARATOR.compare((Node) getChildAt(mid), aNode);
+				if (0 > result) {
+					low = mid + 1;
+				} else if (0 < result) {
+					high = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -(low + 1);
+		}
+
+		/**
+		 * 整列済みのノードを子ノードへ併合する。
+		 * <p>
+		 * 件数の多いディレクトリでも追加毎に要素を移動しない様、子ノードを作り直します。
+		 * </p>
+		 * 
+		 * @param aNodes 整列済みのノード
+		 * @return 追加した位置(昇順)
+		 */
+		public int[] merge(final List<Node> aNodes) {
+			int size = getFileCount();
+			int count = getChildCount();
+			Vector<TreeNode> merged = new Vector<TreeNode>(count + aNodes.size());
+			int[] indices = new int[aNodes.size()];
+			int i = 0;
+			int j = 0;
+			int k = 0;
+			while (i < size || j < aNodes.size()) {
+				if (j >= aNodes.size() || (i < size && 0 >= COMPARATOR.compare((Node) getChildAt(i), aNodes.get(j)))) {
+					merged.add(getChildAt(i++));
+				} else {
+					Node node = aNodes.get(j++);
+					node.setParent(this);
+					indices[k++] = merged.size();
+					merged.add(node);
+				}
+			}
+			for (; i < count; i++) {
+				merged.add(getChildAt(i));
+			}
+			children = merged;
+			return indices;
+		}
+
+		/**
+		 * 読み込み中ノードを除く子ノード数を取得する。
+		 * 
+		 * @return 子ノード数
+		 */
+		private int getFileCount() {
+			int count = getChildCount();
+			if (0 < count && null == ((Node) getChildAt(count - 1)).file) {
+				count--;
+			}
+			return count;
+		}
+
+		@Override
+		public String toString() {
+			return getName();
+		}
+	}
+}
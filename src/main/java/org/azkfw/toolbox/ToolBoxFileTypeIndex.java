@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.azkfw.toolbox.plugin.ToolBoxPlugin;
+import org.azkfw.toolbox.plugin.annotation.SupportFileType;
+
+/**
+ * このクラスは、プラグインを対応するファイルの種類で索引付けするクラスです。
+ * <p>
+ * {@link SupportFileType}を宣言したプラグインは拡張子・MIMEタイプで索引付けし、 宣言のないプラグインは全てのファイルの候補とします。
+ * ディレクトリは<code>directory</code>を宣言したプラグインと宣言のないプラグインのみを候補とします。
+ * 索引はプラグインのクラスのみで作成する為、プラグインを生成する必要はありません。候補は登録順に返します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+final class ToolBoxFileTypeIndex {
+
+	/** 拡張子→プラグイン(登録順) */
+	private Map<String, List<Entry>> extensions;
+
+	/** MIMEタイプ→プラグイン(登録順) */
+	private Map<String, List<Entry>> mimeTypes;
+
+	/** ディレクトリに対応するプラグイン(登録順) */
+	private List<Entry> directories;
+
+	/** 宣言のないプラグイン(登録順) */
+	private List<Entry> fallbacks;
+
+	public ToolBoxFileTypeIndex() {
+		extensions = new HashMap<String, List<Entry>>();
+		mimeTypes = new HashMap<String, List<Entry>>();
+		directories = new ArrayList<Entry>();
+		fallbacks = new ArrayList<Entry>();
+	}
+
+	/**
+	 * プラグインを追加する。
+	 * 
+	 * @param aOrder 登録順
+	 * @param aClass プラグイン
+	 */
+	public synchronized void add(final int aOrder, final Class<? extends ToolBoxPlugin> aClass) {
+		Entry entry = new Entry(aOrder, aClass);
+		SupportFileType an = aClass.getAnnotation(SupportFileType.class);
+		if (null == an) {
+			fallbacks.add(entry);
+			return;
+		}
+		for (String extension : an.extensions()) {
+			put(extensions, extension.toLowerCase(Locale.ENGLISH), entry);
+		}
+		for (String mimeType : an.mimeTypes()) {
+			put(mimeTypes, mimeType.toLowerCase(Locale.ENGLISH), entry);
+		}
+		if (an.directory()) {
+			directories.add(entry);
+		}
+	}
+
+	/**
+	 * プラグインを削除する。
+	 * 
+	 * @param aClass プラグイン
+	 */
+	public synchronized void remove(final Class<? extends ToolBoxPlugin> aClass) {
+		remove(fallbacks, aClass);
+		remove(directories, aClass);
+		for (List<Entry> entries : extensions.values()) {
+			remove(entries, aClass);
+		}
+		for (List<Entry> entries : mimeTypes.values()) {
+			remove(entries, aClass);
+		}
+	}
+
+	/**
+	 * ファイルに対応する可能性のあるプラグインを取得する。
+	 * 
+	 * @param aFile ファイル
+	 * @return プラグイン(登録順)
+	 */
+	public synchronized List<Class<? extends ToolBoxPlugin>> get(final File aFile) {
+		TreeMap<Integer, Class<? extends ToolBoxPlugin>> candidates = new TreeMap<Integer, Class<? extends ToolBoxPlugin>>();
+		for (Entry entry : fallbacks) {
+			candidates.put(entry.order, entry.clazz);
+		}
+
+		if (aFile.isDirectory()) {
+			for (Entry entry : directories) {
+				candidates.put(entry.order, entry.clazz);
+			}
+			return new ArrayList<Class<? extends ToolBoxPlugin>>(candidates.values());
+		}
+
+		String name = aFile.getName();
+		int index = name.lastIndexOf('.');
+		if (-1 != index) {
+			List<Entry> entries = extensions.get(name.substring(index + 1).toLowerCase(Locale.ENGLISH));
+			if (null != entries) {
+				for (Entry entry : entries) {
+					candidates.put(entry.order, entry.clazz);
+				}
+			}
+		}
+
+		if (!mimeTypes.isEmpty()) {
+			String mimeType = null;
+			try {
+				mimeType = Files.probeContentType(aFile.toPath());
+			} catch (IOException ex) {
+				ex.printStackTrace();
+			}
+			if (null != mimeType) {
+				List<Entry> entries = mimeTypes.get(mimeType.toLowerCase(Locale.ENGLISH));
+				if (null != entries) {
+					for (Entry entry : entries) {
+						candidates.put(entry.order, entry.clazz);
+					}
+				}
+			}
+		}
+
+		return new ArrayList<Class<? extends ToolBoxPlugin>>(candidates.values());
+	}
+
+	private static void remove(final List<Entry> aEntries, final Class<? extends ToolBoxPlugin> aClass) {
+		for (int i = aEntries.size() - 1; i >= 0; i--) {
+			if (aEntries.get(i).clazz == aClass) {
+				aEntries.remove(i);
+			}
+		}
+	}
+
+	private static void put(final Map<String, List<Entry>> aMap, final String aKey, final Entry aEntry) {
+		List<Entry> entries = aMap.get(aKey);
+		if (null == entries) {
+			entries = new ArrayList<Entry>();
+			aMap.put(aKey, entries);
+		}
+		entries.add(aEntry);
+	}
+
+	private static class Entry {
+		private final int order;
+		private final Class<? extends ToolBoxPlugin> clazz;
+
+		public Entry(final int aOrder, final Class<? extends ToolBoxPlugin> aClass) {
+			order = aOrder;
+			clazz = aClass;
+		}
+	}
+}
@@ -19,6 +19,8 @@ package org.azkfw.toolbox;
 
 import java.awt.Frame;
 import java.awt.Insets;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.WindowAdapter;
@@ -33,6 +35,8 @@ import javax.swing.JMenuItem;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.border.EmptyBorder;
 
 import org.azkfw.business.progress.ProgressEvent;
@@ -47,12 +51,13 @@ import org.azkfw.gui.dialog.ConfigurationDialogEvent;
 import org.azkfw.gui.dialog.PreferenceDialog;
 import org.azkfw.gui.dialog.PreferenceDialogAdapter;
 import org.azkfw.gui.dialog.PreferenceDialogEvent;
-import org.azkfw.gui.tree.FileExplorerTree;
-import org.azkfw.gui.tree.FileExplorerTreeAdapter;
-import org.azkfw.gui.tree.FileExplorerTreeEvent;
 import org.azkfw.toolbox.menu.ToolBoxMenuBar;
 import org.azkfw.toolbox.menu.ToolBoxMenuBarListener;
+import org.azkfw.toolbox.plugin.ToolBoxPlugin;
 import org.azkfw.toolbox.support.ToolBoxFileOpen;
+import org.azkfw.toolbox.task.AbstractToolBoxTask;
+import org.azkfw.toolbox.task.ToolBoxTaskControl;
+import org.azkfw.toolbox.task.ToolBoxTaskGraph;
 
 /**
  * このクラスは、ツールボックスのメインフレームクラスです。
@@ -76,10 +81,12 @@ public class ToolBoxFrame extends JFrame {
 
 	private ToolBoxTabbedPane tabMain;
 
-	private FileExplorerTree treeFile;
+	private ToolBoxFileTree treeFile;
 
 	private ToolBoxTaskTable tblTask;
 	private ToolBoxTaskTableModel tblMode;
+	private ToolBoxTaskProgressAggregator progressAggregator;
+	private Timer evictTimer;
 
 	/**
 	 * コンストラクタ
@@ -103,10 +110,10 @@ public class ToolBoxFrame extends JFrame {
 		splitSub = new JSplitPane(JSplitPane.VERTICAL_SPLIT);
 		splitSub.setBorder(null);
 
-		treeFile = new FileExplorerTree();
-		treeFile.addFileExplorerTreeListener(new FileExplorerTreeAdapter() {
+		treeFile = new ToolBoxFileTree();
+		treeFile.addToolBoxFileTreeListener(new ToolBoxFileTreeListener() {
 			@Override
-			public void fileExplorerTreeClickedFile(final FileExplorerTreeEvent event, final File aFile) {
+			public void toolBoxFileTreeClickedFile(final File aFile) {
 				if (aFile.isFile()) {
 					ToolBoxFileOpen execute = ToolBox.getInstance().getFileSupport(aFile);
 					if (null != execute) {
@@ -119,7 +126,7 @@ public class ToolBoxFrame extends JFrame {
 			}
 
 			@Override
-			public List<JMenuItem> fileExplorerTreeMenuFile(final FileExplorerTreeEvent event, final File aFile) {
+			public List<JMenuItem> toolBoxFileTreeMenuFile(final File aFile) {
 				return ToolBox.getInstance().getPopupMenu(aFile);
 			}
 		});
@@ -132,7 +139,49 @@ public class ToolBoxFrame extends JFrame {
 		tabMain = new ToolBoxTabbedPane();
 
 		tblMode = new ToolBoxTaskTableModel();
+		tblMode.setRetentionPolicy(ToolBox.getInstance().getTaskRetentionPolicy());
+		tblMode.setHistory(ToolBox.getInstance().getTaskHistory());
 		tblTask = new ToolBoxTaskTable(tblMode);
+		tblTask.addToolBoxTaskTableListener(new ToolBoxTaskTableListener() {
+			@Override
+			public void toolBoxTaskTableCancelTask(final Task aTask) {
+				cancelTask(aTask);
+			}
+
+			@Override
+			public void toolBoxTaskTableCancelGraph(final ToolBoxTaskGraph aGraph) {
+				ToolBox.getInstance().getScheduler().cancelGraph(aGraph);
+				tblMode.updateGraph(aGraph);
+			}
+
+			@Override
+			public void toolBoxTaskTablePauseTask(final Task aTask) {
+				ToolBoxTaskControl control = ToolBox.getInstance().getScheduler().getControl(aTask);
+				if (null != control) {
+					control.pause();
+					tblMode.pauseTask(aTask, true);
+				}
+			}
+
+			@Override
+			public void toolBoxTaskTableResumeTask(final Task aTask) {
+				ToolBoxTaskControl control = ToolBox.getInstance().getScheduler().getControl(aTask);
+				if (null != control) {
+					control.resume();
+					tblMode.pauseTask(aTask, false);
+				}
+			}
+		});
+		progressAggregator = new ToolBoxTaskProgressAggregator(tblMode, ToolBox.getInstance().getProgressFrameRate());
+		progressAggregator.start();
+		// 時間による保持ポリシーの為、定期的に除く
+		evictTimer = new Timer(60 * 1000, new ActionListener() {
+			@Override
+			public void actionPerformed(final ActionEvent event) {
+				tblMode.evict();
+			}
+		});
+		evictTimer.start();
 		// JScrollPane scrollTask = new JScrollPane(tblTask);
 		JScrollPane scrollTask = new JScrollPane(tblTask);
 		// scrollTask.setColumnHeader(null);
@@ -142,39 +191,62 @@ public class ToolBoxFrame extends JFrame {
 		splitSub.setTopComponent(tabMain);
 		splitSub.setBottomComponent(scrollTask);
 
-		ToolBox.getInstance().getServer().addMultiTaskServerListener(new MultiTaskServerAdapter() {
+		ToolBox.getInstance().getTaskExecutor().addMultiTaskServerListener(new MultiTaskServerAdapter() {
 			@Override
 			public void multiTaskServerQueuedTask(final MultiTaskServerEvent event, final Task aTask) {
-				tblMode.addTask(aTask);
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						tblMode.addTask(aTask);
+					}
+				});
 			}
 
 			@Override
 			public void multiTaskServerStartedTask(final MultiTaskServerEvent event, final Task aTask) {
-				if (tblMode.startTask(aTask)) {
-					tblTask.repaint();
-				}
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						tblMode.startTask(aTask);
+					}
+				});
 			}
 
 			@Override
 			public void multiTaskServerStoppedTask(final MultiTaskServerEvent event, final Task aTask) {
-				if (tblMode.stopTask(aTask)) {
-					tblTask.repaint();
-				}
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						if (aTask instanceof AbstractToolBoxTask && null != ((AbstractToolBoxTask) aTask).getFailure()) {
+							tblMode.failTask(aTask);
+						}
+						tblMode.stopTask(aTask);
+					}
+				});
 			}
 
 			@Override
 			public void multiTaskServerStopped(final MultiTaskServerEvent event) {
-				doExit();
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						doExit();
+					}
+				});
 			}
 		});
 
 		menuBar.addToolBoxMenuBarListener(new ToolBoxMenuBarListener() {
 			@Override
 			public void toolBoxMenuBarActionMenuItem(final String aPath) {
-				if ("file/preferences".equals(aPath)) {
+				if ("file/search".equals(aPath)) {
+					doOpenFileSearch();
+				} else if ("file/preferences".equals(aPath)) {
 					doOpenPreferenceDialog();
 				} else if ("file/exit".equals(aPath)) {
 					doRequestExit();
+				} else if ("task/history".equals(aPath)) {
+					doOpenTaskHistory();
 				} else {
 					System.out.println(aPath);
 				}
@@ -217,7 +289,57 @@ public class ToolBoxFrame extends JFrame {
 		tabMain.addTab(aTitle, aIcon, aPanel, aToolTip);
 	}
 
+	/**
+	 * プラグインのタブを追加する。
+	 * 
+	 * @param aOwner プラグイン
+	 * @param aTitle タイトル
+	 * @param aIcon アイコン
+	 * @param aPanel パネル
+	 * @param aToolTip ツールチップ
+	 */
+	public void addTab(final ToolBoxPlugin aOwner, final String aTitle, final Icon aIcon, final JPanel aPanel, final String aToolTip) {
+		tabMain.addTab(aOwner, aTitle, aIcon, aPanel, aToolTip);
+	}
+
+	/**
+	 * プラグインが追加したタブを全て閉じる。
+	 * 
+	 * @param aOwner プラグイン
+	 */
+	public void removeTabs(final ToolBoxPlugin aOwner) {
+		tabMain.removeTabs(aOwner);
+	}
+
 	public boolean queueTask(final Task aTask) {
+		return queueTask(null, aTask);
+	}
+
+	/**
+	 * タスクを中止する。
+	 * <p>
+	 * 実行中のタスクは、終了するまで中止中と表示します。
+	 * </p>
+	 * 
+	 * @param aTask タスク
+	 */
+	public void cancelTask(final Task aTask) {
+		if (ToolBox.getInstance().getScheduler().cancel(aTask)) {
+			tblMode.cancelTask(aTask);
+		} else {
+			// 実行中のタスクは終了するまで中止中とする
+			tblMode.cancellingTask(aTask);
+		}
+	}
+
+	/**
+	 * タスクを投入する。
+	 * 
+	 * @param aOwner 投入元のプラグイン
+	 * @param aTask タスク
+	 * @return 投入した場合、<code>true</code>
+	 */
+	public boolean queueTask(final ToolBoxPlugin aOwner, final Task aTask) {
 
 		org.azkfw.gui.dialog.annotation.ConfigurationDialog an = aTask.getClass().getAnnotation(
 				org.azkfw.gui.dialog.annotation.ConfigurationDialog.class);
@@ -231,7 +353,7 @@ public class ToolBoxFrame extends JFrame {
 					dialog.addConfigurationDialogListener(new ConfigurationDialogAdapter() {
 						@Override
 						public void configurationDialogOk(final ConfigurationDialogEvent event, final Object data) {
-							executeTask((Task) data);
+							executeTask(aOwner, (Task) data);
 						}
 					});
 
@@ -258,29 +380,66 @@ public class ToolBoxFrame extends JFrame {
 			}
 		}
 
-		executeTask(aTask);
+		executeTask(aOwner, aTask);
 		return true;
 	}
 
 	public void executeTask(final Task aTask) {
+		executeTask(null, aTask);
+	}
+
+	/**
+	 * タスクを実行する。
+	 * <p>
+	 * タスクはスケジューラを経由してタスクサーバへ渡されます。
+	 * </p>
+	 * 
+	 * @param aOwner 投入元のプラグイン
+	 * @param aTask タスク
+	 */
+	public void executeTask(final ToolBoxPlugin aOwner, final Task aTask) {
+		addProgressListener(aTask);
+
+		tblMode.addTask(aTask);
+		ToolBox.getInstance().getScheduler().queue((null != aOwner) ? aOwner.getClass() : null, aTask);
+	}
+
+	/**
+	 * タスクのグラフを実行する。
+	 * <p>
+	 * グラフは1つの親の行と、グラフに属するタスクの子の行としてタスクテーブルに表示されます。
+	 * </p>
+	 * 
+	 * @param aOwner 投入元のプラグイン
+	 * @param aGraph グラフ
+	 */
+	public void executeTaskGraph(final ToolBoxPlugin aOwner, final ToolBoxTaskGraph aGraph) {
+		for (Task task : aGraph.getTasks()) {
+			addProgressListener(task);
+		}
+
+		tblMode.addGraph(aGraph);
+		ToolBox.getInstance().getScheduler().queueGraph((null != aOwner) ? aOwner.getClass() : null, aGraph);
+	}
+
+	private void addProgressListener(final Task aTask) {
 		if (aTask instanceof ProgressSupport) {
 			((ProgressSupport) aTask).addProgressListener(new ProgressListener() {
 				@Override
 				public void progress(ProgressEvent event) {
-					if (tblMode.updateTask((Task) event.getSource(), event.getProgress(), event.getMessage())) {
-						tblTask.repaint();
-					}
+					progressAggregator.progress((Task) event.getSource(), event.getProgress(), event.getMessage());
 				}
 			});
 		}
-
-		ToolBox.getInstance().getServer().queue(aTask);
 	}
 
 	private void doRenderMenu() {
 		menuBar.add("file", "ファイル");
+		menuBar.add("file/search", "ファイル検索");
 		menuBar.add("file/preferences", "環境設定");
 		menuBar.add("file/exit", "終了");
+		menuBar.add("task", "タスク");
+		menuBar.add("task/history", "履歴");
 	}
 
 	private void doOpenPreferenceDialog() {
@@ -296,6 +455,14 @@ public class ToolBoxFrame extends JFrame {
 		dlg.setVisible(true);
 	}
 
+	private void doOpenFileSearch() {
+		addTab("ファイル検索", new ToolBoxFileSearchPanel(ToolBox.getInstance().getFileNameIndex()));
+	}
+
+	private void doOpenTaskHistory() {
+		addTab("タスク履歴", new ToolBoxTaskHistoryPanel(ToolBox.getInstance().getTaskHistory()));
+	}
+
 	private void doResizeWindow() {
 		Insets insets = getInsets();
 		int width = getWidth() - (insets.left + insets.right);
@@ -306,10 +473,15 @@ public class ToolBoxFrame extends JFrame {
 	}
 
 	private void doRequestExit() {
-		ToolBox.getInstance().getServer().stop();
+		ToolBox.getInstance().getTaskExecutor().stop();
 	}
 
 	private void doExit() {
+		progressAggregator.stop();
+		progressAggregator.flush();
+		evictTimer.stop();
+		treeFile.dispose();
+
 		ToolBox.getInstance().terminate();
 
 		setVisible(false);
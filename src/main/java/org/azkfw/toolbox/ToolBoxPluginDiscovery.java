@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.azkfw.toolbox.plugin.ToolBoxPlugin;
+
+/**
+ * このクラスは、ビルド時に作成されたプラグインの索引からプラグインを検出するクラスです。
+ * <p>
+ * プラグインは<code>META-INF/services/org.azkfw.toolbox.plugin.ToolBoxPlugin</code>に実装クラス名を1行ずつ記述して公開します。
+ * 実行時にクラスパスを走査することはなく、索引ファイルのみを読み込みます。 また、{@link java.util.ServiceLoader}と異なりプラグインを生成しません。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+final class ToolBoxPluginDiscovery {
+
+	/** 索引ファイル */
+	public static final String INDEX = "META-INF/services/" + ToolBoxPlugin.class.getName();
+
+	private ToolBoxPluginDiscovery() {
+	}
+
+	/**
+	 * クラスローダーから見える索引ファイルに記述されたプラグインを検出する。
+	 * 
+	 * @param aLoader クラスローダー
+	 * @return プラグイン
+	 */
+	public static List<Class<? extends ToolBoxPlugin>> discover(final ClassLoader aLoader) {
+		List<Class<? extends ToolBoxPlugin>> classes = new ArrayList<Class<? extends ToolBoxPlugin>>();
+		try {
+			Enumeration<URL> urls = aLoader.getResources(INDEX);
+			while (urls.hasMoreElements()) {
+				load(urls.nextElement(), aLoader, classes);
+			}
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		}
+		return classes;
+	}
+
+	/**
+	 * ディレクトリに配置されたJARファイルからプラグインを検出する。
+	 * <p>
+	 * JARファイル毎に独立したクラスローダーを作成し、索引ファイルの読み込みは並列に行います。 結果はJARファイル名の順に返します。
+	 * </p>
+	 * 
+	 * @param aDirectory ディレクトリ
+	 * @return JARファイル毎の検出結果
+	 */
+	public static List<Result> discover(final File aDirectory) {
+		File[] jars = aDirectory.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(final File aFile) {
+				return aFile.isFile() && aFile.getName().toLowerCase().endsWith(".jar");
+			}
+		});
+		List<Result> results = new ArrayList<Result>();
+		if (null == jars || 0 == jars.length) {
+			return results;
+		}
+		Arrays.sort(jars, new Comparator<File>() {
+			@Override
+			public int compare(final File o1, final File o2) {
+				return o1.getName().compareTo(o2.getName());
+			}
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(jars.length, Runtime.getRuntime().availableProcessors()));
+		try {
+			List<Future<Result>> futures = new ArrayList<Future<Result>>();
+			for (final File jar : jars) {
+				futures.add(executor.submit(new Callable<Result>() {
+					@Override
+					public Result call() throws IOException {
+						return discoverJar(jar);
+					}
+				}));
+			}
+			for (Future<Result> future : futures) {
+				try {
+					Result result = future.get();
+					if (!result.getClasses().isEmpty()) {
+						results.add(result);
+					} else {
+						result.getClassLoader().close();
+					}
+				} catch (ExecutionException ex) {
+					ex.getCause().printStackTrace();
+				} catch (IOException ex) {
+					ex.printStackTrace();
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdown();
+		}
+		return results;
+	}
+
+	/**
+	 * JARファイルからプラグインを検出する。
+	 * 
+	 * @param aJar JARファイル
+	 * @return 検出結果
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public static Result discoverJar(final File aJar) throws IOException {
+		URLClassLoader loader = new URLClassLoader(new URL[] { aJar.toURI().toURL() }, ToolBox.class.getClassLoader());
+		List<Class<? extends ToolBoxPlugin>> classes = new ArrayList<Class<? extends ToolBoxPlugin>>();
+		// 親のクラスローダーの索引は含めない
+		Enumeration<URL> urls = loader.findResources(INDEX);
+		while (urls.hasMoreElements()) {
+			load(urls.nextElement(), loader, classes);
+		}
+		return new Result(aJar, loader, classes);
+	}
+
+	private static void load(final URL aUrl, final ClassLoader aLoader, final List<Class<? extends ToolBoxPlugin>> aClasses)
+			throws IOException {
+		try (InputStream in = aUrl.openStream()) {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+			String line;
+			while (null != (line = reader.readLine())) {
+				int index = line.indexOf('#');
+				if (-1 != index) {
+					line = line.substring(0, index);
+				}
+				line = line.trim();
+				if (0 == line.length()) {
+					continue;
+				}
+				try {
+					// プラグインでないクラスはClassCastExceptionとなる
+					aClasses.add(Class.forName(line, false, aLoader).asSubclass(ToolBoxPlugin.class));
+				} catch (ClassNotFoundException | ClassCastException ex) {
+					ex.printStackTrace();
+				}
+			}
+		}
+	}
+
+	/**
+	 * このクラスは、JARファイルからの検出結果を表すクラスです。
+	 */
+	public static final class Result {
+		private final File file;
+		private final URLClassLoader loader;
+		private final List<Class<? extends ToolBoxPlugin>> classes;
+
+		public Result(final File aFile, final URLClassLoader aLoader, final List<Class<? extends ToolBoxPlugin>> aClasses) {
+			file = aFile;
+			loader = aLoader;
+			classes = aClasses;
+		}
+
+		public File getFile() {
+			return file;
+		}
+
+		public URLClassLoader getClassLoader() {
+			return loader;
+		}
+
+		public List<Class<? extends ToolBoxPlugin>> getClasses() {
+			return classes;
+		}
+	}
+}
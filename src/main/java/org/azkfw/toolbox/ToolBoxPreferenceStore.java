@@ -0,0 +1,416 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.azkfw.toolbox.plugin.ToolBoxPlugin;
+
+/**
+ * このクラスは、プラグインの設定をファイルへ保存するクラスです。
+ * <p>
+ * 設定は<code>&lt;ディレクトリ&gt;/&lt;プラグインのクラス名&gt;/preference.properties</code>に保存します。
+ * {@link #store(Class, Properties)}は前回保存した内容から変更された設定のみを保存待ちにし、
+ * 一定時間保存が要求されなくなってからバックグラウンドでまとめて書き出します。
+ * 書き出しは一時ファイルへ書き込んだ後に置き換える為、書き出し中に終了しても設定ファイルが壊れることはありません。
+ * </p>
+ * <p>
+ * 終了時は{@link #close()}で保存待ちの設定を書き出してください。
+ * </p>
+ * <p>
+ * 保存形式を変更する場合は、{@link #read(Class)}と{@link #write(Map)}をオーバーライドします。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ToolBoxPreferenceStore {
+
+	/** 設定ファイル名 */
+	public static final String FILE_NAME = "preference.properties";
+
+	/** デフォルトの書き出しを待つ時間(ミリ秒) */
+	public static final long DEFAULT_DELAY = 500L;
+
+	/** ディレクトリ */
+	private File directory;
+
+	/** 書き出しを待つ時間(ミリ秒) */
+	private long delay;
+
+	/** 最後に読み込んだ・書き出した設定 */
+	private Map<Class<? extends ToolBoxPlugin>, Properties> persisted;
+
+	/** 保存待ちの設定 */
+	private Map<Class<? extends ToolBoxPlugin>, Properties> pending;
+
+	/** 書き出し中の設定 */
+	private Map<Class<? extends ToolBoxPlugin>, Properties> inFlight;
+
+	/** 書き出しの順序を保つロック */
+	private final Object writeLock = new Object();
+
+	private ScheduledExecutorService executor;
+
+	private ScheduledFuture<?> future;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aDirectory ディレクトリ
+	 */
+	public ToolBoxPreferenceStore(final File aDirectory) {
+		this(aDirectory, DEFAULT_DELAY);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aDirectory ディレクトリ
+	 * @param aDelay 書き出しを待つ時間(ミリ秒)
+	 */
+	public ToolBoxPreferenceStore(final File aDirectory, final long aDelay) {
+		directory = aDirectory;
+		delay = aDelay;
+		persisted = new HashMap<Class<? extends ToolBoxPlugin>, Properties>();
+		pending = new LinkedHashMap<Class<? extends ToolBoxPlugin>, Properties>();
+		inFlight = new HashMap<Class<? extends ToolBoxPlugin>, Properties>();
+	}
+
+	/**
+	 * ディレクトリを取得する。
+	 * 
+	 * @return ディレクトリ
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * プラグインの設定ファイルを取得する。
+	 * 
+	 * @param aClass プラグイン
+	 * @return 設定ファイル
+	 */
+	public File getFile(final Class<? extends ToolBoxPlugin> aClass) {
+		return new File(new File(directory, aClass.getName()), FILE_NAME);
+	}
+
+	/**
+	 * 設定を必要になった時に読み込むか判断する。
+	 * <p>
+	 * <code>false</code>の場合、起動時に全てのプラグインの設定をバックグラウンドで読み込みます。
+	 * </p>
+	 * 
+	 * @return 必要になった時に読み込む場合、<code>true</code>
+	 */
+	public boolean isLazy() {
+		return false;
+	}
+
+	/**
+	 * 設定を読み込む。
+	 * <p>
+	 * 保存待ちまたは書き出し中の設定がある場合は、ファイルではなくその設定を読み込みます。
+	 * </p>
+	 * 
+	 * @param aClass プラグイン
+	 * @param aProperties 読み込み先
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public void load(final Class<? extends ToolBoxPlugin> aClass, final Properties aProperties) throws IOException {
+		Properties p;
+		synchronized (this) {
+			p = getUnwritten(aClass);
+		}
+		if (null == p) {
+			p = read(aClass);
+			synchronized (this) {
+				persisted.put(aClass, p);
+			}
+		}
+		synchronized (aProperties) {
+			aProperties.putAll(p);
+		}
+	}
+
+	/**
+	 * 外部で変更された設定を読み込み直す。
+	 * <p>
+	 * 保存待ちまたは書き出し中の設定がある場合は、外部の変更より優先して<code>null</code>を返します。
+	 * 呼び出す前に{@link #refresh()}を呼び出してください。
+	 * </p>
+	 * 
+	 * @param aClass プラグイン
+	 * @return 設定。保存待ちまたは書き出し中の設定がある場合、<code>null</code>
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public Properties reload(final Class<? extends ToolBoxPlugin> aClass) throws IOException {
+		synchronized (this) {
+			if (null != getUnwritten(aClass)) {
+				return null;
+			}
+		}
+		Properties p = read(aClass);
+		synchronized (this) {
+			if (null != getUnwritten(aClass)) {
+				return null;
+			}
+			persisted.put(aClass, p);
+		}
+		return p;
+	}
+
+	/**
+	 * 外部で変更されたファイルを読み込み直す準備をする。
+	 * <p>
+	 * ファイルの内容を保持している場合は破棄します。
+	 * </p>
+	 */
+	public void refresh() {
+	}
+
+	/**
+	 * 設定の保存を要求する。
+	 * <p>
+	 * 設定の複製を保存待ちにし、すぐに戻ります。前回保存した内容から変更されていない場合は何もしません。
+	 * </p>
+	 * 
+	 * @param aClass プラグイン
+	 * @param aProperties 設定
+	 * @return 保存待ちにした場合、<code>true</code>
+	 */
+	public synchronized boolean store(final Class<? extends ToolBoxPlugin> aClass, final Properties aProperties) {
+		Properties snapshot = new Properties();
+		synchronized (aProperties) {
+			snapshot.putAll(aProperties);
+		}
+		Properties last = inFlight.containsKey(aClass) ? inFlight.get(aClass) : persisted.get(aClass);
+		if (!pending.containsKey(aClass) && snapshot.equals(last)) {
+			return false;
+		}
+		markDirty(aClass, snapshot);
+		return true;
+	}
+
+	/**
+	 * 保存待ちまたは書き出し中の設定を取得する。
+	 * 
+	 * @param aClass プラグイン
+	 * @return 設定。ない場合、<code>null</code>
+	 */
+	private Properties getUnwritten(final Class<? extends ToolBoxPlugin> aClass) {
+		Properties p = pending.get(aClass);
+		return (null != p) ? p : inFlight.get(aClass);
+	}
+
+	/**
+	 * 設定を保存待ちにする。
+	 * 
+	 * @param aClass プラグイン
+	 * @param aProperties 設定(複製済み)
+	 */
+	protected synchronized void markDirty(final Class<? extends ToolBoxPlugin> aClass, final Properties aProperties) {
+		pending.put(aClass, aProperties);
+
+		// 続けて保存された場合はまとめて書き出す
+		if (null != future) {
+			future.cancel(false);
+		}
+		future = getExecutor().schedule(new Runnable() {
+			@Override
+			public void run() {
+				flush();
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 保存待ちの設定を書き出す。
+	 * <p>
+	 * 書き出しが終わるまでは、書き出し中の設定を{@link #load(Class, Properties)}・{@link #reload(Class)}から参照できます。
+	 * 書き出しに失敗した設定のみを保存待ちに戻します。
+	 * </p>
+	 */
+	public void flush() {
+		synchronized (writeLock) {
+			Map<Class<? extends ToolBoxPlugin>, Properties> targets;
+			synchronized (this) {
+				targets = new LinkedHashMap<Class<? extends ToolBoxPlugin>, Properties>(pending);
+				pending.clear();
+				inFlight.putAll(targets);
+			}
+			if (targets.isEmpty()) {
+				return;
+			}
+			Map<Class<? extends ToolBoxPlugin>, Properties> failures = new LinkedHashMap<Class<? extends ToolBoxPlugin>, Properties>(
+					targets);
+			try {
+				write(failures);
+				failures.clear();
+			} catch (IOException ex) {
+				ex.printStackTrace();
+			}
+			synchronized (this) {
+				for (Map.Entry<Class<? extends ToolBoxPlugin>, Properties> entry : targets.entrySet()) {
+					inFlight.remove(entry.getKey());
+					if (!failures.containsKey(entry.getKey())) {
+						persisted.put(entry.getKey(), entry.getValue());
+					} else if (!pending.containsKey(entry.getKey())) {
+						pending.put(entry.getKey(), entry.getValue());
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * 保存待ちの設定を書き出し、バックグラウンドのスレッドを停止する。
+	 */
+	public void close() {
+		synchronized (this) {
+			if (null != future) {
+				future.cancel(false);
+				future = null;
+			}
+		}
+		flush();
+		synchronized (this) {
+			if (null != executor) {
+				executor.shutdown();
+				executor = null;
+			}
+		}
+	}
+
+	/**
+	 * 保存待ちまたは書き出し中の設定があるか判断する。
+	 * 
+	 * @return 保存待ちまたは書き出し中の設定がある場合、<code>true</code>
+	 */
+	public synchronized boolean isDirty() {
+		return !pending.isEmpty() || !inFlight.isEmpty();
+	}
+
+	private ScheduledExecutorService getExecutor() {
+		if (null == executor) {
+			executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable aRunnable) {
+					Thread thread = new Thread(aRunnable, "ToolBox-PreferenceStore");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	/**
+	 * 設定を読み込む。
+	 * 
+	 * @param aClass プラグイン
+	 * @return 設定
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	protected Properties read(final Class<? extends ToolBoxPlugin> aClass) throws IOException {
+		Properties p = new Properties();
+		File file = getFile(aClass);
+		if (file.isFile()) {
+			try (FileInputStream in = new FileInputStream(file)) {
+				p.load(in);
+			}
+		}
+		return p;
+	}
+
+	/**
+	 * 設定を書き出す。
+	 * <p>
+	 * バックグラウンドのスレッドから呼び出されます。
+	 * 一部の設定のみ書き出せた場合は、書き出せた設定を<code>aTargets</code>から取り除いてから例外を投げてください。
+	 * </p>
+	 * 
+	 * @param aTargets プラグイン→設定
+	 * @throws IOException 入出力エラーが発生した場合。<code>aTargets</code>に残った設定は書き出されていないものとして扱います。
+	 */
+	protected void write(final Map<Class<? extends ToolBoxPlugin>, Properties> aTargets) throws IOException {
+		IOException error = null;
+		Iterator<Map.Entry<Class<? extends ToolBoxPlugin>, Properties>> it = aTargets.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Class<? extends ToolBoxPlugin>, Properties> entry = it.next();
+			try {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				entry.getValue().store(out, null);
+				writeAtomically(getFile(entry.getKey()), out.toByteArray());
+				it.remove();
+			} catch (IOException ex) {
+				// 他のプラグインの設定は書き出す
+				error = ex;
+			}
+		}
+		if (null != error) {
+			throw error;
+		}
+	}
+
+	/**
+	 * 一時ファイルへ書き込んだ後に置き換える。
+	 * 
+	 * @param aFile ファイル
+	 * @param aData 内容
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	protected static void writeAtomically(final File aFile, final byte[] aData) throws IOException {
+		File dir = aFile.getParentFile();
+		dir.mkdirs();
+
+		File temp = File.createTempFile(aFile.getName(), ".tmp", dir);
+		try {
+			try (FileOutputStream out = new FileOutputStream(temp)) {
+				out.write(aData);
+				out.getFD().sync();
+			}
+			try {
+				Files.move(temp.toPath(), aFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temp.toPath(), aFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+		}
+	}
+}
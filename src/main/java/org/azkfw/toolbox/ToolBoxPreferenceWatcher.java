@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * このクラスは、設定ファイルのディレクトリを監視するクラスです。
+ * <p>
+ * <code>&lt;ディレクトリ&gt;/&lt;プラグインのクラス名&gt;/preference.properties</code>と、
+ * ディレクトリ直下の設定ファイル(全てのプラグインの設定を保存するファイル)の変更を監視します。
+ * 変更は一定時間続けて発生しなくなってから、まとめて通知します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+final class ToolBoxPreferenceWatcher {
+
+	/** デフォルトの変更が落ち着くまで待つ時間(ミリ秒) */
+	public static final long DEFAULT_DELAY = 500L;
+
+	/**
+	 * このインターフェースは、設定ファイルの変更を受け取るリスナーです。
+	 */
+	interface Listener {
+
+		/**
+		 * 設定ファイルが変更された時に呼び出される。
+		 * <p>
+		 * 監視スレッドから呼び出されます。
+		 * </p>
+		 * 
+		 * @param aClassNames 変更されたプラグインのクラス名。全てのプラグインの場合、<code>null</code>
+		 */
+		public void preferenceFilesChanged(final Set<String> aClassNames);
+	}
+
+	/** ディレクトリ */
+	private Path directory;
+
+	/** ディレクトリ直下の設定ファイル名 */
+	private Set<String> sharedFileNames;
+
+	/** 変更が落ち着くまで待つ時間(ミリ秒) */
+	private long delay;
+
+	private Listener listener;
+
+	private WatchService service;
+
+	/** 監視キー→プラグインのクラス名(ディレクトリ自身は<code>null</code>) */
+	private Map<WatchKey, String> keys;
+
+	private Thread thread;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aDirectory ディレクトリ
+	 * @param aSharedFileNames ディレクトリ直下の設定ファイル名
+	 * @param aListener リスナー
+	 */
+	public ToolBoxPreferenceWatcher(final File aDirectory, final Set<String> aSharedFileNames, final Listener aListener) {
+		directory = aDirectory.toPath();
+		sharedFileNames = aSharedFileNames;
+		delay = DEFAULT_DELAY;
+		listener = aListener;
+		keys = new HashMap<WatchKey, String>();
+	}
+
+	/**
+	 * 監視を開始する。
+	 * 
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public synchronized void start() throws IOException {
+		if (null != thread) {
+			return;
+		}
+		Files.createDirectories(directory);
+		service = directory.getFileSystem().newWatchService();
+		register(directory, null);
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+			for (Path path : stream) {
+				if (Files.isDirectory(path)) {
+					register(path, path.getFileName().toString());
+				}
+			}
+		}
+
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				watch();
+			}
+		}, "ToolBox-PreferenceWatcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * 監視を停止する。
+	 */
+	public synchronized void stop() {
+		if (null == thread) {
+			return;
+		}
+		try {
+			service.close();
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		}
+		thread.interrupt();
+		thread = null;
+	}
+
+	private void register(final Path aPath, final String aClassName) throws IOException {
+		WatchKey key = aPath.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+				StandardWatchEventKinds.ENTRY_DELETE);
+		keys.put(key, aClassName);
+	}
+
+	private void watch() {
+		Set<String> changed = new HashSet<String>();
+		boolean all = false;
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				// 変更があれば落ち着くまで待ち、なければ次の変更まで待つ
+				WatchKey key = (all || !changed.isEmpty()) ? service.poll(delay, TimeUnit.MILLISECONDS) : service.take();
+				if (null == key) {
+					listener.preferenceFilesChanged(all ? null : changed);
+					changed = new HashSet<String>();
+					all = false;
+					continue;
+				}
+
+				String className = keys.get(key);
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (StandardWatchEventKinds.OVERFLOW == event.kind()) {
+						all = true;
+						continue;
+					}
+					String name = event.context().toString();
+					if (null == className) {
+						Path path = directory.resolve(name);
+						if (sharedFileNames.contains(name)) {
+							all = true;
+						} else if (StandardWatchEventKinds.ENTRY_CREATE == event.kind() && Files.isDirectory(path)) {
+							register(path, name);
+							changed.add(name);
+						}
+					} else if (ToolBoxPreferenceStore.FILE_NAME.equals(name)) {
+						changed.add(className);
+					}
+				}
+				if (!key.reset()) {
+					keys.remove(key);
+				}
+			}
+		} catch (InterruptedException ex) {
+			// 停止
+		} catch (ClosedWatchServiceException ex) {
+			// 停止
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		}
+	}
+}
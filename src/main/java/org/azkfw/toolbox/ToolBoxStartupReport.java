@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * このクラスは、ツールボックス起動時の各フェーズの所要時間を記録するクラスです。
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ToolBoxStartupReport {
+
+	/** 起点(ナノ秒) */
+	private final long origin;
+
+	/** フェーズ */
+	private final List<Phase> phases;
+
+	public ToolBoxStartupReport() {
+		origin = System.nanoTime();
+		phases = new ArrayList<Phase>();
+	}
+
+	/**
+	 * フェーズの開始時刻を取得する。
+	 * 
+	 * @return 開始時刻(ナノ秒)
+	 */
+	public long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * フェーズを記録する。
+	 * 
+	 * @param aName フェーズ名
+	 * @param aStart {@link #start()}で取得した開始時刻
+	 */
+	public synchronized void record(final String aName, final long aStart) {
+		long now = System.nanoTime();
+		phases.add(new Phase(aName, (aStart - origin) / 1000000L, (now - aStart) / 1000000L, Thread.currentThread().getName()));
+	}
+
+	/**
+	 * 記録したフェーズを取得する。
+	 * 
+	 * @return フェーズ(記録順)
+	 */
+	public synchronized List<Phase> getPhases() {
+		return new ArrayList<Phase>(phases);
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder s = new StringBuilder();
+		for (Phase phase : phases) {
+			s.append(String.format("%-32s start=%6dms time=%6dms [%s]%n", phase.getName(), phase.getStart(), phase.getTime(),
+					phase.getThread()));
+		}
+		return s.toString();
+	}
+
+	/**
+	 * このクラスは、起動時の1フェーズを表すクラスです。
+	 */
+	public static final class Phase {
+		private final String name;
+		private final long start;
+		private final long time;
+		private final String thread;
+
+		public Phase(final String aName, final long aStart, final long aTime, final String aThread) {
+			name = aName;
+			start = aStart;
+			time = aTime;
+			thread = aThread;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * 起動からフェーズ開始までの時間を取得する。
+		 * 
+		 * @return 時間(ミリ秒)
+		 */
+		public long getStart() {
+			return start;
+		}
+
+		/**
+		 * フェーズの所要時間を取得する。
+		 * 
+		 * @return 時間(ミリ秒)
+		 */
+		public long getTime() {
+			return time;
+		}
+
+		public String getThread() {
+			return thread;
+		}
+	}
+}
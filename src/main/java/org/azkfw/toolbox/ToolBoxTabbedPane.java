@@ -44,8 +44,12 @@ public class ToolBoxTabbedPane extends JTabbedPane {
 
 	private List<String> ids;
 
+	/** タブを追加したプラグイン */
+	private List<Object> owners;
+
 	public ToolBoxTabbedPane() {
 		ids = new ArrayList<String>();
+		owners = new ArrayList<Object>();
 
 		setBorder(null);
 	}
@@ -59,6 +63,19 @@ public class ToolBoxTabbedPane extends JTabbedPane {
 	}
 
 	public void addTab(final String aTitle, final Icon aIcon, final Component aPanel, final String aToolTip) {
+		addTab(null, aTitle, aIcon, aPanel, aToolTip);
+	}
+
+	/**
+	 * タブを追加する。
+	 * 
+	 * @param aOwner タブを追加したプラグイン
+	 * @param aTitle タイトル
+	 * @param aIcon アイコン
+	 * @param aPanel パネル
+	 * @param aToolTip ツールチップ
+	 */
+	public void addTab(final Object aOwner, final String aTitle, final Icon aIcon, final Component aPanel, final String aToolTip) {
 		String id = UUIDUtility.generateToShortString();
 
 		JPanel pnlTab = new JPanel();
@@ -83,6 +100,7 @@ public class ToolBoxTabbedPane extends JTabbedPane {
 					if (id.equals(close.getId())) {
 						remove(i);
 						ids.remove(i);
+						owners.remove(i);
 						break;
 					}
 				}
@@ -90,6 +108,7 @@ public class ToolBoxTabbedPane extends JTabbedPane {
 		});
 		pnlTab.add(closeLabel, BorderLayout.EAST);
 		ids.add(id);
+		owners.add(aOwner);
 
 		super.addTab(null, aPanel);
 		setTabComponentAt(getTabCount() - 1, pnlTab);
@@ -100,6 +119,21 @@ public class ToolBoxTabbedPane extends JTabbedPane {
 		setSelectedIndex(getTabCount() - 1);
 	}
 
+	/**
+	 * プラグインが追加したタブを全て閉じる。
+	 * 
+	 * @param aOwner プラグイン
+	 */
+	public void removeTabs(final Object aOwner) {
+		for (int i = ids.size() - 1; i >= 0; i--) {
+			if (null != aOwner && aOwner == owners.get(i)) {
+				remove(i);
+				ids.remove(i);
+				owners.remove(i);
+			}
+		}
+	}
+
 	private class TabCloseLabel extends JLabel {
 
 		/** serialVersionUID */
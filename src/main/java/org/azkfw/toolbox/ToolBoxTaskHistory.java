@@ -0,0 +1,376 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * このクラスは、タスクテーブルから除かれたタスクを追記専用のファイルへ記録するクラスです。
+ * <p>
+ * レコードは<code>[長さ(int)][本体]</code>の形式で追記され、 レコード位置のインデックスにより任意の範囲を読み出すことができます。
+ * 文字列は<code>[バイト数(int)][UTF-8]</code>で記録するため、長さの制限はありません。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ToolBoxTaskHistory {
+
+	/** ファイルの先頭 */
+	private static final int MAGIC = 0x415A5448;
+
+	/** ファイルの形式 */
+	private static final int VERSION = 2;
+
+	/** ヘッダのバイト数 */
+	private static final int HEADER_SIZE = 8;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** 履歴ファイル */
+	private File file;
+
+	/** レコード位置 */
+	private long[] offsets;
+
+	/** レコード数 */
+	private int size;
+
+	/** ファイル */
+	private RandomAccessFile raf;
+
+	/** 書き出し */
+	private final ExecutorService writer;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aFile 履歴ファイル
+	 */
+	public ToolBoxTaskHistory(final File aFile) {
+		file = aFile;
+		offsets = new long[1024];
+		size = 0;
+		writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable aRunnable) {
+				Thread thread = new Thread(aRunnable, "ToolBox-TaskHistory");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * 履歴ファイルを開く。
+	 * <p>
+	 * 既存のレコード位置を読み込み、途中で切れたレコードがあれば切り詰めます。 ヘッダのない以前の形式のファイルは現在の形式へ書き直します。
+	 * </p>
+	 * 
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public synchronized void open() throws IOException {
+		if (null != raf) {
+			return;
+		}
+		File parentDir = file.getParentFile();
+		if (null != parentDir) {
+			parentDir.mkdirs();
+		}
+		raf = new RandomAccessFile(file, "rw");
+
+		long length = raf.length();
+		if (HEADER_SIZE > length || MAGIC != raf.readInt()) {
+			migrate();
+			length = raf.length();
+		} else if (VERSION != raf.readInt()) {
+			// 未知の形式は読めないため破棄する
+			raf.setLength(0);
+			writeHeader();
+			length = raf.length();
+		}
+
+		long offset = HEADER_SIZE;
+		while (offset + 4 <= length) {
+			raf.seek(offset);
+			int recordLength = raf.readInt();
+			if (offset + 4 + recordLength > length) {
+				break;
+			}
+			addOffset(offset);
+			offset += 4 + recordLength;
+		}
+		if (offset != length) {
+			raf.setLength(offset);
+		}
+	}
+
+	/**
+	 * 履歴ファイルを閉じる。
+	 * <p>
+	 * 書き出し待ちの行情報は書き出してから閉じます。
+	 * </p>
+	 */
+	public void close() {
+		writer.shutdown();
+		try {
+			writer.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		doClose();
+	}
+
+	/**
+	 * ヘッダのない以前の形式のファイルを現在の形式へ書き直す。
+	 * <p>
+	 * 以前の形式は文字列を<code>writeUTF</code>で記録していたため、読み出したレコードを書き直します。
+	 * </p>
+	 * 
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	private void migrate() throws IOException {
+		List<Record> records = new ArrayList<Record>();
+		long length = raf.length();
+		long offset = 0;
+		while (offset + 4 <= length) {
+			raf.seek(offset);
+			int recordLength = raf.readInt();
+			if (0 > recordLength || offset + 4 + recordLength > length) {
+				break;
+			}
+			Record record = new Record();
+			record.name = raf.readUTF();
+			record.message = raf.readUTF();
+			record.startTime = raf.readLong();
+			record.stopTime = raf.readLong();
+			record.progress = raf.readByte() & 0xff;
+			record.status = ToolBoxTaskRow.Status.values()[raf.readByte()];
+			records.add(record);
+			offset += 4 + recordLength;
+		}
+
+		raf.setLength(0);
+		writeHeader();
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(buffer);
+		ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream();
+		DataOutputStream record = new DataOutputStream(recordBuffer);
+		for (Record old : records) {
+			recordBuffer.reset();
+			writeRecord(record, old.name, old.message, old.startTime, old.stopTime, old.progress, old.status);
+			out.writeInt(recordBuffer.size());
+			recordBuffer.writeTo(out);
+		}
+		out.flush();
+		raf.write(buffer.toByteArray());
+	}
+
+	private void writeHeader() throws IOException {
+		raf.seek(0);
+		raf.writeInt(MAGIC);
+		raf.writeInt(VERSION);
+	}
+
+	private synchronized void doClose() {
+		if (null != raf) {
+			try {
+				raf.close();
+			} catch (IOException ex) {
+				ex.printStackTrace();
+			}
+			raf = null;
+		}
+	}
+
+	/**
+	 * レコード数を取得する。
+	 * 
+	 * @return レコード数
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * 行情報をバックグラウンドで追記する。
+	 * 
+	 * @param aRows 行情報
+	 */
+	public void appendLater(final List<ToolBoxTaskRow> aRows) {
+		try {
+			writer.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						append(aRows);
+					} catch (IOException ex) {
+						ex.printStackTrace();
+					}
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			// 閉じた後
+			ex.printStackTrace();
+		}
+	}
+
+	/**
+	 * 行情報を追記する。
+	 * 
+	 * @param aRows 行情報
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public synchronized void append(final List<ToolBoxTaskRow> aRows) throws IOException {
+		open();
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(buffer);
+		ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream();
+		DataOutputStream record = new DataOutputStream(recordBuffer);
+
+		long offset = raf.length();
+		long[] newOffsets = new long[aRows.size()];
+		for (int i = 0; i < aRows.size(); i++) {
+			ToolBoxTaskRow row = aRows.get(i);
+
+			recordBuffer.reset();
+			writeRecord(record, row.getName(), row.getMessage(), row.getStartTime(), row.getStopTime(), row.getProgress(),
+					row.getStatus());
+
+			newOffsets[i] = offset + out.size();
+			out.writeInt(recordBuffer.size());
+			recordBuffer.writeTo(out);
+		}
+		out.flush();
+
+		raf.seek(offset);
+		raf.write(buffer.toByteArray());
+		for (long newOffset : newOffsets) {
+			addOffset(newOffset);
+		}
+	}
+
+	/**
+	 * レコードを読み込む。
+	 * 
+	 * @param aIndex 開始位置
+	 * @param aCount 件数
+	 * @return レコード
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public synchronized List<Record> read(final int aIndex, final int aCount) throws IOException {
+		open();
+
+		int end = Math.min(size, aIndex + aCount);
+		List<Record> records = new ArrayList<Record>(Math.max(0, end - aIndex));
+		for (int i = aIndex; i < end; i++) {
+			raf.seek(offsets[i] + 4);
+			Record record = new Record();
+			record.name = readString(raf);
+			record.message = readString(raf);
+			record.startTime = raf.readLong();
+			record.stopTime = raf.readLong();
+			record.progress = raf.readByte() & 0xff;
+			record.status = ToolBoxTaskRow.Status.values()[raf.readByte()];
+			records.add(record);
+		}
+		return records;
+	}
+
+	private void addOffset(final long aOffset) {
+		if (size == offsets.length) {
+			offsets = Arrays.copyOf(offsets, size * 2);
+		}
+		offsets[size++] = aOffset;
+	}
+
+	private static void writeRecord(final DataOutputStream aOut, final String aName, final String aMessage, final long aStartTime,
+			final long aStopTime, final int aProgress, final ToolBoxTaskRow.Status aStatus) throws IOException {
+		writeString(aOut, aName);
+		writeString(aOut, aMessage);
+		aOut.writeLong(aStartTime);
+		aOut.writeLong(aStopTime);
+		aOut.writeByte(aProgress);
+		aOut.writeByte(aStatus.ordinal());
+		aOut.flush();
+	}
+
+	private static void writeString(final DataOutputStream aOut, final String aValue) throws IOException {
+		byte[] bytes = ((null != aValue) ? aValue : "").getBytes(UTF8);
+		aOut.writeInt(bytes.length);
+		aOut.write(bytes);
+	}
+
+	private static String readString(final DataInput aIn) throws IOException {
+		byte[] bytes = new byte[aIn.readInt()];
+		aIn.readFully(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	/**
+	 * このクラスは、タスク履歴の1レコードを表すクラスです。
+	 */
+	public static final class Record {
+		private String name;
+		private String message;
+		private long startTime;
+		private long stopTime;
+		private int progress;
+		private ToolBoxTaskRow.Status status;
+
+		public String getName() {
+			return name;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		public long getStartTime() {
+			return startTime;
+		}
+
+		public long getStopTime() {
+			return stopTime;
+		}
+
+		public int getProgress() {
+			return progress;
+		}
+
+		public ToolBoxTaskRow.Status getStatus() {
+			return status;
+		}
+	}
+}
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.awt.BorderLayout;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * このクラスは、タスク履歴を表示するパネルクラスです。
+ * <p>
+ * 履歴はページ単位で必要になった時に読み込みます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ToolBoxTaskHistoryPanel extends JPanel {
+
+	/** serialVersionUID */
+	private static final long serialVersionUID = 5017283307402945516L;
+
+	public ToolBoxTaskHistoryPanel(final ToolBoxTaskHistory aHistory) {
+		setLayout(new BorderLayout());
+
+		// 以前のセッションの履歴を件数に含める為、先に開く
+		try {
+			aHistory.open();
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		}
+
+		JTable table = new JTable(new HistoryTableModel(aHistory));
+		table.setRowHeight(14);
+		JScrollPane scroll = new JScrollPane(table);
+		scroll.setBorder(new EmptyBorder(0, 0, 0, 0));
+		add(scroll, BorderLayout.CENTER);
+	}
+
+	private static class HistoryTableModel extends AbstractTableModel {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = -6390627425071386925L;
+
+		private static final int PAGE_SIZE = 256;
+
+		private static final String[] COLUMN_NAMES = { "タスク", "メッセージ", "開始日時", "終了日時", "プログレス", "状態" };
+
+		private final ToolBoxTaskHistory history;
+		private final int size;
+		private final SimpleDateFormat format;
+
+		private int pageIndex;
+		private List<ToolBoxTaskHistory.Record> page;
+
+		public HistoryTableModel(final ToolBoxTaskHistory aHistory) {
+			history = aHistory;
+			size = aHistory.size();
+			format = new SimpleDateFormat("yyyy/MM/dd HH:mm");
+			pageIndex = -1;
+			page = new ArrayList<ToolBoxTaskHistory.Record>();
+		}
+
+		@Override
+		public int getRowCount() {
+			return size;
+		}
+
+		@Override
+		public int getColumnCount() {
+			return COLUMN_NAMES.length;
+		}
+
+		@Override
+		public String getColumnName(final int aColumn) {
+			return COLUMN_NAMES[aColumn];
+		}
+
+		@Override
+		public Object getValueAt(final int aRow, final int aColumn) {
+			// 新しい履歴を先頭に表示する
+			ToolBoxTaskHistory.Record record = getRecord(size - 1 - aRow);
+			if (null == record) {
+				return null;
+			}
+			switch (aColumn) {
+			case 0:
+				return record.getName();
+			case 1:
+				return record.getMessage();
+			case 2:
+				return toDate(record.getStartTime());
+			case 3:
+				return toDate(record.getStopTime());
+			case 4:
+				return record.getProgress() + "%";
+			case 5:
+				return record.getStatus();
+			default:
+				return null;
+			}
+		}
+
+		private ToolBoxTaskHistory.Record getRecord(final int aIndex) {
+			int index = aIndex / PAGE_SIZE;
+			if (index != pageIndex) {
+				try {
+					page = history.read(index * PAGE_SIZE, PAGE_SIZE);
+				} catch (IOException ex) {
+					ex.printStackTrace();
+					page = new ArrayList<ToolBoxTaskHistory.Record>();
+				}
+				pageIndex = index;
+			}
+			int offset = aIndex - index * PAGE_SIZE;
+			return (offset < page.size()) ? page.get(offset) : null;
+		}
+
+		private String toDate(final long aTime) {
+			return (0L < aTime) ? format.format(new Date(aTime)) : "";
+		}
+	}
+}
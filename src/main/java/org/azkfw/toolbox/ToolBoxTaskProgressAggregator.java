@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.swing.Timer;
+
+import org.azkfw.business.task.Task;
+
+/**
+ * このクラスは、タスクの進捗を集約してタスクテーブルへ反映するクラスです。
+ * <p>
+ * 任意のスレッドから通知された進捗はタスク毎に最新の値のみ保持し、 指定されたフレームレートでEDT上からまとめてモデルへ反映します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ToolBoxTaskProgressAggregator {
+
+	/** デフォルトフレームレート */
+	public static final int DEFAULT_FRAME_RATE = 10;
+
+	/** モデル */
+	private ToolBoxTaskTableModel model;
+
+	/** 未反映の進捗 */
+	private Map<Task, TaskProgress> pendings;
+
+	/** 反映タイマー */
+	private Timer timer;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aModel モデル
+	 */
+	public ToolBoxTaskProgressAggregator(final ToolBoxTaskTableModel aModel) {
+		this(aModel, DEFAULT_FRAME_RATE);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aModel モデル
+	 * @param aFrameRate フレームレート(回/秒)
+	 */
+	public ToolBoxTaskProgressAggregator(final ToolBoxTaskTableModel aModel, final int aFrameRate) {
+		model = aModel;
+		pendings = new ConcurrentHashMap<Task, TaskProgress>();
+		timer = new Timer(toDelay(aFrameRate), new ActionListener() {
+			@Override
+			public void actionPerformed(final ActionEvent event) {
+				flush();
+			}
+		});
+		timer.setCoalesce(true);
+	}
+
+	/**
+	 * フレームレートを設定する。
+	 * 
+	 * @param aFrameRate フレームレート(回/秒)
+	 */
+	public void setFrameRate(final int aFrameRate) {
+		int delay = toDelay(aFrameRate);
+		timer.setDelay(delay);
+		timer.setInitialDelay(delay);
+	}
+
+	/**
+	 * 反映を開始する。
+	 */
+	public void start() {
+		timer.start();
+	}
+
+	/**
+	 * 反映を停止する。
+	 */
+	public void stop() {
+		timer.stop();
+	}
+
+	/**
+	 * 進捗を通知する。
+	 * <p>
+	 * このメソッドは任意のスレッドから呼び出せます。
+	 * </p>
+	 * 
+	 * @param aTask タスク
+	 * @param aPercent 進捗率
+	 * @param aMessage メッセージ
+	 */
+	public void progress(final Task aTask, final double aPercent, final String aMessage) {
+		pendings.put(aTask, new TaskProgress(aPercent, aMessage));
+	}
+
+	/**
+	 * 未反映の進捗をモデルへ反映する。
+	 * <p>
+	 * このメソッドはEDTから呼び出してください。
+	 * </p>
+	 */
+	public void flush() {
+		if (pendings.isEmpty()) {
+			return;
+		}
+		List<Task> tasks = new ArrayList<Task>(pendings.keySet());
+		for (Task task : tasks) {
+			TaskProgress progress = pendings.remove(task);
+			if (null != progress) {
+				model.updateTask(task, progress.getPercent(), progress.getMessage());
+			}
+		}
+	}
+
+	private static int toDelay(final int aFrameRate) {
+		return 1000 / Math.max(1, aFrameRate);
+	}
+
+	private static class TaskProgress {
+		private double percent;
+		private String message;
+
+		public TaskProgress(final double aPercent, final String aMessage) {
+			percent = aPercent;
+			message = aMessage;
+		}
+
+		public double getPercent() {
+			return percent;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+/**
+ * このクラスは、終了したタスクをタスクテーブルに残すかを判断する保持ポリシーです。
+ * <p>
+ * 保持されなかったタスクはタスクテーブルから除かれ、タスク履歴へ書き出されます。 実行中・待機中のタスクは常に保持されます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public abstract class ToolBoxTaskRetentionPolicy {
+
+	/**
+	 * 全てのタスクを保持するポリシーを取得する。
+	 * 
+	 * @return ポリシー
+	 */
+	public static ToolBoxTaskRetentionPolicy keepAll() {
+		return new ToolBoxTaskRetentionPolicy() {
+			@Override
+			public boolean isRetain(final ToolBoxTaskRow aRow, final int aRank, final long aNow) {
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * 直近に終了したタスクを指定件数だけ保持するポリシーを取得する。
+	 * 
+	 * @param aCount 件数
+	 * @return ポリシー
+	 */
+	public static ToolBoxTaskRetentionPolicy keepLast(final int aCount) {
+		return new ToolBoxTaskRetentionPolicy() {
+			@Override
+			public boolean isRetain(final ToolBoxTaskRow aRow, final int aRank, final long aNow) {
+				return aRank < aCount;
+			}
+		};
+	}
+
+	/**
+	 * 終了してから指定時間以内のタスクを保持するポリシーを取得する。
+	 * 
+	 * @param aMillis 保持時間(ミリ秒)
+	 * @return ポリシー
+	 */
+	public static ToolBoxTaskRetentionPolicy keepNewerThan(final long aMillis) {
+		return new ToolBoxTaskRetentionPolicy() {
+			@Override
+			public boolean isRetain(final ToolBoxTaskRow aRow, final int aRank, final long aNow) {
+				return aNow - aRow.getStopTime() < aMillis;
+			}
+		};
+	}
+
+	/**
+	 * 失敗したタスクのみ保持するポリシーを取得する。
+	 * 
+	 * @return ポリシー
+	 */
+	public static ToolBoxTaskRetentionPolicy keepFailed() {
+		return new ToolBoxTaskRetentionPolicy() {
+			@Override
+			public boolean isRetain(final ToolBoxTaskRow aRow, final int aRank, final long aNow) {
+				return ToolBoxTaskRow.Status.FAILED == aRow.getStatus();
+			}
+		};
+	}
+
+	/**
+	 * 終了したタスクを保持するか判断する。
+	 * 
+	 * @param aRow 行情報
+	 * @param aRank 終了したタスクの中での新しい順の順位(0始まり)
+	 * @param aNow 現在日時(エポックミリ秒)
+	 * @return 保持する場合、<code>true</code>
+	 */
+	public abstract boolean isRetain(final ToolBoxTaskRow aRow, final int aRank, final long aNow);
+}
@@ -0,0 +1,193 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox;
+
+import org.azkfw.business.task.Task;
+import org.azkfw.toolbox.task.ToolBoxTaskGraph;
+
+/**
+ * このクラスは、タスクテーブルの1行分の情報を保持するクラスです。
+ * <p>
+ * 日時はエポックミリ秒で保持し、未設定の場合は<code>0</code>となります。 行はタスクまたはタスクのグラフを表し、グラフに属するタスクの行は親の行を持ちます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class ToolBoxTaskRow {
+
+	/**
+	 * タスクの状態
+	 */
+	public static enum Status {
+		/** 待機中 */
+		QUEUED,
+		/** 実行中 */
+		RUNNING,
+		/** 完了 */
+		COMPLETED,
+		/** 失敗 */
+		FAILED,
+		/** 中止 */
+		CANCELLED,
+		/** 一時停止 */
+		PAUSED,
+		/** 中止中(中止を要求し、終了を待っている) */
+		CANCELLING;
+
+		/**
+		 * 終了した状態か判断する。
+		 * 
+		 * @return 終了している場合、<code>true</code>
+		 */
+		public boolean isFinished() {
+			return COMPLETED == this || FAILED == this || CANCELLED == this;
+		}
+	}
+
+	private final Object key;
+	private final ToolBoxTaskRow parent;
+	private final String name;
+	private String message;
+	private int progress;
+	private long startTime;
+	private long stopTime;
+	private Status status;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aTask タスク
+	 */
+	public ToolBoxTaskRow(final Task aTask) {
+		this(aTask, aTask.getName(), null);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aTask タスク
+	 * @param aParent 親の行
+	 */
+	public ToolBoxTaskRow(final Task aTask, final ToolBoxTaskRow aParent) {
+		this(aTask, aTask.getName(), aParent);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aGraph グラフ
+	 */
+	public ToolBoxTaskRow(final ToolBoxTaskGraph aGraph) {
+		this(aGraph, aGraph.getName(), null);
+	}
+
+	private ToolBoxTaskRow(final Object aKey, final String aName, final ToolBoxTaskRow aParent) {
+		key = aKey;
+		name = aName;
+		parent = aParent;
+		message = "";
+		status = Status.QUEUED;
+	}
+
+	/**
+	 * 行のキーを取得する。
+	 * 
+	 * @return タスクまたはグラフ
+	 */
+	public Object getKey() {
+		return key;
+	}
+
+	/**
+	 * タスクを取得する。
+	 * 
+	 * @return タスク。グラフの行の場合、<code>null</code>
+	 */
+	public Task getTask() {
+		return (key instanceof Task) ? (Task) key : null;
+	}
+
+	/**
+	 * グラフを取得する。
+	 * 
+	 * @return グラフ。タスクの行の場合、<code>null</code>
+	 */
+	public ToolBoxTaskGraph getGraph() {
+		return (key instanceof ToolBoxTaskGraph) ? (ToolBoxTaskGraph) key : null;
+	}
+
+	/**
+	 * 親の行を取得する。
+	 * 
+	 * @return 親の行。グラフに属さない場合、<code>null</code>
+	 */
+	public ToolBoxTaskRow getParent() {
+		return parent;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	void setMessage(final String aMessage) {
+		message = aMessage;
+	}
+
+	public int getProgress() {
+		return progress;
+	}
+
+	void setProgress(final int aProgress) {
+		progress = aProgress;
+	}
+
+	public long getStartTime() {
+		return startTime;
+	}
+
+	void setStartTime(final long aTime) {
+		startTime = aTime;
+	}
+
+	public long getStopTime() {
+		return stopTime;
+	}
+
+	void setStopTime(final long aTime) {
+		stopTime = aTime;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	void setStatus(final Status aStatus) {
+		status = aStatus;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
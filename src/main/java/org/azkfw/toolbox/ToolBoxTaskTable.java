@@ -17,26 +17,182 @@
  */
 package org.azkfw.toolbox;
 
-import javax.swing.table.DefaultTableModel;
+import java.awt.Component;
+import java.awt.GridLayout;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 
-import org.azkfw.gui.table.CustomTable;
+import javax.swing.JButton;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableColumnModel;
+
+import org.azkfw.business.task.Task;
+import org.azkfw.toolbox.task.ToolBoxTaskControllable;
 
 /**
  * @since 1.0.0
  * @version 1.0.0 2014/10/09
  * @author Kawakicchi
  */
-public class ToolBoxTaskTable extends CustomTable {
+public class ToolBoxTaskTable extends JTable {
 
 	/** serialVersionUID */
 	private static final long serialVersionUID = 1060786351189432715L;
 
+	private ToolBoxTaskTableModel model;
+
+	private List<ToolBoxTaskTableListener> listeners;
+
 	/**
 	 * @param model
 	 */
-	public ToolBoxTaskTable(final DefaultTableModel model) {
+	public ToolBoxTaskTable(final ToolBoxTaskTableModel model) {
 		super(model);
+		this.model = model;
+		listeners = new ArrayList<ToolBoxTaskTableListener>();
 		setRowHeight(14);
+
+		TableColumnModel columns = getColumnModel();
+		columns.getColumn(ToolBoxTaskTableModel.COLUMN_START).setCellRenderer(new DateCellRenderer());
+		columns.getColumn(ToolBoxTaskTableModel.COLUMN_STOP).setCellRenderer(new DateCellRenderer());
+		columns.getColumn(ToolBoxTaskTableModel.COLUMN_PROGRESS).setCellRenderer(new ProgressCellRenderer());
+		columns.getColumn(ToolBoxTaskTableModel.COLUMN_CONTROL).setCellRenderer(new ControlCellRenderer());
+		columns.getColumn(ToolBoxTaskTableModel.COLUMN_CONTROL).setPreferredWidth(120);
+
+		addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(final MouseEvent event) {
+				doClickControl(event);
+			}
+		});
+	}
+
+	public void addToolBoxTaskTableListener(final ToolBoxTaskTableListener listener) {
+		listeners.add(listener);
+	}
+
+	private void doClickControl(final MouseEvent event) {
+		int row = rowAtPoint(event.getPoint());
+		int column = columnAtPoint(event.getPoint());
+		if (-1 == row || ToolBoxTaskTableModel.COLUMN_CONTROL != convertColumnIndexToModel(column)) {
+			return;
+		}
+
+		ToolBoxTaskRow taskRow = model.getTaskRow(convertRowIndexToModel(row));
+		Task task = taskRow.getTask();
+		ToolBoxTaskRow.Status status = taskRow.getStatus();
+		if (status.isFinished()) {
+			return;
+		}
+
+		// セルの左半分が一時停止・再開、右半分が中止
+		Rectangle rect = getCellRect(row, column, false);
+		if (event.getX() < rect.x + rect.width / 2) {
+			if (!isPauseSupported(taskRow)) {
+				return;
+			}
+			for (ToolBoxTaskTableListener listener : listeners) {
+				if (ToolBoxTaskRow.Status.PAUSED == status) {
+					listener.toolBoxTaskTableResumeTask(task);
+				} else {
+					listener.toolBoxTaskTablePauseTask(task);
+				}
+			}
+		} else {
+			for (ToolBoxTaskTableListener listener : listeners) {
+				if (null != task) {
+					listener.toolBoxTaskTableCancelTask(task);
+				} else {
+					listener.toolBoxTaskTableCancelGraph(taskRow.getGraph());
+				}
+			}
+		}
+	}
+
+	private static boolean isPauseSupported(final ToolBoxTaskRow aRow) {
+		ToolBoxTaskRow.Status status = aRow.getStatus();
+		return (aRow.getTask() instanceof ToolBoxTaskControllable)
+				&& (ToolBoxTaskRow.Status.RUNNING == status || ToolBoxTaskRow.Status.PAUSED == status);
+	}
+
+	/**
+	 * 日時(エポックミリ秒)を描画するレンダラー
+	 */
+	private static class DateCellRenderer extends DefaultTableCellRenderer {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = -2938262360393757291L;
+
+		private static final String EMPTY = "--/-- --:--";
+
+		private final SimpleDateFormat format = new SimpleDateFormat("MM/dd HH:mm");
+
+		@Override
+		protected void setValue(final Object value) {
+			long time = (value instanceof Long) ? ((Long) value).longValue() : 0L;
+			setText((0L < time) ? format.format(new Date(time)) : EMPTY);
+		}
 	}
 
+	/**
+	 * 進捗を描画するレンダラー
+	 */
+	private static class ProgressCellRenderer implements TableCellRenderer {
+
+		private final JProgressBar bar;
+
+		public ProgressCellRenderer() {
+			bar = new JProgressBar(0, 100);
+			bar.setStringPainted(true);
+		}
+
+		@Override
+		public Component getTableCellRendererComponent(final JTable table, final Object value, final boolean isSelected,
+				final boolean hasFocus, final int row, final int column) {
+			bar.setValue((value instanceof Integer) ? ((Integer) value).intValue() : 0);
+			return bar;
+		}
+	}
+
+	/**
+	 * コントロールを描画するレンダラー
+	 */
+	private static class ControlCellRenderer implements TableCellRenderer {
+
+		private final JPanel panel;
+		private final JButton btnPause;
+		private final JButton btnCancel;
+
+		public ControlCellRenderer() {
+			panel = new JPanel(new GridLayout(1, 2));
+			btnPause = new JButton("一時停止");
+			btnPause.setMargin(new Insets(0, 0, 0, 0));
+			btnCancel = new JButton("中止");
+			btnCancel.setMargin(new Insets(0, 0, 0, 0));
+			panel.add(btnPause);
+			panel.add(btnCancel);
+		}
+
+		@Override
+		public Component getTableCellRendererComponent(final JTable table, final Object value, final boolean isSelected,
+				final boolean hasFocus, final int row, final int column) {
+			ToolBoxTaskRow taskRow = (ToolBoxTaskRow) value;
+			btnPause.setText((ToolBoxTaskRow.Status.PAUSED == taskRow.getStatus()) ? "再開" : "一時停止");
+			btnPause.setEnabled(isPauseSupported(taskRow));
+			boolean cancelling = (ToolBoxTaskRow.Status.CANCELLING == taskRow.getStatus());
+			btnCancel.setText((cancelling) ? "中止中…" : "中止");
+			btnCancel.setEnabled(!cancelling && !taskRow.getStatus().isFinished());
+			return panel;
+		}
+	}
 }
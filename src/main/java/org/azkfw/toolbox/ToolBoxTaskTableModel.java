@@ -17,56 +17,243 @@
  */
 package org.azkfw.toolbox;
 
-import java.util.Calendar;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-import javax.swing.JButton;
-import javax.swing.JLabel;
-import javax.swing.JProgressBar;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.AbstractTableModel;
 
 import org.azkfw.business.task.Task;
+import org.azkfw.toolbox.task.ToolBoxTaskGraph;
 
 /**
  * @since 1.0.0
  * @version 1.0.0 2014/10/10
  * @author Kawakicchi
  */
-public class ToolBoxTaskTableModel extends DefaultTableModel {
+public class ToolBoxTaskTableModel extends AbstractTableModel {
 
 	/** serialVersionUID */
 	private static final long serialVersionUID = 6969238829444199862L;
 
+	public static final int COLUMN_TASK = 0;
+	public static final int COLUMN_MESSAGE = 1;
+	public static final int COLUMN_START = 2;
+	public static final int COLUMN_STOP = 3;
+	public static final int COLUMN_PROGRESS = 4;
+	public static final int COLUMN_CONTROL = 5;
+
+	private static final String[] COLUMN_NAMES = { "タスク", "メッセージ", "開始日時", "終了日時", "プログレス", "コントロール" };
+
+	private static final Class<?>[] COLUMN_CLASSES = { String.class, String.class, Long.class, Long.class, Integer.class,
+			ToolBoxTaskRow.class };
+
+	/** 行 */
+	private List<ToolBoxTaskRow> rows;
+
+	/** タスク(グラフ)→行番号インデックス */
+	private Map<Object, Integer> indexes;
+
+	/** 保持ポリシー */
+	private ToolBoxTaskRetentionPolicy retentionPolicy;
+
+	/** タスク履歴 */
+	private ToolBoxTaskHistory history;
+
 	public ToolBoxTaskTableModel() {
-		addColumn("タスク");
-		addColumn("メッセージ");
-		addColumn("開始日時");
-		addColumn("終了日時");
-		addColumn("プログレス");
-		addColumn("コントロール");		
+		rows = new ArrayList<ToolBoxTaskRow>();
+		indexes = new HashMap<Object, Integer>();
+		retentionPolicy = ToolBoxTaskRetentionPolicy.keepAll();
+	}
+
+	/**
+	 * 保持ポリシーを設定する。
+	 * 
+	 * @param aPolicy 保持ポリシー
+	 */
+	public void setRetentionPolicy(final ToolBoxTaskRetentionPolicy aPolicy) {
+		retentionPolicy = (null != aPolicy) ? aPolicy : ToolBoxTaskRetentionPolicy.keepAll();
+	}
+
+	/**
+	 * 除いたタスクの書き出し先を設定する。
+	 * 
+	 * @param aHistory タスク履歴
+	 */
+	public void setHistory(final ToolBoxTaskHistory aHistory) {
+		history = aHistory;
+	}
+
+	@Override
+	public int getRowCount() {
+		return rows.size();
+	}
+
+	@Override
+	public int getColumnCount() {
+		return COLUMN_NAMES.length;
+	}
+
+	@Override
+	public String getColumnName(final int aColumn) {
+		return COLUMN_NAMES[aColumn];
+	}
+
+	@Override
+	public Class<?> getColumnClass(final int aColumn) {
+		return COLUMN_CLASSES[aColumn];
+	}
+
+	@Override
+	public Object getValueAt(final int aRow, final int aColumn) {
+		ToolBoxTaskRow row = rows.get(aRow);
+		switch (aColumn) {
+		case COLUMN_TASK:
+			return (null != row.getParent()) ? "  └ " + row.getName() : row.getName();
+		case COLUMN_MESSAGE:
+			return row.getMessage();
+		case COLUMN_START:
+			return row.getStartTime();
+		case COLUMN_STOP:
+			return row.getStopTime();
+		case COLUMN_PROGRESS:
+			return row.getProgress();
+		case COLUMN_CONTROL:
+			return row;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * 行情報を取得する。
+	 * 
+	 * @param aRow 行番号
+	 * @return 行情報
+	 */
+	public ToolBoxTaskRow getTaskRow(final int aRow) {
+		return rows.get(aRow);
 	}
 
 	public void addTask(final Task aTask) {
-		JProgressBar bar = new JProgressBar(0, 100);
-		bar.setStringPainted(true);
-		bar.setValue(0);
+		if (indexes.containsKey(aTask)) {
+			return;
+		}
+		int index = rows.size();
+		rows.add(new ToolBoxTaskRow(aTask));
+		indexes.put(aTask, index);
 
-		TaskInfo info = new TaskInfo(aTask);
+		fireTableRowsInserted(index, index);
+	}
 
-		Object[] datas = { info, new JLabel(""), new JLabel("--/-- --:--"), new JLabel("--/-- --:--"), bar, new JButton("button") };
-		addRow(datas);
+	/**
+	 * グラフを追加する。
+	 * <p>
+	 * グラフの行に続けて、グラフに属するタスクの行を追加順に追加する。
+	 * </p>
+	 * 
+	 * @param aGraph グラフ
+	 */
+	public void addGraph(final ToolBoxTaskGraph aGraph) {
+		if (indexes.containsKey(aGraph)) {
+			return;
+		}
+		int first = rows.size();
+		ToolBoxTaskRow parent = new ToolBoxTaskRow(aGraph);
+		parent.setMessage(String.format("0/%d", aGraph.size()));
+		rows.add(parent);
+		indexes.put(aGraph, first);
+		for (Task task : aGraph.getTasks()) {
+			if (!indexes.containsKey(task)) {
+				indexes.put(task, rows.size());
+				rows.add(new ToolBoxTaskRow(task, parent));
+			}
+		}
+
+		fireTableRowsInserted(first, rows.size() - 1);
 	}
 
-	public boolean startTask(final Task aTask) {
+	/**
+	 * グラフの状態を行へ反映する。
+	 * <p>
+	 * グラフの行には終了したタスク数を進捗として反映し、 依存先の中止により中止となったタスクの行を中止とする。
+	 * </p>
+	 * 
+	 * @param aGraph グラフ
+	 * @return 対象のグラフが存在した場合、<code>true</code>
+	 */
+	public boolean updateGraph(final ToolBoxTaskGraph aGraph) {
+		int index = getIndex(aGraph);
+		if (-1 == index) {
+			return false;
+		}
+		long now = System.currentTimeMillis();
+		ToolBoxTaskRow parent = rows.get(index);
+
+		int last = index;
+		for (Task task : aGraph.getTasks()) {
+			int childIndex = getIndex(task);
+			if (-1 == childIndex) {
+				continue;
+			}
+			ToolBoxTaskRow row = rows.get(childIndex);
+			if (ToolBoxTaskGraph.State.CANCELLED == aGraph.getState(task) && !row.getStatus().isFinished()) {
+				if (0L < row.getStartTime()) {
+					// 実行中のタスクは終了するまで中止中とする
+					row.setStatus(ToolBoxTaskRow.Status.CANCELLING);
+				} else {
+					row.setStatus(ToolBoxTaskRow.Status.CANCELLED);
+					row.setStopTime(now);
+				}
+			}
+			if (0L < row.getStartTime() && (0L == parent.getStartTime() || row.getStartTime() < parent.getStartTime())) {
+				parent.setStartTime(row.getStartTime());
+			}
+			last = Math.max(last, childIndex);
+		}
+
+		int size = aGraph.size();
+		int finished = aGraph.getFinishedCount();
+		parent.setProgress((0 < size) ? finished * 100 / size : 100);
+		parent.setMessage(String.format("%d/%d", finished, size));
+		if (aGraph.isFinished()) {
+			if (!parent.getStatus().isFinished()) {
+				parent.setStatus(aGraph.isCancelled() ? ToolBoxTaskRow.Status.CANCELLED : ToolBoxTaskRow.Status.COMPLETED);
+				parent.setStopTime(now);
+			}
+		} else if (0L < parent.getStartTime()) {
+			parent.setStatus(ToolBoxTaskRow.Status.RUNNING);
+		}
+
+		fireTableRowsUpdated(index, last);
+		return true;
+	}
+
+	public boolean removeTask(final Task aTask) {
 		int index = getIndex(aTask);
 		if (-1 != index) {
-			Calendar cln = Calendar.getInstance();
-			cln.setTime(new Date());
+			rows.remove(index);
+			indexes.remove(aTask);
+			rebuildIndex(index);
 
-			JLabel lbl = (JLabel) getValueAt(index, 2); // start date
-			lbl.setText(String.format("%02d/%02d %02d:%02d", cln.get(Calendar.MONTH) + 1, cln.get(Calendar.DAY_OF_MONTH),
-					cln.get(Calendar.HOUR_OF_DAY), cln.get(Calendar.MINUTE)));
+			fireTableRowsDeleted(index, index);
+			return true;
+		}
+		return false;
+	}
 
+	public boolean startTask(final Task aTask) {
+		int index = getIndex(aTask);
+		if (-1 != index) {
+			ToolBoxTaskRow row = rows.get(index);
+			row.setStartTime(System.currentTimeMillis());
+			if (ToolBoxTaskRow.Status.QUEUED == row.getStatus()) {
+				row.setStatus(ToolBoxTaskRow.Status.RUNNING);
+			}
+
+			fireTableRowsUpdated(index, index);
+			updateParent(row);
 			return true;
 		}
 		return false;
@@ -75,58 +262,209 @@ public class ToolBoxTaskTableModel extends DefaultTableModel {
 	public boolean stopTask(final Task aTask) {
 		int index = getIndex(aTask);
 		if (-1 != index) {
-			Calendar cln = Calendar.getInstance();
-			cln.setTime(new Date());
+			ToolBoxTaskRow row = rows.get(index);
+			row.setStopTime(System.currentTimeMillis());
+			if (ToolBoxTaskRow.Status.CANCELLING == row.getStatus()) {
+				row.setStatus(ToolBoxTaskRow.Status.CANCELLED);
+			} else if (!row.getStatus().isFinished()) {
+				row.setStatus(ToolBoxTaskRow.Status.COMPLETED);
+			}
 
-			JLabel lbl = (JLabel) getValueAt(index, 3); // stop date
-			lbl.setText(String.format("%02d/%02d %02d:%02d", cln.get(Calendar.MONTH) + 1, cln.get(Calendar.DAY_OF_MONTH),
-					cln.get(Calendar.HOUR_OF_DAY), cln.get(Calendar.MINUTE)));
+			fireTableRowsUpdated(index, index);
+			updateParent(row);
+			return true;
+		}
+		return false;
+	}
 
+	/**
+	 * タスクを中止として記録する。
+	 * 
+	 * @param aTask タスク
+	 * @return 対象のタスクが存在した場合、<code>true</code>
+	 */
+	public boolean cancelTask(final Task aTask) {
+		int index = getIndex(aTask);
+		if (-1 != index) {
+			ToolBoxTaskRow row = rows.get(index);
+			if (!row.getStatus().isFinished()) {
+				row.setStatus(ToolBoxTaskRow.Status.CANCELLED);
+				row.setStopTime(System.currentTimeMillis());
+			}
+
+			fireTableRowsUpdated(index, index);
+			updateParent(row);
 			return true;
 		}
 		return false;
 	}
 
-	public boolean updateTask(final Task aTask, final double aPercent, final String aMessage) {
+	/**
+	 * タスクを中止中として記録する。
+	 * <p>
+	 * 中止を要求した実行中のタスクは、終了した時に中止となります。
+	 * </p>
+	 * 
+	 * @param aTask タスク
+	 * @return 対象のタスクが存在した場合、<code>true</code>
+	 */
+	public boolean cancellingTask(final Task aTask) {
+		int index = getIndex(aTask);
+		if (-1 != index) {
+			ToolBoxTaskRow row = rows.get(index);
+			if (!row.getStatus().isFinished()) {
+				row.setStatus(ToolBoxTaskRow.Status.CANCELLING);
+			}
+
+			fireTableRowsUpdated(index, index);
+			updateParent(row);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * タスクを一時停止または再開として記録する。
+	 * 
+	 * @param aTask タスク
+	 * @param aPause 一時停止の場合、<code>true</code>
+	 * @return 対象のタスクが存在した場合、<code>true</code>
+	 */
+	public boolean pauseTask(final Task aTask, final boolean aPause) {
+		int index = getIndex(aTask);
+		if (-1 != index) {
+			ToolBoxTaskRow row = rows.get(index);
+			if (aPause && ToolBoxTaskRow.Status.RUNNING == row.getStatus()) {
+				row.setStatus(ToolBoxTaskRow.Status.PAUSED);
+			} else if (!aPause && ToolBoxTaskRow.Status.PAUSED == row.getStatus()) {
+				row.setStatus(ToolBoxTaskRow.Status.RUNNING);
+			}
+
+			fireTableRowsUpdated(index, index);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * タスクを失敗として記録する。
+	 * 
+	 * @param aTask タスク
+	 * @return 対象のタスクが存在した場合、<code>true</code>
+	 */
+	public boolean failTask(final Task aTask) {
 		int index = getIndex(aTask);
 		if (-1 != index) {
-			JLabel lbl = (JLabel) getValueAt(index, 1); // label
-			JProgressBar bar = (JProgressBar) getValueAt(index, 4); // progress
+			ToolBoxTaskRow row = rows.get(index);
+			row.setStatus(ToolBoxTaskRow.Status.FAILED);
+			row.setStopTime(System.currentTimeMillis());
 
-			lbl.setText(aMessage);
-			bar.setValue((int) aPercent);
+			fireTableRowsUpdated(index, index);
+			updateParent(row);
 			return true;
 		}
 		return false;
 	}
 
-	private int getIndex(final Task aTask) {
-		int index = -1;
-		for (int row = 0; row < getRowCount(); row++) {
-			TaskInfo info = (TaskInfo) getValueAt(row, 0);
-			if (aTask.equals(info.getTask())) {
-				index = row;
-				break;
+	/**
+	 * 保持ポリシーに従い終了したタスクを除く。
+	 * <p>
+	 * 除いたタスクはタスク履歴へ書き出されます。 全ての行を走査する為、タスクの終了毎ではなく定期的に呼び出してください。
+	 * </p>
+	 * 
+	 * @return 除いたタスク数
+	 */
+	public int evict() {
+		long now = System.currentTimeMillis();
+
+		boolean[] retains = new boolean[rows.size()];
+		int evictCount = 0;
+		int rank = 0;
+		for (int i = rows.size() - 1; i >= 0; i--) {
+			ToolBoxTaskRow row = rows.get(i);
+			if (null != row.getParent()) {
+				// グラフに属するタスクはグラフの行に従う
+				continue;
+			}
+			if (row.getStatus().isFinished()) {
+				retains[i] = retentionPolicy.isRetain(row, rank, now);
+				rank++;
+			} else {
+				retains[i] = true;
+			}
+		}
+		for (int i = 0; i < rows.size(); i++) {
+			ToolBoxTaskRow parent = rows.get(i).getParent();
+			if (null != parent) {
+				Integer parentIndex = indexes.get(parent.getKey());
+				retains[i] = (null == parentIndex) || retains[parentIndex.intValue()];
+			}
+			if (!retains[i]) {
+				evictCount++;
+			}
+		}
+		if (0 == evictCount) {
+			return 0;
+		}
+
+		List<ToolBoxTaskRow> retainRows = new ArrayList<ToolBoxTaskRow>(rows.size() - evictCount);
+		List<ToolBoxTaskRow> evictRows = new ArrayList<ToolBoxTaskRow>(evictCount);
+		for (int i = 0; i < rows.size(); i++) {
+			ToolBoxTaskRow row = rows.get(i);
+			if (retains[i]) {
+				retainRows.add(row);
+			} else {
+				evictRows.add(row);
+				indexes.remove(row.getKey());
 			}
 		}
-		return index;
+		rows = retainRows;
+		rebuildIndex(0);
+
+		if (null != history) {
+			// 書き出しはEDTで行わない
+			history.appendLater(evictRows);
+		}
+
+		fireTableDataChanged();
+		return evictCount;
 	}
 
-	private class TaskInfo {
-		private String name;
-		private Task task;
+	public boolean updateTask(final Task aTask, final double aPercent, final String aMessage) {
+		int index = getIndex(aTask);
+		if (-1 != index) {
+			ToolBoxTaskRow row = rows.get(index);
+			row.setMessage(aMessage);
+			row.setProgress((int) aPercent);
 
-		public TaskInfo(final Task aTask) {
-			task = aTask;
-			name = task.getName();
+			fireTableRowsUpdated(index, index);
+			return true;
 		}
+		return false;
+	}
 
-		public String toString() {
-			return name;
+	private int getIndex(final Object aKey) {
+		Integer index = indexes.get(aKey);
+		return (null != index) ? index.intValue() : -1;
+	}
+
+	private void updateParent(final ToolBoxTaskRow aRow) {
+		if (null != aRow.getParent()) {
+			updateGraph(aRow.getParent().getGraph());
 		}
+	}
 
-		public Task getTask() {
-			return task;
+	/**
+	 * 指定行以降のインデックスを再構築する。
+	 * <p>
+	 * 行の挿入・削除でずれた行番号のみを更新する。
+	 * </p>
+	 * 
+	 * @param aFromRow 開始行
+	 */
+	private void rebuildIndex(final int aFromRow) {
+		for (int row = aFromRow; row < rows.size(); row++) {
+			indexes.put(rows.get(row).getKey(), row);
 		}
 	}
 }
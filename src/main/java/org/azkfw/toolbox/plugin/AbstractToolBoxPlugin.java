@@ -5,6 +5,7 @@ import javax.swing.JPanel;
 
 import org.azkfw.business.task.Task;
 import org.azkfw.toolbox.ToolBoxFrame;
+import org.azkfw.toolbox.task.ToolBoxTaskGraph;
 
 public abstract class AbstractToolBoxPlugin implements ToolBoxPlugin {
 
@@ -15,15 +16,23 @@ public abstract class AbstractToolBoxPlugin implements ToolBoxPlugin {
 	}
 
 	protected final void queueTask(final Task aTask) {
-		frame.queueTask(aTask);
+		frame.queueTask(this, aTask);
+	}
+
+	protected final void cancelTask(final Task aTask) {
+		frame.cancelTask(aTask);
+	}
+
+	protected final void queueTaskGraph(final ToolBoxTaskGraph aGraph) {
+		frame.executeTaskGraph(this, aGraph);
 	}
 
 	protected final void addTab(final String aTitle, final JPanel aPanel) {
-		frame.addTab(aTitle, aPanel);
+		frame.addTab(this, aTitle, null, aPanel, null);
 	}
 
 	protected final void addTab(final String aTitle, final Icon aIcon, final JPanel aPanel, final String aToolTip) {
-		frame.addTab(aTitle, aIcon, aPanel, aToolTip);
+		frame.addTab(this, aTitle, aIcon, aPanel, aToolTip);
 	}
 
 }
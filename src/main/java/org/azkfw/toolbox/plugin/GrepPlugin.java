@@ -0,0 +1,151 @@
+package org.azkfw.toolbox.plugin;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.awt.KeyboardFocusManager;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+
+import org.azkfw.business.task.Task;
+import org.azkfw.toolbox.plugin.annotation.SupportFileType;
+import org.azkfw.toolbox.plugin.grep.GrepPanel;
+import org.azkfw.toolbox.plugin.grep.GrepPanelListener;
+import org.azkfw.toolbox.support.ToolBoxFilePopupMenuSupport;
+import org.azkfw.toolbox.support.ToolBoxPreferenceChangeSupport;
+
+@SupportFileType(directory = true)
+public class GrepPlugin extends AbstractToolBoxPlugin implements ToolBoxFilePopupMenuSupport, ToolBoxPreferenceChangeSupport {
+
+	/** 文字コードの設定のキー */
+	private static final String KEY_CHARSET = "charset";
+
+	private static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
+
+	private Charset charset = DEFAULT_CHARSET;
+
+	@Override
+	public List<ToolBoxPreferenceData> getPreferenceDataList() {
+		return null;
+	}
+
+	@Override
+	public void load(final Properties properties) {
+		String name = properties.getProperty(KEY_CHARSET);
+		charset = DEFAULT_CHARSET;
+		if (null != name) {
+			try {
+				charset = Charset.forName(name);
+			} catch (IllegalCharsetNameException | UnsupportedCharsetException ex) {
+				ex.printStackTrace();
+			}
+		}
+	}
+
+	@Override
+	public void store(final Properties properties) {
+		properties.setProperty(KEY_CHARSET, charset.name());
+	}
+
+	@Override
+	public void preferenceChanged(final Properties properties, final Set<String> changedKeys) {
+		if (changedKeys.contains(KEY_CHARSET)) {
+			// 変更後に開始した検索から反映する
+			load(properties);
+		}
+	}
+
+	@Override
+	public boolean isSupportFilePopupMenu(final File aFile) {
+		return aFile.isDirectory();
+	}
+
+	@Override
+	public List<JMenuItem> pupupMenuFile(final File aFile) {
+		List<JMenuItem> menus = new ArrayList<JMenuItem>();
+
+		JMenuItem menuGrep = new JMenuItem("ファイル内検索…");
+		menuGrep.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(final ActionEvent e) {
+				doSearch(aFile);
+			}
+		});
+		menus.add(menuGrep);
+
+		return menus;
+	}
+
+	/**
+	 * ディレクトリ配下のファイルの内容を検索する。
+	 * 
+	 * @param aDirectory ディレクトリ
+	 * @param aPattern パターン
+	 */
+	public void search(final File aDirectory, final Pattern aPattern) {
+		GrepPanel panel = new GrepPanel(aDirectory, aPattern, charset);
+		panel.addGrepPanelListener(new GrepPanelListener() {
+			@Override
+			public void grepPanelQueueTask(final Task aTask) {
+				queueTask(aTask);
+			}
+
+			@Override
+			public void grepPanelCancelTask(final Task aTask) {
+				cancelTask(aTask);
+			}
+		});
+		addTab("検索 " + aPattern.pattern(), null, panel, aDirectory.getAbsolutePath());
+		// 検索はタスクで行い、タスクテーブルに進捗を表示する
+		panel.start();
+	}
+
+	private void doSearch(final File aDirectory) {
+		JTextField txtQuery = new JTextField(30);
+		JCheckBox chkRegex = new JCheckBox("正規表現");
+		JCheckBox chkCase = new JCheckBox("大文字・小文字を区別");
+
+		JPanel pnlOption = new JPanel(new GridLayout(1, 2));
+		pnlOption.add(chkRegex);
+		pnlOption.add(chkCase);
+		JPanel pnl = new JPanel(new BorderLayout(4, 4));
+		pnl.add(new JLabel(aDirectory.getAbsolutePath()), BorderLayout.NORTH);
+		pnl.add(txtQuery, BorderLayout.CENTER);
+		pnl.add(pnlOption, BorderLayout.SOUTH);
+
+		int result = JOptionPane.showConfirmDialog(KeyboardFocusManager.getCurrentKeyboardFocusManager().getActiveWindow(), pnl,
+				"ファイル内検索", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+		if (JOptionPane.OK_OPTION != result || 0 == txtQuery.getText().length()) {
+			return;
+		}
+
+		int flags = (chkRegex.isSelected()) ? 0 : Pattern.LITERAL;
+		if (!chkCase.isSelected()) {
+			flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+		}
+		Pattern pattern;
+		try {
+			pattern = Pattern.compile(txtQuery.getText(), flags);
+		} catch (PatternSyntaxException ex) {
+			JOptionPane.showMessageDialog(null, ex.getMessage(), "ファイル内検索", JOptionPane.ERROR_MESSAGE);
+			return;
+		}
+		search(aDirectory, pattern);
+	}
+}
@@ -1,32 +1,69 @@
 package org.azkfw.toolbox.plugin;
 
-import java.awt.Image;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.io.File;
-import java.io.IOException;
-import java.util.regex.Pattern;
+import java.io.FileFilter;
+import java.util.ArrayList;
+import java.util.List;
 
-import javax.imageio.ImageIO;
+import javax.swing.JMenuItem;
 
-import org.azkfw.gui.component.ImagePanel;
+import org.azkfw.toolbox.plugin.annotation.SupportFileType;
+import org.azkfw.toolbox.plugin.image.AsyncImagePanel;
+import org.azkfw.toolbox.plugin.image.ImageDecoders;
+import org.azkfw.toolbox.plugin.image.ThumbnailGridPanel;
 import org.azkfw.toolbox.support.ToolBoxFileOpenSupport;
+import org.azkfw.toolbox.support.ToolBoxFilePopupMenuSupport;
 
-public class ImageViewerPlugin extends AbstractToolBoxPlugin implements ToolBoxFileOpenSupport {
-
-	private Pattern pattern = Pattern.compile("^.*\\.(png|jpg|jpeg)$");
+@SupportFileType(extensions = { "png", "jpg", "jpeg", "gif", "bmp", "tif", "tiff", "webp" }, directory = true)
+public class ImageViewerPlugin extends AbstractToolBoxPlugin implements ToolBoxFileOpenSupport, ToolBoxFilePopupMenuSupport {
 
 	@Override
 	public boolean isSupportFileOpen(final File aFile) {
-		String name = aFile.getName().toLowerCase();
-		return pattern.matcher(name).matches();
+		// WebP等、標準にない形式はリーダーがある場合のみ開く
+		return ImageDecoders.isSupport(aFile);
 	}
 
 	@Override
 	public void openFile(final File aFile) {
-		try {
-			Image image = ImageIO.read(aFile);
-			addTab(aFile.getName(), null, new ImagePanel(image), aFile.getAbsolutePath());
-		} catch (IOException ex) {
-			ex.printStackTrace();
-		}
+		// デコードはバックグラウンドで行い、タブは直ちに表示する
+		addTab(aFile.getName(), null, new AsyncImagePanel(aFile), aFile.getAbsolutePath());
+	}
+
+	@Override
+	public boolean isSupportFilePopupMenu(final File aFile) {
+		return aFile.isDirectory();
+	}
+
+	@Override
+	public List<JMenuItem> pupupMenuFile(final File aFile) {
+		List<JMenuItem> menus = new ArrayList<JMenuItem>();
+
+		JMenuItem menuThumbnail = new JMenuItem("サムネイル一覧");
+		menuThumbnail.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(final ActionEvent e) {
+				openDirectory(aFile);
+			}
+		});
+		menus.add(menuThumbnail);
+
+		return menus;
+	}
+
+	/**
+	 * ディレクトリの画像をサムネイルの一覧で開く。
+	 * 
+	 * @param aDirectory ディレクトリ
+	 */
+	public void openDirectory(final File aDirectory) {
+		FileFilter filter = new FileFilter() {
+			@Override
+			public boolean accept(final File aFile) {
+				return aFile.isFile() && isSupportFileOpen(aFile);
+			}
+		};
+		addTab(aDirectory.getName(), null, new ThumbnailGridPanel(aDirectory, filter, this), aDirectory.getAbsolutePath());
 	}
 }
@@ -0,0 +1,40 @@
+package org.azkfw.toolbox.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import org.azkfw.business.task.Task;
+import org.azkfw.toolbox.plugin.annotation.SupportFileType;
+import org.azkfw.toolbox.plugin.log.LogViewerPanel;
+import org.azkfw.toolbox.plugin.log.LogViewerPanelListener;
+import org.azkfw.toolbox.support.ToolBoxFileOpenSupport;
+
+@SupportFileType(extensions = { "log", "txt", "out" })
+public class LogViewerPlugin extends AbstractToolBoxPlugin implements ToolBoxFileOpenSupport {
+
+	private Charset charset = Charset.forName("UTF-8");
+
+	@Override
+	public boolean isSupportFileOpen(final File aFile) {
+		return aFile.isFile();
+	}
+
+	@Override
+	public void openFile(final File aFile) {
+		try {
+			LogViewerPanel panel = new LogViewerPanel(aFile, charset);
+			panel.addLogViewerPanelListener(new LogViewerPanelListener() {
+				@Override
+				public void logViewerPanelQueueTask(final Task aTask) {
+					queueTask(aTask);
+				}
+			});
+			addTab(aFile.getName(), null, panel, aFile.getAbsolutePath());
+			// 索引はタスクで作成し、タスクテーブルに進捗を表示する
+			panel.start();
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * このアノテーションは、プラグインが対応するファイルの種類を宣言します。
+ * <p>
+ * 宣言されたプラグインは登録時に拡張子・MIMEタイプで索引付けされ、 該当するファイルに対してのみ
+ * <code>isSupportFileOpen</code>、<code>isSupportFilePopupMenu</code>が呼び出されます。
+ * 宣言のないプラグインは従来通り全てのファイルに対して判定されます。
+ * </p>
+ * 
+ * <pre>
+ * &#064;SupportFileType(extensions = { &quot;png&quot;, &quot;jpg&quot; })
+ * public class ImageViewerPlugin extends AbstractToolBoxPlugin implements ToolBoxFileOpenSupport {
+ * </pre>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface SupportFileType {
+
+	/**
+	 * 対応する拡張子(ドットなし、大文字小文字は区別しない)
+	 * 
+	 * @return 拡張子
+	 */
+	String[] extensions() default {};
+
+	/**
+	 * 対応するMIMEタイプ
+	 * 
+	 * @return MIMEタイプ
+	 */
+	String[] mimeTypes() default {};
+
+	/**
+	 * ディレクトリに対応する場合、<code>true</code>
+	 * 
+	 * @return ディレクトリに対応する場合、<code>true</code>
+	 */
+	boolean directory() default false;
+}
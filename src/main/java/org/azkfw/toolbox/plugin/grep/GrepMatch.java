@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.grep;
+
+import java.io.File;
+
+/**
+ * このクラスは、ファイルの内容に一致した行を表すクラスです。
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class GrepMatch {
+
+	private final File file;
+	private final int line;
+	private final String text;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aFile ファイル
+	 * @param aLine 行番号(1始まり)
+	 * @param aText 行の内容
+	 */
+	public GrepMatch(final File aFile, final int aLine, final String aText) {
+		file = aFile;
+		line = aLine;
+		text = aText;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public int getLine() {
+		return line;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	@Override
+	public String toString() {
+		return file.getPath() + ":" + line + ": " + text;
+	}
+}
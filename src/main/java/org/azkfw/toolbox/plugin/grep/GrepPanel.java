@@ -0,0 +1,260 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.grep;
+
+import java.awt.BorderLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+
+import javax.swing.AbstractListModel;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.border.EmptyBorder;
+
+import org.azkfw.toolbox.ToolBox;
+import org.azkfw.toolbox.support.ToolBoxFileOpen;
+import org.azkfw.toolbox.task.ToolBoxFileBatchTask;
+
+/**
+ * このクラスは、ディレクトリ配下のファイルの内容を検索し、結果を表示するパネルクラスです。
+ * <p>
+ * 検索はタスクで並列に行い、一致した行は検索の完了を待たずに{@link #INTERVAL}毎に結果へ追加します。
+ * パネルを閉じた場合は、検索のタスクの中止を要求します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class GrepPanel extends JPanel {
+
+	/** serialVersionUID */
+	private static final long serialVersionUID = 3268419327701685260L;
+
+	/** 結果を追加する間隔(ミリ秒) */
+	private static final int INTERVAL = 100;
+
+	private final File directory;
+	private final Pattern pattern;
+	private final GrepProcessor processor;
+
+	private List<GrepPanelListener> listeners;
+
+	private JLabel lblStatus;
+	private JList<GrepMatch> lstResult;
+	private ResultListModel model;
+	private Timer timer;
+
+	private volatile boolean finished;
+	private int fileCount;
+
+	/** 検索のタスク */
+	private GrepTask task;
+	/** 閉じられた場合、<code>true</code> */
+	private boolean closed;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aDirectory ディレクトリ
+	 * @param aPattern パターン
+	 * @param aCharset 文字コード
+	 */
+	public GrepPanel(final File aDirectory, final Pattern aPattern, final Charset aCharset) {
+		directory = aDirectory;
+		pattern = aPattern;
+		processor = new GrepProcessor(aPattern, aCharset);
+		listeners = new ArrayList<GrepPanelListener>();
+		setLayout(new BorderLayout());
+
+		lblStatus = new JLabel("ファイル一覧中…");
+		lblStatus.setBorder(new EmptyBorder(4, 4, 4, 4));
+		add(lblStatus, BorderLayout.NORTH);
+
+		model = new ResultListModel();
+		lstResult = new JList<GrepMatch>(model);
+		lstResult.setPrototypeCellValue(new GrepMatch(aDirectory, 1, "prototype"));
+		lstResult.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(final MouseEvent event) {
+				if (2 == event.getClickCount()) {
+					doOpenFile();
+				}
+			}
+		});
+		lstResult.addKeyListener(new KeyAdapter() {
+			@Override
+			public void keyPressed(final KeyEvent event) {
+				if (KeyEvent.VK_ENTER == event.getKeyCode()) {
+					doOpenFile();
+				}
+			}
+		});
+		JScrollPane scroll = new JScrollPane(lstResult);
+		scroll.setBorder(new EmptyBorder(0, 0, 0, 0));
+		add(scroll, BorderLayout.CENTER);
+
+		timer = new Timer(INTERVAL, new ActionListener() {
+			@Override
+			public void actionPerformed(final ActionEvent event) {
+				doDrain();
+			}
+		});
+	}
+
+	public void addGrepPanelListener(final GrepPanelListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * 検索を開始する。
+	 * <p>
+	 * ファイルの一覧はバックグラウンドで作成し、作成後に検索タスクの実行を要求します。
+	 * </p>
+	 */
+	public void start() {
+		new SwingWorker<List<File>, Void>() {
+			@Override
+			protected List<File> doInBackground() throws Exception {
+				return ToolBoxFileBatchTask.listFiles(directory);
+			}
+
+			@Override
+			protected void done() {
+				if (closed) {
+					return;
+				}
+				List<File> files;
+				try {
+					files = get();
+				} catch (InterruptedException | ExecutionException ex) {
+					ex.printStackTrace();
+					lblStatus.setText(directory.getAbsolutePath() + " : ファイルの一覧に失敗しました。");
+					return;
+				}
+				fileCount = files.size();
+				task = new GrepTask("ファイル内検索 " + pattern.pattern() + " " + directory.getName(), files, processor) {
+					@Override
+					protected void searched() {
+						finished = true;
+					}
+				};
+				timer.start();
+				doUpdateStatus();
+				for (GrepPanelListener listener : listeners) {
+					listener.grepPanelQueueTask(task);
+				}
+			}
+		}.execute();
+	}
+
+	@Override
+	public void removeNotify() {
+		super.removeNotify();
+		timer.stop();
+		closed = true;
+		// 閉じた後は残りのファイルを検索しない
+		processor.stop();
+		if (null != task && !finished) {
+			for (GrepPanelListener listener : listeners) {
+				listener.grepPanelCancelTask(task);
+			}
+		}
+	}
+
+	private void doDrain() {
+		// 先に完了を確認し、完了前に追加された結果を取りこぼさない
+		boolean done = finished;
+		List<GrepMatch> matches = new ArrayList<GrepMatch>();
+		GrepMatch match;
+		while (null != (match = processor.poll())) {
+			matches.add(match);
+		}
+		model.addAll(matches);
+		doUpdateStatus();
+		if (done) {
+			timer.stop();
+			lblStatus.setText(lblStatus.getText() + " 完了");
+		}
+	}
+
+	private void doUpdateStatus() {
+		StringBuilder s = new StringBuilder();
+		s.append(String.format("%s : %s  %,d 件 (%,d ファイル / %,d ファイル)", directory.getAbsolutePath(), pattern.pattern(),
+				model.getSize(), processor.getMatchFileCount(), fileCount));
+		if (0 < processor.getBinaryCount()) {
+			s.append(String.format("  バイナリ %,d ファイルを除く", processor.getBinaryCount()));
+		}
+		if (processor.isLimited()) {
+			s.append("  上限に達しました");
+		}
+		lblStatus.setText(s.toString());
+	}
+
+	private void doOpenFile() {
+		GrepMatch match = lstResult.getSelectedValue();
+		if (null == match) {
+			return;
+		}
+		ToolBoxFileOpen execute = ToolBox.getInstance().getFileSupport(match.getFile());
+		if (null != execute) {
+			execute.openFile(match.getFile());
+		}
+	}
+
+	private static class ResultListModel extends AbstractListModel<GrepMatch> {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = -7046250139372950128L;
+
+		private final List<GrepMatch> matches = new ArrayList<GrepMatch>();
+
+		public void addAll(final List<GrepMatch> aMatches) {
+			if (aMatches.isEmpty()) {
+				return;
+			}
+			int index = matches.size();
+			matches.addAll(aMatches);
+			fireIntervalAdded(this, index, matches.size() - 1);
+		}
+
+		@Override
+		public int getSize() {
+			return matches.size();
+		}
+
+		@Override
+		public GrepMatch getElementAt(final int aIndex) {
+			return matches.get(aIndex);
+		}
+	}
+}
@@ -0,0 +1,44 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.grep;
+
+import org.azkfw.business.task.Task;
+
+/**
+ * このインターフェースは、ファイル内検索パネルの要求を受け取るリスナーです。
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public interface GrepPanelListener {
+
+	/**
+	 * タスクの実行を要求された時に呼び出される。
+	 * 
+	 * @param aTask タスク
+	 */
+	public void grepPanelQueueTask(final Task aTask);
+
+	/**
+	 * タスクの中止を要求された時に呼び出される。
+	 * 
+	 * @param aTask タスク
+	 */
+	public void grepPanelCancelTask(final Task aTask);
+}
@@ -0,0 +1,307 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.grep;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.azkfw.toolbox.task.ToolBoxFileProcessor;
+
+/**
+ * このクラスは、ファイルの内容を正規表現で検索する処理クラスです。
+ * <p>
+ * ファイルは位置指定の読み込みで{@link #SEGMENT_SIZE}毎に読み込み、行の途中で分割しない様に区切ります。
+ * 検索中に切り詰められたファイルは、読めた所までを検索します。
+ * 先頭に<code>NUL</code>を含むファイルはバイナリとして読み飛ばします。
+ * 一致した行は{@link #poll()}で取り出せる様に直ちにキューへ追加します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class GrepProcessor implements ToolBoxFileProcessor {
+
+	/** 一度に読み込むサイズ */
+	public static final int SEGMENT_SIZE = 4 * 1024 * 1024;
+
+	/** バイナリか判定するサイズ */
+	private static final int BINARY_CHECK_SIZE = 8000;
+
+	/** 保持する行の最大長 */
+	private static final int MAX_TEXT_LENGTH = 512;
+
+	/** 一致する最大件数 */
+	public static final int MAX_RESULTS = 100000;
+
+	private final Pattern pattern;
+	private final Charset charset;
+
+	private final Queue<GrepMatch> queue;
+	private final AtomicInteger matchCount;
+	private final AtomicInteger matchFileCount;
+	private final AtomicInteger binaryCount;
+
+	private volatile boolean stopped;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aPattern パターン
+	 * @param aCharset 文字コード
+	 */
+	public GrepProcessor(final Pattern aPattern, final Charset aCharset) {
+		pattern = aPattern;
+		charset = aCharset;
+		queue = new ConcurrentLinkedQueue<GrepMatch>();
+		matchCount = new AtomicInteger();
+		matchFileCount = new AtomicInteger();
+		binaryCount = new AtomicInteger();
+	}
+
+	/**
+	 * 一致した行を取り出す。
+	 * 
+	 * @return 一致した行。ない場合、<code>null</code>
+	 */
+	public GrepMatch poll() {
+		return queue.poll();
+	}
+
+	/**
+	 * 一致した件数を取得する。
+	 * 
+	 * @return 件数
+	 */
+	public int getMatchCount() {
+		return Math.min(matchCount.get(), MAX_RESULTS);
+	}
+
+	/**
+	 * 一致したファイル数を取得する。
+	 * 
+	 * @return ファイル数
+	 */
+	public int getMatchFileCount() {
+		return matchFileCount.get();
+	}
+
+	/**
+	 * バイナリとして読み飛ばしたファイル数を取得する。
+	 * 
+	 * @return ファイル数
+	 */
+	public int getBinaryCount() {
+		return binaryCount.get();
+	}
+
+	/**
+	 * 以降のファイルを検索しない様にする。
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * 上限に達したか判断する。
+	 * 
+	 * @return 上限に達した場合、<code>true</code>
+	 */
+	public boolean isLimited() {
+		return MAX_RESULTS <= matchCount.get();
+	}
+
+	@Override
+	public void process(final File aFile) throws IOException {
+		if (stopped || isLimited()) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(aFile.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (0 == size) {
+				return;
+			}
+
+			CharsetDecoder decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			boolean matched = false;
+			int line = 1;
+			long position = 0;
+			// メモリマップは切り詰められたファイルを読むとSIGBUSとなる為、位置指定で読み込む
+			ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(SEGMENT_SIZE, size));
+			while (position < size && !isLimited()) {
+				if (stopped || Thread.currentThread().isInterrupted()) {
+					break;
+				}
+				int request = (int) Math.min(SEGMENT_SIZE, size - position);
+				int length = read(channel, position, buffer, request);
+				if (0 == length) {
+					break;
+				}
+				if (length < request) {
+					// 検索中に切り詰められた
+					size = position + length;
+				}
+				if (0 == position && isBinary(buffer)) {
+					binaryCount.incrementAndGet();
+					return;
+				}
+				// 行の途中で分割しない
+				int limit = length;
+				if (position + length < size) {
+					int last = lastIndexOf(buffer, (byte) '\n');
+					if (-1 != last) {
+						limit = last + 1;
+					}
+				}
+				buffer.limit(limit);
+
+				CharBuffer text;
+				try {
+					text = decoder.reset().decode(buffer);
+				} catch (CharacterCodingException ex) {
+					throw new IOException(ex);
+				}
+				int count = search(aFile, text, line);
+				if (0 < count) {
+					matched = true;
+				}
+				line += countLines(text);
+				position += limit;
+			}
+			if (matched) {
+				matchFileCount.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * セグメントを検索する。
+	 * 
+	 * @return 一致した行数
+	 */
+	private int search(final File aFile, final CharBuffer aText, final int aFirstLine) {
+		int count = 0;
+		int line = aFirstLine;
+		int position = 0;
+		Matcher matcher = pattern.matcher(aText);
+		while (matcher.find()) {
+			int start = matcher.start();
+			for (int i = position; i < start; i++) {
+				if ('\n' == aText.charAt(i)) {
+					line++;
+				}
+			}
+			int lineStart = start;
+			while (0 < lineStart && '\n' != aText.charAt(lineStart - 1)) {
+				lineStart--;
+			}
+			int lineEnd = start;
+			while (lineEnd < aText.length() && '\n' != aText.charAt(lineEnd)) {
+				lineEnd++;
+			}
+
+			if (MAX_RESULTS < matchCount.incrementAndGet()) {
+				break;
+			}
+			queue.add(new GrepMatch(aFile, line, toText(aText, lineStart, lineEnd)));
+			count++;
+
+			// 同じ行の残りは読み飛ばす
+			if (lineEnd >= aText.length()) {
+				break;
+			}
+			position = lineEnd;
+			matcher.region(lineEnd + 1, aText.length());
+		}
+		return count;
+	}
+
+	private static String toText(final CharBuffer aText, final int aStart, final int aEnd) {
+		int end = aEnd;
+		if (aStart < end && '\r' == aText.charAt(end - 1)) {
+			end--;
+		}
+		end = Math.min(end, aStart + MAX_TEXT_LENGTH);
+		return aText.subSequence(aStart, end).toString();
+	}
+
+	/**
+	 * 指定位置から読み込む。
+	 * 
+	 * @param aChannel チャネル
+	 * @param aPosition 位置
+	 * @param aBuffer バッファ
+	 * @param aLength バイト数
+	 * @return 読み込んだバイト数。ファイルの終端に達した場合は<code>aLength</code>より小さくなります。
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	private static int read(final FileChannel aChannel, final long aPosition, final ByteBuffer aBuffer, final int aLength)
+			throws IOException {
+		aBuffer.clear().limit(aLength);
+		while (aBuffer.hasRemaining()) {
+			if (0 > aChannel.read(aBuffer, aPosition + aBuffer.position())) {
+				break;
+			}
+		}
+		aBuffer.flip();
+		return aBuffer.limit();
+	}
+
+	private static boolean isBinary(final ByteBuffer aBuffer) {
+		int length = Math.min(aBuffer.limit(), BINARY_CHECK_SIZE);
+		for (int i = 0; i < length; i++) {
+			if (0 == aBuffer.get(i)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int lastIndexOf(final ByteBuffer aBuffer, final byte aByte) {
+		for (int i = aBuffer.limit() - 1; i >= 0; i--) {
+			if (aByte == aBuffer.get(i)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int countLines(final CharBuffer aText) {
+		int count = 0;
+		for (int i = 0; i < aText.length(); i++) {
+			if ('\n' == aText.charAt(i)) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
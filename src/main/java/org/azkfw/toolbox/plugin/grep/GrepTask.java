@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.grep;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.azkfw.toolbox.task.ToolBoxFileBatchTask;
+
+/**
+ * このクラスは、複数のファイルの内容を並列に検索するタスクです。
+ * <p>
+ * 一致した行は{@link GrepProcessor}から検索中に取り出せます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class GrepTask extends ToolBoxFileBatchTask {
+
+	private final GrepProcessor processor;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aName 名前
+	 * @param aFiles ファイル
+	 * @param aProcessor 処理
+	 */
+	public GrepTask(final String aName, final Collection<File> aFiles, final GrepProcessor aProcessor) {
+		super(aName, aFiles, aProcessor);
+		processor = aProcessor;
+	}
+
+	@Override
+	protected void doExecute() {
+		super.doExecute();
+
+		if (!isCancelled()) {
+			String message = String.format("完了 %d 件 (%d ファイル)", processor.getMatchCount(), processor.getMatchFileCount());
+			if (processor.isLimited()) {
+				message += " 上限に達しました";
+			}
+			fireProgress(100, message);
+		}
+		searched();
+	}
+
+	@Override
+	public void taskCancelled() {
+		searched();
+	}
+
+	/**
+	 * 検索が終了した時に呼び出される。
+	 * <p>
+	 * 中止された場合も呼び出されます。タスクのスレッドから呼び出されます。 開始前に中止された場合は、中止したスレッドから呼び出されます。
+	 * </p>
+	 */
+	protected void searched() {
+	}
+}
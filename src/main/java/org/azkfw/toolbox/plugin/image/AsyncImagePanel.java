@@ -0,0 +1,300 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.image;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+import org.azkfw.gui.component.ImagePanel;
+
+/**
+ * このクラスは、画像をバックグラウンドで読み込んで表示するパネルクラスです。
+ * <p>
+ * 生成直後はプレースホルダを表示し、{@link ImageDecodeExecutor}でデコードして差し替えます。
+ * 画像にサムネイルが埋め込まれている場合は、全体のデコードが終わるまでサムネイルを拡大したプレビューを表示します。
+ * 巨大な画像は{@link TiledImagePanel}で、複数ページの画像は{@link ImagePagePanel}で表示します。
+ * 読み込み中にパネルが閉じられた場合はデコードを中止し、再度表示された場合に改めて読み込みます。
+ * </p>
+ * <p>
+ * デコードした画像は{@link ImageCache}で共有し、同じ画像を再び開いた場合はデコードせずに表示します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class AsyncImagePanel extends JPanel {
+
+	/** serialVersionUID */
+	private static final long serialVersionUID = 5329519464106993574L;
+
+	/** タイル表示に切り替える画素数 */
+	public static final long TILED_PIXELS = 4096L * 4096L;
+
+	/** ファイル */
+	private File file;
+
+	/** キャッシュのキー */
+	private ImageCache.Key key;
+
+	/** デコード */
+	private Future<?> future;
+
+	/** デコード中のリーダー */
+	private volatile ImageReader reader;
+
+	/** 閉じられた場合、<code>true</code> */
+	private volatile boolean closed;
+
+	/** プレビュー以外を表示した場合、<code>true</code> */
+	private boolean loaded;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aFile ファイル
+	 */
+	public AsyncImagePanel(final File aFile) {
+		file = aFile;
+		key = ImageCache.getKey(aFile);
+
+		setLayout(new BorderLayout());
+
+		BufferedImage cached = ImageCache.getInstance().get(key);
+		if (null != cached) {
+			add(new ImagePanel(cached), BorderLayout.CENTER);
+			loaded = true;
+			return;
+		}
+
+		add(new JLabel("読み込み中...", SwingConstants.CENTER), BorderLayout.CENTER);
+		load();
+	}
+
+	/**
+	 * ファイルを取得する。
+	 * 
+	 * @return ファイル
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		if (closed) {
+			closed = false;
+			// 読み込みの途中で閉じられていた場合は読み込み直す
+			if (!loaded) {
+				load();
+			}
+		}
+	}
+
+	@Override
+	public void removeNotify() {
+		super.removeNotify();
+		cancel();
+	}
+
+	/**
+	 * 読み込みを中止する。
+	 */
+	public void cancel() {
+		closed = true;
+		ImageReader r = reader;
+		if (null != r) {
+			r.abort();
+		}
+		if (null != future) {
+			future.cancel(true);
+		}
+	}
+
+	private void load() {
+		future = ImageDecodeExecutor.get().submit(new Runnable() {
+			@Override
+			public void run() {
+				decode();
+			}
+		});
+	}
+
+	private void decode() {
+		try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+			if (null == in) {
+				throw new IOException("Could not open " + file.getPath());
+			}
+			ImageReader r = ImageDecoders.createReader(file, in);
+			if (null == r) {
+				throw new IOException("Unsupported image " + file.getPath());
+			}
+			reader = r;
+			try {
+				r.setInput(in, false, true);
+				int width = r.getWidth(0);
+				int height = r.getHeight(0);
+
+				if (TILED_PIXELS < (long) width * height) {
+					// 巨大な画像は表示領域のみをデコードする
+					showTiled();
+					return;
+				}
+				if (isMultiPage(r)) {
+					// 複数ページの画像は1ページずつデコードする
+					showPaged();
+					return;
+				}
+
+				// 間引いて読み込んでも全体のデコードとなる為、プレビューには埋め込みのサムネイルのみを使用する
+				if (r.readerSupportsThumbnails() && 0 < r.getNumThumbnails(0)) {
+					BufferedImage preview = r.readThumbnail(0, 0);
+					if (closed) {
+						return;
+					}
+					show(new PreviewPanel(preview, width, height));
+				}
+
+				BufferedImage image = r.read(0);
+				if (closed) {
+					return;
+				}
+				ImageCache.getInstance().put(key, image);
+				show(new ImagePanel(image));
+			} finally {
+				reader = null;
+				r.dispose();
+			}
+		} catch (IOException ex) {
+			if (!closed) {
+				ex.printStackTrace();
+				show(new JLabel("読み込みに失敗しました。", SwingConstants.CENTER));
+			}
+		}
+	}
+
+	private void showTiled() {
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				if (closed) {
+					return;
+				}
+				try {
+					setContent(new TiledImagePanel(file));
+				} catch (IOException ex) {
+					ex.printStackTrace();
+					setContent(new JLabel("読み込みに失敗しました。", SwingConstants.CENTER));
+				}
+			}
+		});
+	}
+
+	private static boolean isMultiPage(final ImageReader aReader) throws IOException {
+		int count = aReader.getNumImages(false);
+		if (-1 != count) {
+			return 1 < count;
+		}
+		try {
+			aReader.getWidth(1);
+			return true;
+		} catch (IndexOutOfBoundsException ex) {
+			return false;
+		}
+	}
+
+	private void showPaged() throws IOException {
+		final ImagePageReader pageReader = new ImagePageReader(file);
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				if (closed) {
+					try {
+						pageReader.close();
+					} catch (IOException ex) {
+						ex.printStackTrace();
+					}
+					return;
+				}
+				setContent(new ImagePagePanel(pageReader));
+			}
+		});
+	}
+
+	private void show(final Component aComponent) {
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				if (!closed) {
+					setContent(aComponent);
+				}
+			}
+		});
+	}
+
+	private void setContent(final Component aComponent) {
+		loaded = !(aComponent instanceof PreviewPanel);
+		removeAll();
+		add(aComponent, BorderLayout.CENTER);
+		revalidate();
+		repaint();
+	}
+
+	/**
+	 * 間引いたプレビューを本来の大きさに拡大して表示するパネル
+	 */
+	private static class PreviewPanel extends JPanel {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = 7519716244553432780L;
+
+		private Image image;
+
+		private PreviewPanel(final Image aImage, final int aWidth, final int aHeight) {
+			image = aImage;
+			setPreferredSize(new Dimension(aWidth, aHeight));
+		}
+
+		@Override
+		protected void paintComponent(final Graphics g) {
+			super.paintComponent(g);
+			Dimension size = getPreferredSize();
+			Graphics2D g2 = (Graphics2D) g;
+			g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g2.drawImage(image, 0, 0, size.width, size.height, null);
+		}
+	}
+}
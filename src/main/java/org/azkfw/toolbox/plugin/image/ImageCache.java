@@ -0,0 +1,241 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.image;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * このクラスは、デコード済みの画像をプロセス全体で共有するキャッシュクラスです。
+ * <p>
+ * 画像はパス・更新日時・サイズをキーに保持する為、ファイルが更新されると別の画像として扱われます。
+ * 保持するラスタの合計バイト数が上限を超えると、最も長く参照されていない画像から破棄します。
+ * 上限を超える大きさの画像は保持しません。
+ * </p>
+ * <p>
+ * 画像を表示するプラグインは{@link #getInstance()}で取得したキャッシュを共有してください。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class ImageCache {
+
+	/** インスタンス */
+	private static final ImageCache INSTANCE = new ImageCache(getDefaultMaxBytes());
+
+	/** 画像 */
+	private ImageTileCache<Key> images;
+
+	/** 上限バイト数 */
+	private long maxBytes;
+
+	/** ヒット数 */
+	private AtomicLong hitCount;
+
+	/** ミス数 */
+	private AtomicLong missCount;
+
+	private ImageCache(final long aMaxBytes) {
+		images = new ImageTileCache<Key>(aMaxBytes);
+		maxBytes = aMaxBytes;
+		hitCount = new AtomicLong();
+		missCount = new AtomicLong();
+	}
+
+	/**
+	 * インスタンスを取得する。
+	 * 
+	 * @return インスタンス
+	 */
+	public static ImageCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * デフォルトの上限バイト数を取得する。
+	 * <p>
+	 * 最大ヒープの1/4と256MBの小さい方です。
+	 * </p>
+	 * 
+	 * @return 上限バイト数
+	 */
+	private static long getDefaultMaxBytes() {
+		return Math.min(256L * 1024L * 1024L, Runtime.getRuntime().maxMemory() / 4);
+	}
+
+	/**
+	 * ファイルのキーを取得する。
+	 * <p>
+	 * デコード中にファイルが更新された場合に備え、キーはデコードを始める前に取得してください。
+	 * </p>
+	 * 
+	 * @param aFile ファイル
+	 * @return キー
+	 */
+	public static Key getKey(final File aFile) {
+		File file = aFile.getAbsoluteFile();
+		return new Key(file.toPath().normalize().toString(), file.lastModified(), file.length());
+	}
+
+	/**
+	 * 画像を取得する。
+	 * 
+	 * @param aFile ファイル
+	 * @return 画像。存在しない場合、<code>null</code>
+	 */
+	public BufferedImage get(final File aFile) {
+		return get(getKey(aFile));
+	}
+
+	/**
+	 * 画像を取得する。
+	 * 
+	 * @param aKey キー
+	 * @return 画像。存在しない場合、<code>null</code>
+	 */
+	public BufferedImage get(final Key aKey) {
+		BufferedImage image = images.get(aKey);
+		if (null == image) {
+			missCount.incrementAndGet();
+		} else {
+			hitCount.incrementAndGet();
+		}
+		return image;
+	}
+
+	/**
+	 * 画像を追加する。
+	 * 
+	 * @param aKey キー
+	 * @param aImage 画像
+	 * @return 保持した場合、<code>true</code>
+	 */
+	public boolean put(final Key aKey, final BufferedImage aImage) {
+		if (maxBytes < ImageTileCache.getBytes(aImage)) {
+			return false;
+		}
+		images.put(aKey, aImage);
+		return true;
+	}
+
+	/**
+	 * 全ての画像を破棄する。
+	 */
+	public void clear() {
+		images.clear();
+	}
+
+	/**
+	 * 上限バイト数を取得する。
+	 * 
+	 * @return 上限バイト数
+	 */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * 保持しているバイト数を取得する。
+	 * 
+	 * @return バイト数
+	 */
+	public long getBytes() {
+		return images.getBytes();
+	}
+
+	/**
+	 * ヒット数を取得する。
+	 * 
+	 * @return ヒット数
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * ミス数を取得する。
+	 * 
+	 * @return ミス数
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * ヒット率を取得する。
+	 * 
+	 * @return ヒット率(0.0～1.0)
+	 */
+	public double getHitRate() {
+		long hit = hitCount.get();
+		long total = hit + missCount.get();
+		return (0 == total) ? 0.0 : (double) hit / total;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ImageCache[hit=%d, miss=%d, bytes=%d/%d]", getHitCount(), getMissCount(), getBytes(), maxBytes);
+	}
+
+	/**
+	 * このクラスは、キャッシュのキーです。
+	 * 
+	 * @since 1.0.0
+	 * @version 1.0.0 2026/10/17
+	 * @author Kawakicchi
+	 */
+	public static final class Key {
+
+		private final String path;
+
+		private final long lastModified;
+
+		private final long length;
+
+		private Key(final String aPath, final long aLastModified, final long aLength) {
+			path = aPath;
+			lastModified = aLastModified;
+			length = aLength;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key k = (Key) o;
+			return lastModified == k.lastModified && length == k.length && path.equals(k.path);
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = path.hashCode();
+			hash = hash * 31 + (int) (lastModified ^ (lastModified >>> 32));
+			hash = hash * 31 + (int) (length ^ (length >>> 32));
+			return hash;
+		}
+
+		@Override
+		public String toString() {
+			return path;
+		}
+	}
+}
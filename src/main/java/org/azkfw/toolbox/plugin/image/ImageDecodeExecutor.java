@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.image;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * このクラスは、画像のデコードを行うスレッドプールを提供するクラスです。
+ * <p>
+ * デコードはEDTをブロックしないよう、全てこのプールで行います。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class ImageDecodeExecutor {
+
+	/** 全ビューアで共有するプール */
+	private static ExecutorService executor;
+
+	private ImageDecodeExecutor() {
+	}
+
+	/**
+	 * プールを取得する。
+	 * 
+	 * @return プール
+	 */
+	public static synchronized ExecutorService get() {
+		if (null == executor) {
+			int size = Math.max(2, Runtime.getRuntime().availableProcessors());
+			executor = Executors.newFixedThreadPool(size, new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				@Override
+				public Thread newThread(final Runnable aRunnable) {
+					Thread thread = new Thread(aRunnable, "image-decode-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					thread.setPriority(Thread.NORM_PRIORITY - 1);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+}
@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.image;
+
+import javax.imageio.ImageReader;
+
+/**
+ * このインターフェースは、画像のデコーダーを定義します。
+ * <p>
+ * 実装クラスは<code>META-INF/services/org.azkfw.toolbox.plugin.image.ImageDecoder</code>に記述するか、
+ * {@link ImageDecoders#register(ImageDecoder)}で登録します。 拡張子に対応するデコーダーのうち、優先度の最も高いものが使用されます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public interface ImageDecoder {
+
+	/**
+	 * 優先度を取得する。
+	 * <p>
+	 * 高速なデコーダーほど大きな値を返してください。標準のデコーダーは<code>0</code>です。
+	 * </p>
+	 * 
+	 * @return 優先度
+	 */
+	public int getPriority();
+
+	/**
+	 * 拡張子に対応しているか判断する。
+	 * 
+	 * @param aSuffix 拡張子(小文字、ドットなし)
+	 * @return 対応している場合、<code>true</code>
+	 */
+	public boolean isSupport(final String aSuffix);
+
+	/**
+	 * リーダーを生成する。
+	 * 
+	 * @param aSuffix 拡張子(小文字、ドットなし)
+	 * @return リーダー。生成できない場合、<code>null</code>
+	 */
+	public ImageReader createReader(final String aSuffix);
+}
@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.image;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.spi.ImageReaderSpi;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * このクラスは、ファイルに対応する{@link ImageDecoder}を選択するクラスです。
+ * <p>
+ * デコーダーは<code>META-INF/services</code>から読み込んだものと{@link #register(ImageDecoder)}で登録したものを優先度順に使用し、
+ * 最後に{@link ImageIODecoder}を使用します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class ImageDecoders {
+
+	/** デコーダー(優先度順) */
+	private static List<ImageDecoder> decoders;
+
+	private ImageDecoders() {
+	}
+
+	/**
+	 * デコーダーを登録する。
+	 * <p>
+	 * プラグインのJARファイルに含まれるデコーダーはこのメソッドで登録してください。
+	 * </p>
+	 * 
+	 * @param aDecoder デコーダー
+	 */
+	public static synchronized void register(final ImageDecoder aDecoder) {
+		List<ImageDecoder> list = new ArrayList<ImageDecoder>(getDecoders());
+		list.add(aDecoder);
+		sort(list);
+		decoders = list;
+	}
+
+	/**
+	 * デコーダーを取得する。
+	 * 
+	 * @return デコーダー(優先度順)
+	 */
+	public static synchronized List<ImageDecoder> getDecoders() {
+		if (null == decoders) {
+			List<ImageDecoder> list = new ArrayList<ImageDecoder>();
+			for (ImageDecoder decoder : ServiceLoader.load(ImageDecoder.class, ImageDecoders.class.getClassLoader())) {
+				list.add(decoder);
+			}
+			list.add(new ImageIODecoder());
+			sort(list);
+			decoders = list;
+		}
+		return decoders;
+	}
+
+	private static void sort(final List<ImageDecoder> aDecoders) {
+		// 同じ優先度では登録順を維持する
+		Collections.sort(aDecoders, new Comparator<ImageDecoder>() {
+			@Override
+			public int compare(final ImageDecoder o1, final ImageDecoder o2) {
+				return Integer.compare(o2.getPriority(), o1.getPriority());
+			}
+		});
+	}
+
+	/**
+	 * ファイルを読み込めるデコーダーがあるか判断する。
+	 * 
+	 * @param aFile ファイル
+	 * @return 読み込める場合、<code>true</code>
+	 */
+	public static boolean isSupport(final File aFile) {
+		String suffix = getSuffix(aFile);
+		if (null == suffix) {
+			return false;
+		}
+		for (ImageDecoder decoder : getDecoders()) {
+			if (decoder.isSupport(suffix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * ファイルを読み込むリーダーを生成する。
+	 * <p>
+	 * 拡張子から選択したリーダーが内容を読み込めない場合は、内容から判断したリーダーを返します。 入力はまだ設定されていません。
+	 * </p>
+	 * 
+	 * @param aFile ファイル
+	 * @param aStream ファイルのストリーム
+	 * @return リーダー。読み込めない場合、<code>null</code>
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public static ImageReader createReader(final File aFile, final ImageInputStream aStream) throws IOException {
+		String suffix = getSuffix(aFile);
+		if (null != suffix) {
+			for (ImageDecoder decoder : getDecoders()) {
+				if (!decoder.isSupport(suffix)) {
+					continue;
+				}
+				ImageReader reader = decoder.createReader(suffix);
+				if (null == reader) {
+					continue;
+				}
+				ImageReaderSpi spi = reader.getOriginatingProvider();
+				if (null == spi || spi.canDecodeInput(aStream)) {
+					return reader;
+				}
+				reader.dispose();
+			}
+		}
+
+		// 拡張子と内容が一致しない場合
+		Iterator<ImageReader> readers = ImageIO.getImageReaders(aStream);
+		return readers.hasNext() ? readers.next() : null;
+	}
+
+	private static String getSuffix(final File aFile) {
+		String name = aFile.getName();
+		int index = name.lastIndexOf('.');
+		if (-1 == index) {
+			return null;
+		}
+		return name.substring(index + 1).toLowerCase(Locale.ENGLISH);
+	}
+}
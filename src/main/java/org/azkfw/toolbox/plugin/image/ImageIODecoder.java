@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.image;
+
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+
+/**
+ * このクラスは、{@link ImageIO}に登録されているリーダーを使用するデコーダークラスです。
+ * <p>
+ * 同じ形式に複数のリーダーがある場合、{@link javax.imageio.spi.IIORegistry}の順序で最初のリーダーを使用します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ImageIODecoder implements ImageDecoder {
+
+	@Override
+	public int getPriority() {
+		return 0;
+	}
+
+	@Override
+	public boolean isSupport(final String aSuffix) {
+		return ImageIO.getImageReadersBySuffix(aSuffix).hasNext();
+	}
+
+	@Override
+	public ImageReader createReader(final String aSuffix) {
+		Iterator<ImageReader> readers = ImageIO.getImageReadersBySuffix(aSuffix);
+		return readers.hasNext() ? readers.next() : null;
+	}
+}
@@ -0,0 +1,267 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.image;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import org.azkfw.gui.component.ImagePanel;
+
+/**
+ * このクラスは、複数ページの画像を1ページずつ表示するパネルクラスです。
+ * <p>
+ * ページは{@link ImagePageReader}で必要になった時に{@link ImageDecodeExecutor}でデコードし、表示中のページのみを保持します。
+ * アニメーションGIFはフレームの表示時間に従って再生します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ImagePagePanel extends JPanel {
+
+	/** serialVersionUID */
+	private static final long serialVersionUID = -1800226516432390466L;
+
+	/** 表示時間が指定されていないフレームの表示時間(ミリ秒) */
+	private static final int DEFAULT_DELAY = 100;
+
+	/** リーダー */
+	private ImagePageReader reader;
+
+	/** アニメーションの場合、<code>true</code> */
+	private boolean animation;
+
+	/** 表示中のページ */
+	private int page;
+
+	/** デコード中の場合、<code>true</code> */
+	private boolean loading;
+
+	/** 閉じられた場合、<code>true</code> */
+	private volatile boolean closed;
+
+	private JPanel pnlContent;
+
+	private JLabel lblPage;
+
+	private JButton btnPrevious;
+
+	private JButton btnNext;
+
+	private Timer timer;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aFile ファイル
+	 * @throws IOException 読み込めない画像の場合
+	 */
+	public ImagePagePanel(final File aFile) throws IOException {
+		this(new ImagePageReader(aFile));
+	}
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * リーダーはこのパネルが閉じられた時に閉じます。
+	 * </p>
+	 * 
+	 * @param aReader リーダー
+	 */
+	public ImagePagePanel(final ImagePageReader aReader) {
+		reader = aReader;
+		try {
+			animation = reader.isAnimation();
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		}
+		page = -1;
+
+		btnPrevious = new JButton("前へ");
+		btnPrevious.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(final ActionEvent e) {
+				showPage(page - 1);
+			}
+		});
+		btnNext = new JButton("次へ");
+		btnNext.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(final ActionEvent e) {
+				showPage(page + 1);
+			}
+		});
+		lblPage = new JLabel();
+
+		JPanel pnlTool = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		pnlTool.add(btnPrevious);
+		pnlTool.add(btnNext);
+		pnlTool.add(lblPage);
+
+		pnlContent = new JPanel(new BorderLayout());
+		pnlContent.add(new JLabel("読み込み中...", SwingConstants.CENTER), BorderLayout.CENTER);
+
+		setLayout(new BorderLayout());
+		if (!animation) {
+			add(pnlTool, BorderLayout.NORTH);
+		}
+		add(pnlContent, BorderLayout.CENTER);
+
+		timer = new Timer(DEFAULT_DELAY, new ActionListener() {
+			@Override
+			public void actionPerformed(final ActionEvent e) {
+				showPage(page + 1);
+			}
+		});
+		timer.setRepeats(false);
+
+		showPage(0);
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		if (!closed) {
+			return;
+		}
+		// 再度表示された場合は、リーダーを開き直して表示中のページから読み込む
+		try {
+			reader = new ImagePageReader(reader.getFile());
+		} catch (IOException ex) {
+			ex.printStackTrace();
+			pnlContent.removeAll();
+			pnlContent.add(new JLabel("読み込みに失敗しました。", SwingConstants.CENTER), BorderLayout.CENTER);
+			pnlContent.revalidate();
+			return;
+		}
+		closed = false;
+		loading = false;
+		showPage(Math.max(0, page));
+	}
+
+	@Override
+	public void removeNotify() {
+		super.removeNotify();
+		closed = true;
+		timer.stop();
+		final ImagePageReader r = reader;
+		r.abort();
+		ImageDecodeExecutor.get().execute(new Runnable() {
+			@Override
+			public void run() {
+				synchronized (r) {
+					try {
+						r.close();
+					} catch (IOException ex) {
+						ex.printStackTrace();
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * ページを表示する。
+	 * <p>
+	 * アニメーションは最後のフレームの次に先頭へ戻ります。
+	 * </p>
+	 * 
+	 * @param aPage ページ
+	 */
+	private void showPage(final int aPage) {
+		if (loading || closed || 0 > aPage) {
+			return;
+		}
+		loading = true;
+		btnPrevious.setEnabled(false);
+		btnNext.setEnabled(false);
+		final ImagePageReader r = reader;
+		ImageDecodeExecutor.get().execute(new Runnable() {
+			@Override
+			public void run() {
+				BufferedImage image = null;
+				int index = aPage;
+				int delay = 0;
+				boolean hasNext = false;
+				try {
+					synchronized (r) {
+						if (closed) {
+							return;
+						}
+						if (!r.hasPage(index)) {
+							index = animation ? 0 : page;
+						}
+						image = r.read(index);
+						delay = r.getDelay(index);
+						hasNext = r.hasPage(index + 1);
+					}
+				} catch (IOException ex) {
+					if (!closed) {
+						ex.printStackTrace();
+					}
+				}
+				publish(r, index, image, delay, hasNext);
+			}
+		});
+	}
+
+	private void publish(final ImagePageReader aReader, final int aPage, final BufferedImage aImage, final int aDelay,
+			final boolean aHasNext) {
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				// 閉じる前のリーダーの結果は破棄する
+				if (aReader != reader) {
+					return;
+				}
+				loading = false;
+				if (closed) {
+					return;
+				}
+				if (null != aImage) {
+					page = aPage;
+					pnlContent.removeAll();
+					pnlContent.add(new ImagePanel(aImage), BorderLayout.CENTER);
+					pnlContent.revalidate();
+					pnlContent.repaint();
+				}
+				btnPrevious.setEnabled(0 < page);
+				btnNext.setEnabled(aHasNext);
+				lblPage.setText(String.format("%d ページ", page + 1));
+
+				if (animation) {
+					timer.setInitialDelay((0 < aDelay) ? aDelay : DEFAULT_DELAY);
+					timer.restart();
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,319 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.image;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * このクラスは、複数ページの画像を1ページずつ読み込むクラスです。
+ * <p>
+ * マルチページTIFFは要求されたページのみをデコードします。 アニメーションGIFは差分のフレームを1枚のキャンバスに順に合成する為、
+ * 全てのフレームをメモリに保持することはありません。
+ * </p>
+ * <p>
+ * このクラスはスレッドセーフではありません。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ImagePageReader implements Closeable {
+
+	private static final String GIF_IMAGE_METADATA = "javax_imageio_gif_image_1.0";
+
+	private static final String GIF_STREAM_METADATA = "javax_imageio_gif_stream_1.0";
+
+	/** ファイル */
+	private File file;
+
+	private ImageInputStream stream;
+
+	private ImageReader reader;
+
+	/** GIFの場合、<code>true</code> */
+	private boolean gif;
+
+	/** 合成中のキャンバス */
+	private BufferedImage canvas;
+
+	/** キャンバスに合成済みのフレーム */
+	private int canvasIndex;
+
+	/** 直前のフレームの破棄方法 */
+	private String lastDisposal;
+
+	/** 直前のフレームの領域 */
+	private Rectangle lastRegion;
+
+	/** 直前のフレームを合成する前のキャンバス */
+	private BufferedImage previous;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aFile ファイル
+	 * @throws IOException 読み込めない画像の場合
+	 */
+	public ImagePageReader(final File aFile) throws IOException {
+		file = aFile;
+		stream = ImageIO.createImageInputStream(aFile);
+		if (null == stream) {
+			throw new IOException("Could not open " + aFile.getPath());
+		}
+		reader = ImageDecoders.createReader(aFile, stream);
+		if (null == reader) {
+			stream.close();
+			throw new IOException("Unsupported image " + aFile.getPath());
+		}
+		// GIFの合成にはメタデータが必要
+		reader.setInput(stream, false, false);
+		gif = "gif".equalsIgnoreCase(reader.getFormatName());
+		canvasIndex = -1;
+	}
+
+	/**
+	 * ファイルを取得する。
+	 * 
+	 * @return ファイル
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * 複数ページの画像か判断する。
+	 * 
+	 * @return 複数ページの場合、<code>true</code>
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public boolean isMultiPage() throws IOException {
+		return hasPage(1);
+	}
+
+	/**
+	 * アニメーションか判断する。
+	 * 
+	 * @return アニメーションの場合、<code>true</code>
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public boolean isAnimation() throws IOException {
+		return gif && isMultiPage();
+	}
+
+	/**
+	 * ページが存在するか判断する。
+	 * <p>
+	 * ファイル全体を走査せずに判断します。
+	 * </p>
+	 * 
+	 * @param aIndex ページ
+	 * @return 存在する場合、<code>true</code>
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public boolean hasPage(final int aIndex) throws IOException {
+		if (0 > aIndex) {
+			return false;
+		}
+		int count = reader.getNumImages(false);
+		if (-1 != count) {
+			return aIndex < count;
+		}
+		try {
+			reader.getWidth(aIndex);
+			return true;
+		} catch (IndexOutOfBoundsException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * ページ数を取得する。
+	 * 
+	 * @return ページ数。ファイル全体を走査しないと分からない場合、<code>-1</code>
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public int getPageCount() throws IOException {
+		return reader.getNumImages(false);
+	}
+
+	/**
+	 * フレームの表示時間を取得する。
+	 * 
+	 * @param aIndex フレーム
+	 * @return 表示時間(ミリ秒)。アニメーションでない場合、<code>0</code>
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public int getDelay(final int aIndex) throws IOException {
+		if (!gif) {
+			return 0;
+		}
+		Node gce = getChild(getImageMetadata(aIndex), "GraphicControlExtension");
+		if (null == gce) {
+			return 0;
+		}
+		return getInt(gce, "delayTime", 0) * 10;
+	}
+
+	/**
+	 * ページを読み込む。
+	 * 
+	 * @param aIndex ページ
+	 * @return 画像
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public BufferedImage read(final int aIndex) throws IOException {
+		if (!gif) {
+			return reader.read(aIndex);
+		}
+
+		if (aIndex <= canvasIndex) {
+			// 巻き戻す場合は先頭から合成し直す
+			canvas = null;
+			canvasIndex = -1;
+			lastDisposal = null;
+			previous = null;
+		}
+		while (canvasIndex < aIndex) {
+			composeNext();
+		}
+		return copy(canvas);
+	}
+
+	/**
+	 * 読み込みを中断する。
+	 * <p>
+	 * 他のスレッドから呼び出すことができます。
+	 * </p>
+	 */
+	public void abort() {
+		reader.abort();
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.dispose();
+		stream.close();
+		canvas = null;
+		previous = null;
+	}
+
+	private void composeNext() throws IOException {
+		int index = canvasIndex + 1;
+		BufferedImage frame = reader.read(index);
+		Node root = getImageMetadata(index);
+
+		if (null == canvas) {
+			Node screen = getChild(getStreamMetadata(), "LogicalScreenDescriptor");
+			int width = Math.max(frame.getWidth(), getInt(screen, "logicalScreenWidth", 0));
+			int height = Math.max(frame.getHeight(), getInt(screen, "logicalScreenHeight", 0));
+			canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+
+		Graphics2D g = canvas.createGraphics();
+		try {
+			// 直前のフレームを破棄する
+			if ("restoreToBackgroundColor".equals(lastDisposal)) {
+				g.setComposite(AlphaComposite.Clear);
+				g.fillRect(lastRegion.x, lastRegion.y, lastRegion.width, lastRegion.height);
+				g.setComposite(AlphaComposite.SrcOver);
+			} else if ("restoreToPrevious".equals(lastDisposal) && null != previous) {
+				canvas.setData(previous.getRaster());
+			}
+
+			Node descriptor = getChild(root, "ImageDescriptor");
+			int x = getInt(descriptor, "imageLeftPosition", 0);
+			int y = getInt(descriptor, "imageTopPosition", 0);
+
+			Node gce = getChild(root, "GraphicControlExtension");
+			String disposal = (null == gce) ? null : getString(gce, "disposalMethod");
+			previous = "restoreToPrevious".equals(disposal) ? copy(canvas) : null;
+
+			g.drawImage(frame, x, y, null);
+
+			lastDisposal = disposal;
+			lastRegion = new Rectangle(x, y, frame.getWidth(), frame.getHeight());
+		} finally {
+			g.dispose();
+		}
+		canvasIndex = index;
+	}
+
+	private Node getImageMetadata(final int aIndex) throws IOException {
+		IIOMetadata metadata = reader.getImageMetadata(aIndex);
+		return (null == metadata) ? null : metadata.getAsTree(GIF_IMAGE_METADATA);
+	}
+
+	private Node getStreamMetadata() throws IOException {
+		IIOMetadata metadata = reader.getStreamMetadata();
+		return (null == metadata) ? null : metadata.getAsTree(GIF_STREAM_METADATA);
+	}
+
+	private static BufferedImage copy(final BufferedImage aImage) {
+		BufferedImage image = new BufferedImage(aImage.getWidth(), aImage.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		image.setData(aImage.getRaster());
+		return image;
+	}
+
+	private static Node getChild(final Node aNode, final String aName) {
+		if (null == aNode) {
+			return null;
+		}
+		for (Node child = aNode.getFirstChild(); null != child; child = child.getNextSibling()) {
+			if (aName.equals(child.getNodeName())) {
+				return child;
+			}
+		}
+		return null;
+	}
+
+	private static String getString(final Node aNode, final String aName) {
+		if (null == aNode) {
+			return null;
+		}
+		NamedNodeMap attributes = aNode.getAttributes();
+		Node attribute = (null == attributes) ? null : attributes.getNamedItem(aName);
+		return (null == attribute) ? null : attribute.getNodeValue();
+	}
+
+	private static int getInt(final Node aNode, final String aName, final int aDefault) {
+		String value = getString(aNode, aName);
+		if (null == value) {
+			return aDefault;
+		}
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException ex) {
+			return aDefault;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * このクラスは、デコード済みのタイルを保持するキャッシュクラスです。
+ * <p>
+ * 保持するラスタの合計バイト数が上限を超えると、最も長く参照されていないタイルから破棄します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ * @param <K> キー
+ */
+public class ImageTileCache<K> {
+
+	/** タイル(参照順) */
+	private LinkedHashMap<K, BufferedImage> tiles;
+
+	/** 上限バイト数 */
+	private long maxBytes;
+
+	/** 保持しているバイト数 */
+	private long bytes;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aMaxBytes 上限バイト数
+	 */
+	public ImageTileCache(final long aMaxBytes) {
+		tiles = new LinkedHashMap<K, BufferedImage>(16, 0.75f, true);
+		maxBytes = aMaxBytes;
+		bytes = 0;
+	}
+
+	/**
+	 * タイルを取得する。
+	 * 
+	 * @param aKey キー
+	 * @return タイル。存在しない場合、<code>null</code>
+	 */
+	public synchronized BufferedImage get(final K aKey) {
+		return tiles.get(aKey);
+	}
+
+	/**
+	 * タイルを追加する。
+	 * 
+	 * @param aKey キー
+	 * @param aTile タイル
+	 */
+	public synchronized void put(final K aKey, final BufferedImage aTile) {
+		BufferedImage old = tiles.put(aKey, aTile);
+		if (null != old) {
+			bytes -= getBytes(old);
+		}
+		bytes += getBytes(aTile);
+
+		Iterator<Map.Entry<K, BufferedImage>> it = tiles.entrySet().iterator();
+		while (maxBytes < bytes && it.hasNext()) {
+			Map.Entry<K, BufferedImage> entry = it.next();
+			if (entry.getKey().equals(aKey)) {
+				// 追加したタイルは上限を超えても残す
+				continue;
+			}
+			bytes -= getBytes(entry.getValue());
+			it.remove();
+		}
+	}
+
+	/**
+	 * 全てのタイルを破棄する。
+	 */
+	public synchronized void clear() {
+		tiles.clear();
+		bytes = 0;
+	}
+
+	/**
+	 * 保持しているバイト数を取得する。
+	 * 
+	 * @return バイト数
+	 */
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * 画像のラスタのバイト数を取得する。
+	 * 
+	 * @param aImage 画像
+	 * @return バイト数
+	 */
+	public static long getBytes(final BufferedImage aImage) {
+		DataBuffer buffer = aImage.getRaster().getDataBuffer();
+		return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+	}
+}
@@ -0,0 +1,370 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.image;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+import org.azkfw.toolbox.support.ToolBoxFileOpenSupport;
+
+/**
+ * このクラスは、ディレクトリの画像をサムネイルの一覧で表示するパネルクラスです。
+ * <p>
+ * サムネイルは表示されているセルのみを{@link ImageDecodeExecutor}で並列に作成します。
+ * 作成には間引き読み込みを使用し、作成したサムネイルは{@link ThumbnailStore}に保存する為、同じディレクトリを再び開いた場合はデコードせずに表示します。
+ * ディレクトリの一覧とストアを開く処理も{@link ImageDecodeExecutor}で行い、表示を待たせることはありません。
+ * </p>
+ * <p>
+ * サムネイルをダブルクリックすると、画像を開きます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ThumbnailGridPanel extends JPanel {
+
+	/** serialVersionUID */
+	private static final long serialVersionUID = -6147183201384407553L;
+
+	/** サムネイルの長辺(ピクセル) */
+	public static final int THUMBNAIL_SIZE = 128;
+
+	/** メモリに保持するサムネイルの上限バイト数 */
+	private static final long CACHE_BYTES = 32L * 1024L * 1024L;
+
+	/** ディレクトリ */
+	private File directory;
+
+	/** 表示するファイル */
+	private FileFilter filter;
+
+	/** ファイル */
+	private volatile File[] files;
+
+	/** 画像を開く */
+	private ToolBoxFileOpenSupport opener;
+
+	/** サムネイルのストア */
+	private ThumbnailStore store;
+
+	/** 表示に使用するサムネイル */
+	private ImageTileCache<File> thumbnails;
+
+	/** 作成待ちのサムネイル */
+	private Set<File> pending;
+
+	/** 表示中の最初のセル */
+	private volatile int firstVisible;
+
+	/** 表示中の最後のセル */
+	private volatile int lastVisible;
+
+	/** 閉じられた場合、<code>true</code> */
+	private volatile boolean closed;
+
+	private JList<File> list;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aDirectory ディレクトリ
+	 * @param aFilter 表示するファイル
+	 * @param aOpener 画像を開く
+	 */
+	public ThumbnailGridPanel(final File aDirectory, final FileFilter aFilter, final ToolBoxFileOpenSupport aOpener) {
+		directory = aDirectory;
+		filter = aFilter;
+		opener = aOpener;
+		thumbnails = new ImageTileCache<File>(CACHE_BYTES);
+		pending = Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+		lastVisible = -1;
+
+		files = new File[0];
+
+		list = new JList<File>(files);
+		list.setLayoutOrientation(JList.HORIZONTAL_WRAP);
+		list.setVisibleRowCount(-1);
+		list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		list.setFixedCellWidth(THUMBNAIL_SIZE + 16);
+		list.setFixedCellHeight(THUMBNAIL_SIZE + 32);
+		list.setCellRenderer(new ThumbnailCellRenderer());
+		list.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(final MouseEvent e) {
+				if (2 == e.getClickCount() && null != opener) {
+					int index = list.locationToIndex(e.getPoint());
+					if (-1 != index) {
+						opener.openFile(files[index]);
+					}
+				}
+			}
+		});
+
+		JScrollPane scroll = new JScrollPane(list);
+		scroll.setBorder(null);
+		scroll.getVerticalScrollBar().setUnitIncrement(THUMBNAIL_SIZE / 4);
+
+		setLayout(new BorderLayout());
+		add(scroll, BorderLayout.CENTER);
+
+		load();
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		if (closed) {
+			closed = false;
+			// 閉じた時にストアを解放している為、開き直す
+			load();
+		}
+	}
+
+	@Override
+	public void removeNotify() {
+		super.removeNotify();
+		if (!closed) {
+			closed = true;
+			if (null != store) {
+				store.close();
+				store = null;
+			}
+		}
+	}
+
+	/**
+	 * ディレクトリの一覧とストアをバックグラウンドで読み込む。
+	 */
+	private void load() {
+		ImageDecodeExecutor.get().execute(new Runnable() {
+			@Override
+			public void run() {
+				File[] f = directory.listFiles(filter);
+				if (null == f) {
+					f = new File[0];
+				}
+				Arrays.sort(f);
+				ThumbnailStore s = null;
+				try {
+					s = ThumbnailStore.open(directory);
+				} catch (IOException ex) {
+					ex.printStackTrace();
+				}
+				publish(f, s);
+			}
+		});
+	}
+
+	private void publish(final File[] aFiles, final ThumbnailStore aStore) {
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				if (closed) {
+					if (null != aStore) {
+						aStore.close();
+					}
+					return;
+				}
+				if (null != store) {
+					store.close();
+				}
+				store = aStore;
+				files = aFiles;
+				list.setListData(aFiles);
+			}
+		});
+	}
+
+	/**
+	 * サムネイルを取得する。
+	 * <p>
+	 * メモリにない場合はストアからの読み込みまたは作成を依頼し、<code>null</code>を返します。 描画中に呼ばれる為、ディスクは読みません。
+	 * </p>
+	 * 
+	 * @param aIndex セル
+	 * @return サムネイル
+	 */
+	private BufferedImage getThumbnail(final int aIndex) {
+		File file = files[aIndex];
+		BufferedImage thumbnail = thumbnails.get(file);
+		if (null == thumbnail) {
+			requestThumbnail(aIndex);
+		}
+		return thumbnail;
+	}
+
+	private void requestThumbnail(final int aIndex) {
+		final File file = files[aIndex];
+		if (!pending.add(file)) {
+			return;
+		}
+		final ThumbnailStore s = store;
+		ImageDecodeExecutor.get().execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					// スクロールで見えなくなったセルは作成しない
+					if (closed || aIndex < firstVisible || aIndex > lastVisible) {
+						return;
+					}
+					// ストアの読み込みもディスクを読む為、描画スレッドでは行わない
+					BufferedImage thumbnail = (null != s) ? s.get(file) : null;
+					if (null == thumbnail) {
+						thumbnail = createThumbnail(file, THUMBNAIL_SIZE);
+						if (null == thumbnail) {
+							return;
+						}
+						if (null != s && !closed) {
+							s.put(file, thumbnail);
+						}
+					}
+					thumbnails.put(file, thumbnail);
+					SwingUtilities.invokeLater(new Runnable() {
+						@Override
+						public void run() {
+							list.repaint(list.getCellBounds(aIndex, aIndex));
+						}
+					});
+				} catch (IOException ex) {
+					ex.printStackTrace();
+				} finally {
+					pending.remove(file);
+				}
+			}
+		});
+	}
+
+	/**
+	 * 間引き読み込みでサムネイルを作成する。
+	 * 
+	 * @param aFile ファイル
+	 * @param aSize 長辺(ピクセル)
+	 * @return サムネイル。読み込めない画像の場合、<code>null</code>
+	 * @throws IOException 読み込みに失敗した場合
+	 */
+	public static BufferedImage createThumbnail(final File aFile, final int aSize) throws IOException {
+		try (ImageInputStream in = ImageIO.createImageInputStream(aFile)) {
+			if (null == in) {
+				return null;
+			}
+			ImageReader reader = ImageDecoders.createReader(aFile, in);
+			if (null == reader) {
+				return null;
+			}
+			try {
+				reader.setInput(in, true, true);
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				int sub = Math.max(1, Math.max(width, height) / aSize);
+
+				ImageReadParam param = reader.getDefaultReadParam();
+				param.setSourceSubsampling(sub, sub, 0, 0);
+				BufferedImage image = reader.read(0, param);
+
+				double scale = Math.min(1.0, (double) aSize / Math.max(image.getWidth(), image.getHeight()));
+				int w = Math.max(1, (int) Math.round(image.getWidth() * scale));
+				int h = Math.max(1, (int) Math.round(image.getHeight() * scale));
+				BufferedImage thumbnail = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+				Graphics2D g = thumbnail.createGraphics();
+				try {
+					g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+					g.drawImage(image, 0, 0, w, h, null);
+				} finally {
+					g.dispose();
+				}
+				return thumbnail;
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	private class ThumbnailCellRenderer extends DefaultListCellRenderer {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = 3306180372935851213L;
+
+		private ThumbnailCellRenderer() {
+			setHorizontalAlignment(SwingConstants.CENTER);
+			setVerticalTextPosition(JLabel.BOTTOM);
+			setHorizontalTextPosition(JLabel.CENTER);
+		}
+
+		@Override
+		public Component getListCellRendererComponent(final JList<?> aList, final Object aValue, final int aIndex,
+				final boolean aSelected, final boolean aFocus) {
+			super.getListCellRendererComponent(aList, ((File) aValue).getName(), aIndex, aSelected, aFocus);
+
+			firstVisible = list.getFirstVisibleIndex();
+			lastVisible = list.getLastVisibleIndex();
+
+			Image thumbnail = getThumbnail(aIndex);
+			setIcon((null == thumbnail) ? new EmptyIcon() : new ImageIcon(thumbnail));
+			return this;
+		}
+	}
+
+	private static class EmptyIcon extends ImageIcon {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = -2318436650011207232L;
+
+		@Override
+		public int getIconWidth() {
+			return THUMBNAIL_SIZE;
+		}
+
+		@Override
+		public int getIconHeight() {
+			return THUMBNAIL_SIZE;
+		}
+
+		@Override
+		public synchronized void paintIcon(final Component c, final Graphics g, final int x, final int y) {
+		}
+	}
+}
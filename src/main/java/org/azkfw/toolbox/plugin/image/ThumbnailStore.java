@@ -0,0 +1,367 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * このクラスは、ディレクトリ毎のサムネイルをディスクに保持するクラスです。
+ * <p>
+ * サムネイルはARGBの画素をそのまま追記し、読み込みはファイルの位置を指定して直接行う為、デコードは不要です。
+ * 読み込みは追記と排他せずに行う為、追記中でも待たされることはありません。
+ * キーはパス・更新日時・サイズで、ファイルが更新された場合は新しいサムネイルを追記します。
+ * 古くなったサムネイルは、開いた時に一定量を超えていれば詰め直します。
+ * </p>
+ * <p>
+ * ファイルは<code>./thumbnail</code>にディレクトリのパスのSHA-1を名前として作成し、ヘッダーにディレクトリのパスを保持します。
+ * ヘッダーのパスが異なるファイルは作り直します。
+ * </p>
+ * <p>
+ * 同じディレクトリのストアは{@link #open(File)}で共有し、{@link #close()}の呼び出し回数で解放します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class ThumbnailStore {
+
+	/** ファイルの先頭 */
+	private static final int MAGIC = 0x415A5442;
+
+	/** ファイルの形式 */
+	private static final int VERSION = 2;
+
+	/** 詰め直しを行う古いサムネイルのバイト数 */
+	private static final long COMPACT_BYTES = 4L * 1024L * 1024L;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** 開いているストア */
+	private static final Map<File, ThumbnailStore> STORES = new HashMap<File, ThumbnailStore>();
+
+	/** ディレクトリ */
+	private File directory;
+
+	/** 参照数 */
+	private int references;
+
+	/** ストアのファイル */
+	private File file;
+
+	private volatile FileChannel channel;
+
+	/** キー→レコードの位置 */
+	private Map<String, Long> offsets;
+
+	/** ファイルの有効な終端 */
+	private long size;
+
+	private ThumbnailStore(final File aDirectory) {
+		directory = aDirectory;
+		offsets = new ConcurrentHashMap<String, Long>();
+	}
+
+	/**
+	 * ディレクトリのストアを開く。
+	 * 
+	 * @param aDirectory ディレクトリ
+	 * @return ストア
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public static ThumbnailStore open(final File aDirectory) throws IOException {
+		File directory = aDirectory.getAbsoluteFile();
+		synchronized (STORES) {
+			ThumbnailStore store = STORES.get(directory);
+			if (null == store) {
+				store = new ThumbnailStore(directory);
+				store.load();
+				STORES.put(directory, store);
+			}
+			store.references++;
+			return store;
+		}
+	}
+
+	/**
+	 * ストアを閉じる。
+	 */
+	public void close() {
+		synchronized (STORES) {
+			references--;
+			if (0 < references) {
+				return;
+			}
+			STORES.remove(directory);
+		}
+		synchronized (this) {
+			try {
+				channel.close();
+			} catch (IOException ex) {
+				ex.printStackTrace();
+			}
+			channel = null;
+		}
+	}
+
+	private synchronized void load() throws IOException {
+		file = Paths.get(".", "thumbnail", sha1(directory.getPath()) + ".dat").toFile();
+		file.getParentFile().mkdirs();
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		byte[] path = directory.getPath().getBytes(UTF8);
+		long start = 12 + path.length;
+		long length = channel.size();
+		if (!isValidHeader(path, length)) {
+			// 新規、形式の異なるファイルまたは別のディレクトリのファイルは作り直す
+			channel.truncate(0);
+			write(channel, createHeader(path), 0);
+			size = start;
+			return;
+		}
+
+		// 現在のファイルと一致するサムネイルのみを読み込む
+		Map<String, Long> lengths = new HashMap<String, Long>();
+		long position = start;
+		long live = 0;
+		while (position + 4 <= length) {
+			int keyLength = read(channel, position, 4).getInt();
+			long pixels = position + 4 + keyLength;
+			if (0 > keyLength || pixels + 8 > length) {
+				break;
+			}
+			ByteBuffer buffer = read(channel, position + 4, keyLength + 8);
+			byte[] key = new byte[keyLength];
+			buffer.get(key);
+			int width = buffer.getInt();
+			int height = buffer.getInt();
+			long next = pixels + 8 + 4L * width * height;
+			if (0 >= width || 0 >= height || next > length) {
+				break;
+			}
+			String k = new String(key, UTF8);
+			if (isCurrent(k) && null == offsets.put(k, position)) {
+				live += next - position;
+			}
+			lengths.put(k, next - position);
+			position = next;
+		}
+		size = position;
+		if (size < length) {
+			// 書き込み途中で終了したレコードを切り捨てる
+			channel.truncate(size);
+		}
+
+		long garbage = size - start - live;
+		if (COMPACT_BYTES < garbage && live < garbage) {
+			try {
+				compact(path, lengths);
+			} catch (IOException ex) {
+				// 詰め直せない場合はそのまま使用する
+				ex.printStackTrace();
+			}
+		}
+	}
+
+	private boolean isValidHeader(final byte[] aPath, final long aLength) throws IOException {
+		if (12 + aPath.length > aLength) {
+			return false;
+		}
+		ByteBuffer header = read(channel, 0, 12 + aPath.length);
+		if (MAGIC != header.getInt() || VERSION != header.getInt() || aPath.length != header.getInt()) {
+			return false;
+		}
+		byte[] path = new byte[aPath.length];
+		header.get(path);
+		return Arrays.equals(aPath, path);
+	}
+
+	private static ByteBuffer createHeader(final byte[] aPath) {
+		ByteBuffer header = ByteBuffer.allocate(12 + aPath.length);
+		header.putInt(MAGIC).putInt(VERSION).putInt(aPath.length).put(aPath).flip();
+		return header;
+	}
+
+	/**
+	 * 有効なサムネイルのみを一時ファイルへ書き出し、置き換える。
+	 * 
+	 * @param aPath ディレクトリのパス
+	 * @param aLengths キー→レコードのバイト数
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	private void compact(final byte[] aPath, final Map<String, Long> aLengths) throws IOException {
+		File temp = new File(file.getPath() + ".tmp");
+		Map<String, Long> compacted = new HashMap<String, Long>();
+		long position;
+		try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE)) {
+			position = write(out, createHeader(aPath), 0);
+			for (Map.Entry<String, Long> entry : offsets.entrySet()) {
+				long offset = entry.getValue().longValue();
+				long length = aLengths.get(entry.getKey()).longValue();
+				compacted.put(entry.getKey(), position);
+				for (long done = 0; done < length;) {
+					done += out.transferFrom(channel.position(offset + done), position + done, length - done);
+				}
+				position += length;
+			}
+			out.force(true);
+		}
+
+		channel.close();
+		try {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException ex) {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		}
+		offsets.clear();
+		offsets.putAll(compacted);
+		size = position;
+	}
+
+	/**
+	 * サムネイルを取得する。
+	 * <p>
+	 * 追記とは排他しない為、追記中でも待たずに読み込みます。
+	 * </p>
+	 * 
+	 * @param aFile ファイル
+	 * @return サムネイル。存在しない場合、<code>null</code>
+	 */
+	public BufferedImage get(final File aFile) {
+		Long offset = offsets.get(getKey(aFile));
+		FileChannel c = channel;
+		if (null == offset || null == c) {
+			return null;
+		}
+		try {
+			long position = offset.longValue();
+			int keyLength = read(c, position, 4).getInt();
+			position += 4 + keyLength;
+			ByteBuffer dimension = read(c, position, 8);
+			int width = dimension.getInt();
+			int height = dimension.getInt();
+
+			BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+			read(c, position + 8, 4 * width * height).asIntBuffer().get(data, 0, width * height);
+			return image;
+		} catch (ClosedChannelException ex) {
+			// 閉じられたストアからは取得しない
+			return null;
+		} catch (IOException ex) {
+			ex.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * サムネイルを追加する。
+	 * 
+	 * @param aFile ファイル
+	 * @param aImage サムネイル
+	 */
+	public synchronized void put(final File aFile, final BufferedImage aImage) {
+		if (null == channel) {
+			return;
+		}
+		String key = getKey(aFile);
+		byte[] keyBytes = key.getBytes(UTF8);
+		int width = aImage.getWidth();
+		int height = aImage.getHeight();
+		int[] pixels = aImage.getRGB(0, 0, width, height, null, 0, width);
+
+		ByteBuffer buffer = ByteBuffer.allocate(4 + keyBytes.length + 8 + 4 * pixels.length);
+		buffer.putInt(keyBytes.length).put(keyBytes).putInt(width).putInt(height);
+		buffer.asIntBuffer().put(pixels);
+		buffer.rewind();
+		try {
+			long position = size;
+			size = position + write(channel, buffer, position);
+			// 書き込みを終えてから公開する
+			offsets.put(key, position);
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		}
+	}
+
+	private static ByteBuffer read(final FileChannel aChannel, final long aPosition, final int aLength) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(aLength);
+		while (buffer.hasRemaining()) {
+			if (0 > aChannel.read(buffer, aPosition + buffer.position())) {
+				throw new EOFException();
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	private static long write(final FileChannel aChannel, final ByteBuffer aBuffer, final long aPosition) throws IOException {
+		long position = aPosition;
+		while (aBuffer.hasRemaining()) {
+			position += aChannel.write(aBuffer, position);
+		}
+		return position - aPosition;
+	}
+
+	private static boolean isCurrent(final String aKey) {
+		int index = aKey.indexOf('\0');
+		return -1 != index && aKey.equals(getKey(new File(aKey.substring(0, index))));
+	}
+
+	private static String getKey(final File aFile) {
+		File file = aFile.getAbsoluteFile();
+		return file.getPath() + '\0' + file.lastModified() + '\0' + file.length();
+	}
+
+	private static String sha1(final String aValue) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(aValue.getBytes(UTF8));
+			StringBuilder s = new StringBuilder();
+			for (byte b : digest) {
+				s.append(String.format("%02x", b & 0xff));
+			}
+			return s.toString();
+		} catch (NoSuchAlgorithmException ex) {
+			// SHA-1は全ての実行環境で使用できる
+			throw new IllegalStateException(ex);
+		}
+	}
+}
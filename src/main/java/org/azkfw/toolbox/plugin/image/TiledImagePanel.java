@@ -0,0 +1,561 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.image;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+
+/**
+ * このクラスは、巨大な画像をタイル単位で表示するパネルクラスです。
+ * <p>
+ * 画像全体はデコードせず、表示されている領域のみを現在の倍率に応じた間引き率で{@link ImageReader}から読み込みます。
+ * 読み込んだタイルは上限バイト数付きのキャッシュに保持する為、画像の大きさに関わらずメモリ使用量は一定です。
+ * </p>
+ * <p>
+ * タイルのデコードは{@link ImageDecodeExecutor}で行い、完了するまではキャッシュにある粗いタイルを拡大して表示します。
+ * {@link ImageReader}はスレッドセーフではない為、デコード中のワーカー毎に個別のリーダーを貸し出して並行してデコードします。
+ * </p>
+ * <p>
+ * Ctrlキーを押しながらマウスホイールを回すと拡大・縮小します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class TiledImagePanel extends JPanel {
+
+	/** serialVersionUID */
+	private static final long serialVersionUID = -3370424838466262613L;
+
+	/** タイルの大きさ(間引き後のピクセル) */
+	public static final int TILE_SIZE = 256;
+
+	/** タイルキャッシュのデフォルト上限バイト数 */
+	public static final long DEFAULT_CACHE_BYTES = 64L * 1024L * 1024L;
+
+	/** 最小倍率 */
+	private static final double MIN_ZOOM = 1.0 / 64.0;
+
+	/** 最大倍率 */
+	private static final double MAX_ZOOM = 8.0;
+
+	/** 1ノッチあたりの倍率 */
+	private static final double ZOOM_STEP = 1.25;
+
+	/** ファイル */
+	private File file;
+
+	/** 画像の幅 */
+	private int imageWidth;
+
+	/** 画像の高さ */
+	private int imageHeight;
+
+	/** 倍率 */
+	private double zoom;
+
+	/** タイルキャッシュ */
+	private ImageTileCache<TileKey> cache;
+
+	/** デコード待ちのタイル */
+	private Set<TileKey> pending;
+
+	/** 表示中の間引き率 */
+	private volatile int visibleSubsampling;
+
+	/** 表示中の領域(画像の座標) */
+	private volatile Rectangle visibleRegion;
+
+	/** 閉じられた場合、<code>true</code> */
+	private volatile boolean closed;
+
+	/** 空いているリーダー */
+	private Deque<ImageReader> idleReaders;
+
+	/** デコード中のリーダー */
+	private Set<ImageReader> busyReaders;
+
+	/** 閉じる度に進む世代。古い世代のリーダーは返却時に破棄する */
+	private int readerGeneration;
+
+	private Canvas canvas;
+
+	private JScrollPane scroll;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aFile ファイル
+	 * @throws IOException 画像の読み込みに失敗した場合
+	 */
+	public TiledImagePanel(final File aFile) throws IOException {
+		this(aFile, DEFAULT_CACHE_BYTES);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aFile ファイル
+	 * @param aCacheBytes タイルキャッシュの上限バイト数
+	 * @throws IOException 画像の読み込みに失敗した場合
+	 */
+	public TiledImagePanel(final File aFile, final long aCacheBytes) throws IOException {
+		file = aFile;
+		zoom = 1.0;
+		cache = new ImageTileCache<TileKey>(aCacheBytes);
+		pending = Collections.newSetFromMap(new ConcurrentHashMap<TileKey, Boolean>());
+		visibleSubsampling = 1;
+		visibleRegion = new Rectangle();
+		idleReaders = new ArrayDeque<ImageReader>();
+		busyReaders = new HashSet<ImageReader>();
+
+		ImageReader r = borrowReader();
+		try {
+			imageWidth = r.getWidth(0);
+			imageHeight = r.getHeight(0);
+		} finally {
+			returnReader(r, readerGeneration);
+		}
+
+		canvas = new Canvas();
+		canvas.setBackground(Color.DARK_GRAY);
+		canvas.addMouseWheelListener(new MouseWheelListener() {
+			@Override
+			public void mouseWheelMoved(final MouseWheelEvent e) {
+				if (e.isControlDown()) {
+					double factor = (0 > e.getWheelRotation()) ? ZOOM_STEP : 1.0 / ZOOM_STEP;
+					setZoom(zoom * factor, e.getPoint());
+				} else {
+					scroll.dispatchEvent(SwingUtilities.convertMouseEvent(canvas, e, scroll));
+				}
+			}
+		});
+
+		scroll = new JScrollPane(canvas);
+		scroll.setBorder(null);
+		scroll.getViewport().setScrollMode(JViewport.BLIT_SCROLL_MODE);
+		scroll.getVerticalScrollBar().setUnitIncrement(32);
+		scroll.getHorizontalScrollBar().setUnitIncrement(32);
+
+		setLayout(new BorderLayout());
+		add(scroll, BorderLayout.CENTER);
+
+		updateCanvasSize();
+	}
+
+	/**
+	 * 画像をデコードせずに大きさを取得する。
+	 * 
+	 * @param aFile ファイル
+	 * @return 大きさ。読み込めない画像の場合、<code>null</code>
+	 * @throws IOException 読み込みに失敗した場合
+	 */
+	public static Dimension getImageSize(final File aFile) throws IOException {
+		try (ImageInputStream in = ImageIO.createImageInputStream(aFile)) {
+			if (null == in) {
+				return null;
+			}
+			ImageReader r = ImageDecoders.createReader(aFile, in);
+			if (null == r) {
+				return null;
+			}
+			try {
+				r.setInput(in, true, true);
+				return new Dimension(r.getWidth(0), r.getHeight(0));
+			} finally {
+				r.dispose();
+			}
+		}
+	}
+
+	/**
+	 * ファイルを取得する。
+	 * 
+	 * @return ファイル
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * 倍率を取得する。
+	 * 
+	 * @return 倍率
+	 */
+	public double getZoom() {
+		return zoom;
+	}
+
+	/**
+	 * 倍率を設定する。
+	 * 
+	 * @param aZoom 倍率
+	 */
+	public void setZoom(final double aZoom) {
+		Rectangle view = scroll.getViewport().getViewRect();
+		setZoom(aZoom, new Point(view.x + view.width / 2, view.y + view.height / 2));
+	}
+
+	private void setZoom(final double aZoom, final Point aAnchor) {
+		double newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, aZoom));
+		if (newZoom == zoom) {
+			return;
+		}
+		JViewport viewport = scroll.getViewport();
+		Point view = viewport.getViewPosition();
+		double rate = newZoom / zoom;
+
+		zoom = newZoom;
+		updateCanvasSize();
+
+		// カーソル位置の画素が同じ位置に留まるようにスクロールする
+		int x = (int) Math.round(aAnchor.x * rate) - (aAnchor.x - view.x);
+		int y = (int) Math.round(aAnchor.y * rate) - (aAnchor.y - view.y);
+		viewport.setViewPosition(new Point(Math.max(0, x), Math.max(0, y)));
+		canvas.repaint();
+	}
+
+	private void updateCanvasSize() {
+		Dimension size = new Dimension((int) Math.ceil(imageWidth * zoom), (int) Math.ceil(imageHeight * zoom));
+		canvas.setPreferredSize(size);
+		canvas.revalidate();
+	}
+
+	/**
+	 * 現在の倍率に応じた間引き率を取得する。
+	 * <p>
+	 * 表示に必要な解像度を下回らない最大の2の累乗を返します。
+	 * </p>
+	 * 
+	 * @return 間引き率
+	 */
+	private int getSubsampling() {
+		int sub = 1;
+		while (sub * 2 <= 1.0 / zoom) {
+			sub *= 2;
+		}
+		return sub;
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		closed = false;
+	}
+
+	@Override
+	public void removeNotify() {
+		super.removeNotify();
+		closed = true;
+		close();
+	}
+
+	/**
+	 * 読み込みに使用している資源を解放する。
+	 * <p>
+	 * デコード中のタイルは中断し、そのリーダーはワーカーが返却した時に破棄します。 空いているリーダーの破棄は{@link ImageDecodeExecutor}で行う為、
+	 * 呼び出し元を待たせません。再度表示された場合は、改めて読み込みます。
+	 * </p>
+	 */
+	public void close() {
+		final List<ImageReader> readers;
+		synchronized (idleReaders) {
+			readerGeneration++;
+			for (ImageReader r : busyReaders) {
+				r.abort();
+			}
+			readers = new ArrayList<ImageReader>(idleReaders);
+			idleReaders.clear();
+		}
+		cache.clear();
+		if (!readers.isEmpty()) {
+			ImageDecodeExecutor.get().execute(new Runnable() {
+				@Override
+				public void run() {
+					for (ImageReader r : readers) {
+						disposeReader(r);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * リーダーを借りる。
+	 * <p>
+	 * 空いているリーダーがなければ新たに開きます。使用後は{@link #returnReader(ImageReader, int)}で返却してください。
+	 * </p>
+	 * 
+	 * @return リーダー
+	 * @throws IOException 画像を開けない場合
+	 */
+	private ImageReader borrowReader() throws IOException {
+		synchronized (idleReaders) {
+			ImageReader r = idleReaders.poll();
+			if (null != r) {
+				busyReaders.add(r);
+				return r;
+			}
+		}
+
+		ImageInputStream in = ImageIO.createImageInputStream(file);
+		if (null == in) {
+			throw new IOException("Could not open " + file.getPath());
+		}
+		ImageReader r = ImageDecoders.createReader(file, in);
+		if (null == r) {
+			in.close();
+			throw new IOException("Unsupported image " + file.getPath());
+		}
+		// 任意の領域を読む為、前方シークのみには制限しない
+		r.setInput(in, false, true);
+		synchronized (idleReaders) {
+			busyReaders.add(r);
+		}
+		return r;
+	}
+
+	/**
+	 * リーダーを返却する。
+	 * 
+	 * @param aReader リーダー
+	 * @param aGeneration 借りた時の世代
+	 */
+	private void returnReader(final ImageReader aReader, final int aGeneration) {
+		synchronized (idleReaders) {
+			busyReaders.remove(aReader);
+			if (aGeneration == readerGeneration) {
+				idleReaders.push(aReader);
+				return;
+			}
+		}
+		// 借りている間に閉じられた
+		disposeReader(aReader);
+	}
+
+	private static void disposeReader(final ImageReader aReader) {
+		Object in = aReader.getInput();
+		aReader.dispose();
+		if (in instanceof ImageInputStream) {
+			try {
+				((ImageInputStream) in).close();
+			} catch (IOException ex) {
+				ex.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * タイルのデコードを依頼する。
+	 * <p>
+	 * デコードを開始する時点で表示されていないタイルは読み込みません。
+	 * </p>
+	 * 
+	 * @param aKey タイル
+	 */
+	private void requestTile(final TileKey aKey) {
+		if (!pending.add(aKey)) {
+			return;
+		}
+		ImageDecodeExecutor.get().execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					if (closed || aKey.subsampling != visibleSubsampling || !getSourceRegion(aKey).intersects(visibleRegion)) {
+						return;
+					}
+					BufferedImage tile = readTile(aKey);
+					if (null != tile) {
+						cache.put(aKey, tile);
+						SwingUtilities.invokeLater(new Runnable() {
+							@Override
+							public void run() {
+								canvas.repaint();
+							}
+						});
+					}
+				} catch (IOException ex) {
+					ex.printStackTrace();
+				} finally {
+					pending.remove(aKey);
+				}
+			}
+		});
+	}
+
+	/**
+	 * キャッシュにある粗いタイルから、指定のタイルの領域を描画する。
+	 * 
+	 * @param g グラフィックス
+	 * @param aKey タイル
+	 * @param aDest 描画先
+	 */
+	private void paintCoarseTile(final Graphics2D g, final TileKey aKey, final Rectangle aDest) {
+		Rectangle src = getSourceRegion(aKey);
+		for (int sub = aKey.subsampling * 2; sub <= 64; sub *= 2) {
+			int span = TILE_SIZE * sub;
+			TileKey key = new TileKey(sub, src.x / span, src.y / span);
+			BufferedImage tile = cache.get(key);
+			if (null == tile) {
+				continue;
+			}
+			Rectangle coarse = getSourceRegion(key);
+			int sx1 = (src.x - coarse.x) / sub;
+			int sy1 = (src.y - coarse.y) / sub;
+			int sx2 = Math.min(tile.getWidth(), (src.x + src.width - coarse.x + sub - 1) / sub);
+			int sy2 = Math.min(tile.getHeight(), (src.y + src.height - coarse.y + sub - 1) / sub);
+			g.drawImage(tile, aDest.x, aDest.y, aDest.x + aDest.width, aDest.y + aDest.height, sx1, sy1, sx2, sy2, null);
+			return;
+		}
+	}
+
+	private BufferedImage readTile(final TileKey aKey) throws IOException {
+		int generation;
+		synchronized (idleReaders) {
+			if (closed) {
+				return null;
+			}
+			generation = readerGeneration;
+		}
+		ImageReader r = borrowReader();
+		try {
+			ImageReadParam param = r.getDefaultReadParam();
+			param.setSourceRegion(getSourceRegion(aKey));
+			param.setSourceSubsampling(aKey.subsampling, aKey.subsampling, 0, 0);
+			return r.read(0, param);
+		} finally {
+			returnReader(r, generation);
+		}
+	}
+
+	private Rectangle getSourceRegion(final TileKey aKey) {
+		int span = TILE_SIZE * aKey.subsampling;
+		int x = aKey.column * span;
+		int y = aKey.row * span;
+		return new Rectangle(x, y, Math.min(span, imageWidth - x), Math.min(span, imageHeight - y));
+	}
+
+	private void paintTiles(final Graphics2D g) {
+		Rectangle clip = g.getClipBounds();
+		if (null == clip) {
+			clip = canvas.getVisibleRect();
+		}
+		int sub = getSubsampling();
+		int span = TILE_SIZE * sub;
+
+		int x0 = Math.max(0, (int) Math.floor(clip.x / zoom));
+		int y0 = Math.max(0, (int) Math.floor(clip.y / zoom));
+		int x1 = Math.min(imageWidth - 1, (int) Math.ceil((clip.x + clip.width) / zoom));
+		int y1 = Math.min(imageHeight - 1, (int) Math.ceil((clip.y + clip.height) / zoom));
+		if (x1 < x0 || y1 < y0) {
+			return;
+		}
+		visibleSubsampling = sub;
+		visibleRegion = new Rectangle(x0, y0, x1 - x0 + 1, y1 - y0 + 1);
+
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		for (int row = y0 / span; row <= y1 / span; row++) {
+			for (int col = x0 / span; col <= x1 / span; col++) {
+				TileKey key = new TileKey(sub, col, row);
+				Rectangle src = getSourceRegion(key);
+				int dx = (int) Math.floor(src.x * zoom);
+				int dy = (int) Math.floor(src.y * zoom);
+				int dw = (int) Math.ceil((src.x + src.width) * zoom) - dx;
+				int dh = (int) Math.ceil((src.y + src.height) * zoom) - dy;
+
+				BufferedImage tile = cache.get(key);
+				if (null == tile) {
+					requestTile(key);
+					paintCoarseTile(g, key, new Rectangle(dx, dy, dw, dh));
+				} else {
+					g.drawImage(tile, dx, dy, dw, dh, null);
+				}
+			}
+		}
+	}
+
+	private class Canvas extends JPanel {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = 2176826906585563412L;
+
+		@Override
+		protected void paintComponent(final Graphics g) {
+			super.paintComponent(g);
+			paintTiles((Graphics2D) g);
+		}
+	}
+
+	private static final class TileKey {
+
+		private final int subsampling;
+
+		private final int column;
+
+		private final int row;
+
+		private TileKey(final int aSubsampling, final int aColumn, final int aRow) {
+			subsampling = aSubsampling;
+			column = aColumn;
+			row = aRow;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof TileKey)) {
+				return false;
+			}
+			TileKey k = (TileKey) o;
+			return subsampling == k.subsampling && column == k.column && row == k.row;
+		}
+
+		@Override
+		public int hashCode() {
+			return (subsampling * 31 + column) * 31 + row;
+		}
+	}
+}
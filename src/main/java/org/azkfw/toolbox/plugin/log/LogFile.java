@@ -0,0 +1,487 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.log;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+/**
+ * このクラスは、テキストファイルを行単位で読み込むクラスです。
+ * <p>
+ * 全ての行の位置は保持せず、{@link #INDEX_INTERVAL}行毎の位置のみを索引として保持します。
+ * 行はこの索引を単位としたブロック毎にデコードします。
+ * 索引は{@link #index(long)}で少しずつ作成し、ファイルが伸びた場合は{@link #refresh()}の後に続きから作成します。
+ * </p>
+ * <p>
+ * 読み込みは位置を指定して必要な範囲のみを行い、ローテートでファイルが切り詰められた場合は読み込めた所までを扱います。
+ * 名前を変えてローテートされた場合は、ファイルの識別子の変化で検出して新しいファイルを開き直します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class LogFile implements Closeable {
+
+	/** 索引を作成する間隔(行) */
+	public static final int INDEX_INTERVAL = 1024;
+
+	/** 1行としてデコードする最大バイト数 */
+	public static final int MAX_LINE_BYTES = 4096;
+
+	/** 一度に読み込むバイト数 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final byte LF = '\n';
+
+	private static final byte CR = '\r';
+
+	/** ファイル */
+	private File file;
+
+	/** 文字セット */
+	private Charset charset;
+
+	private FileChannel channel;
+
+	/** 開いているファイルの識別子 */
+	private Object fileKey;
+
+	/** 読み込み対象のバイト数 */
+	private long size;
+
+	/** {@link #INDEX_INTERVAL}行毎の行の位置 */
+	private long[] checkpoints;
+
+	/** 索引の数 */
+	private int checkpointCount;
+
+	/** 走査した改行の数 */
+	private int newlineCount;
+
+	/** 最後の行の位置 */
+	private long lastLineStart;
+
+	/** 走査したバイト数 */
+	private long scannedSize;
+
+	/** 索引を作り直した回数 */
+	private int generation;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aFile ファイル
+	 * @param aCharset 文字セット
+	 */
+	public LogFile(final File aFile, final Charset aCharset) {
+		file = aFile;
+		charset = aCharset;
+		reset();
+	}
+
+	/**
+	 * ファイルを開く。
+	 * 
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public synchronized void open() throws IOException {
+		fileKey = readFileKey();
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		size = channel.size();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		size = 0;
+		reset();
+		if (null != channel) {
+			channel.close();
+			channel = null;
+		}
+	}
+
+	/**
+	 * ファイルを取得する。
+	 * 
+	 * @return ファイル
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * 文字セットを取得する。
+	 * 
+	 * @return 文字セット
+	 */
+	public Charset getCharset() {
+		return charset;
+	}
+
+	/**
+	 * ファイルの大きさの変化を反映する。
+	 * <p>
+	 * ファイルが短くなった場合(コピーして切り詰めるローテート等)は、索引を作り直します。
+	 * 名前を変えてローテートされた場合は、新しいファイルを開き直して索引を作り直します。
+	 * </p>
+	 * 
+	 * @return 変化した場合、<code>true</code>
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public synchronized boolean refresh() throws IOException {
+		if (null == channel) {
+			return false;
+		}
+		Object key;
+		try {
+			key = readFileKey();
+		} catch (NoSuchFileException ex) {
+			// ローテートで新しいファイルが作成されるまでは、開いているファイルを表示する
+			key = fileKey;
+		}
+		if (null != key && !key.equals(fileKey)) {
+			channel.close();
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			fileKey = key;
+			size = channel.size();
+			reset();
+			generation++;
+			return true;
+		}
+
+		long newSize = getChannel().size();
+		if (newSize == size) {
+			return false;
+		}
+		if (newSize < size) {
+			reset();
+			generation++;
+		}
+		size = newSize;
+		return true;
+	}
+
+	private void reset() {
+		checkpoints = new long[64];
+		checkpoints[0] = 0;
+		checkpointCount = 1;
+		newlineCount = 0;
+		lastLineStart = 0;
+		scannedSize = 0;
+	}
+
+	/**
+	 * ファイルの識別子を取得する。
+	 * 
+	 * @return 識別子。取得できない環境の場合、<code>null</code>
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	private Object readFileKey() throws IOException {
+		return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+	}
+
+	/**
+	 * 読み込みに使用するチャネルを取得する。
+	 * <p>
+	 * 読み込み中のスレッドへの割り込みでチャネルが閉じられた場合は開き直します。
+	 * </p>
+	 * 
+	 * @return チャネル。閉じられた場合、<code>null</code>
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	private synchronized FileChannel getChannel() throws IOException {
+		if (null != channel && !channel.isOpen()) {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		}
+		return channel;
+	}
+
+	/**
+	 * 索引の作成を進める。
+	 * 
+	 * @param aMaxBytes 今回走査する最大バイト数
+	 * @return 未走査の部分が残っている場合、<code>true</code>
+	 */
+	public synchronized boolean index(final long aMaxBytes) {
+		long end = Math.min(size, scannedSize + aMaxBytes);
+		long position = scannedSize;
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		while (position < end) {
+			int read = read(buffer, position, end);
+			if (0 >= read) {
+				// 切り詰められた場合は、次のrefreshで索引を作り直す
+				size = position;
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (LF == buffer.get(i)) {
+					newlineCount++;
+					lastLineStart = position + i + 1;
+					if (0 == newlineCount % INDEX_INTERVAL) {
+						addCheckpoint(lastLineStart);
+					}
+				}
+			}
+			position += read;
+		}
+		scannedSize = position;
+		return scannedSize < size;
+	}
+
+	private void addCheckpoint(final long aOffset) {
+		if (checkpointCount == checkpoints.length) {
+			checkpoints = Arrays.copyOf(checkpoints, checkpointCount * 2);
+		}
+		checkpoints[checkpointCount++] = aOffset;
+	}
+
+	/**
+	 * ファイルの大きさを取得する。
+	 * 
+	 * @return バイト数
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * 索引を作り直した回数を取得する。
+	 * <p>
+	 * 値が変わった場合、以前に取得した行は別の内容です。
+	 * </p>
+	 * 
+	 * @return 回数
+	 */
+	public synchronized int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * 走査したバイト数を取得する。
+	 * 
+	 * @return バイト数
+	 */
+	public synchronized long getScannedSize() {
+		return scannedSize;
+	}
+
+	/**
+	 * 走査済みの行数を取得する。
+	 * <p>
+	 * 改行で終わっていない最後の行も含みます。
+	 * </p>
+	 * 
+	 * @return 行数
+	 */
+	public synchronized int getLineCount() {
+		return newlineCount + ((lastLineStart < scannedSize) ? 1 : 0);
+	}
+
+	/**
+	 * ブロック数を取得する。
+	 * 
+	 * @return ブロック数
+	 */
+	public synchronized int getBlockCount() {
+		return (getLineCount() + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+	}
+
+	/**
+	 * ブロックの先頭の位置を取得する。
+	 * 
+	 * @param aBlock ブロック
+	 * @return 位置
+	 */
+	public synchronized long getBlockOffset(final int aBlock) {
+		return (aBlock < checkpointCount) ? checkpoints[aBlock] : scannedSize;
+	}
+
+	/**
+	 * ブロックの行を取得する。
+	 * <p>
+	 * 索引はロック中に取得し、読み込みはロックの外で行う為、索引の作成中でも待たされません。
+	 * 読み込み中にファイルが切り詰められた場合、読み込めなかった行は空になります。
+	 * </p>
+	 * 
+	 * @param aBlock ブロック
+	 * @return 行
+	 */
+	public String[] getLines(final int aBlock) {
+		int count;
+		long position;
+		long end;
+		FileChannel c;
+		synchronized (this) {
+			int first = aBlock * INDEX_INTERVAL;
+			count = Math.max(0, Math.min(INDEX_INTERVAL, getLineCount() - first));
+			position = getBlockOffset(aBlock);
+			end = scannedSize;
+			try {
+				c = getChannel();
+			} catch (IOException ex) {
+				ex.printStackTrace();
+				c = null;
+			}
+		}
+		String[] lines = new String[count];
+
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		buffer.limit(0);
+		byte[] bytes = new byte[MAX_LINE_BYTES];
+		for (int i = 0; i < count; i++) {
+			int length = 0;
+			boolean truncated = false;
+			while (position < end) {
+				if (!buffer.hasRemaining()) {
+					int read = read(c, buffer, position, end);
+					if (0 >= read) {
+						position = end;
+						break;
+					}
+					buffer.limit(read);
+				}
+				byte b = buffer.get();
+				position++;
+				if (LF == b) {
+					break;
+				}
+				if (length < bytes.length) {
+					bytes[length++] = b;
+				} else {
+					truncated = true;
+				}
+			}
+			if (0 < length && CR == bytes[length - 1] && !truncated) {
+				length--;
+			}
+			String line = new String(bytes, 0, length, charset);
+			lines[i] = truncated ? line + "..." : line;
+		}
+		return lines;
+	}
+
+	/**
+	 * 範囲の内容をデコードする。
+	 * <p>
+	 * 索引を作成中でも、他のスレッドから並列に呼び出すことができます。
+	 * </p>
+	 * 
+	 * @param aStart 開始位置
+	 * @param aEnd 終了位置
+	 * @return 内容
+	 */
+	public String decode(final long aStart, final long aEnd) {
+		ByteBuffer buffer = readBytes(aStart, aEnd);
+		return new String(buffer.array(), 0, buffer.limit(), charset);
+	}
+
+	/**
+	 * 範囲の内容を読み込む。
+	 * <p>
+	 * 索引を作成中でも、他のスレッドから並列に呼び出すことができます。 範囲は呼び出し元でバッファに収まる大きさに区切ってください。
+	 * </p>
+	 * 
+	 * @param aStart 開始位置
+	 * @param aEnd 終了位置
+	 * @return 内容。切り詰められた場合は読み込めた部分のみ、閉じられた場合は空
+	 */
+	public ByteBuffer readBytes(final long aStart, final long aEnd) {
+		FileChannel c;
+		try {
+			synchronized (this) {
+				if (aEnd > size) {
+					// 閉じられた場合
+					return ByteBuffer.allocate(0);
+				}
+				c = getChannel();
+			}
+			ByteBuffer buffer = ByteBuffer.allocate((int) (aEnd - aStart));
+			while (buffer.hasRemaining()) {
+				if (0 > c.read(buffer, aStart + buffer.position())) {
+					// 切り詰められた場合は読み込めた部分のみ
+					break;
+				}
+			}
+			buffer.flip();
+			return buffer;
+		} catch (ClosedChannelException ex) {
+			// 閉じられた、または検索が中止された場合
+			return ByteBuffer.allocate(0);
+		} catch (IOException ex) {
+			ex.printStackTrace();
+			return ByteBuffer.allocate(0);
+		}
+	}
+
+	/**
+	 * 位置を指定してバッファの先頭から読み込む。
+	 * 
+	 * @param aBuffer バッファ
+	 * @param aPosition 位置
+	 * @param aEnd 読み込む終端
+	 * @return 読み込んだバイト数。ファイルの終端または読み込めなかった場合、<code>-1</code>
+	 */
+	private int read(final ByteBuffer aBuffer, final long aPosition, final long aEnd) {
+		try {
+			return read(getChannel(), aBuffer, aPosition, aEnd);
+		} catch (IOException ex) {
+			ex.printStackTrace();
+			return -1;
+		}
+	}
+
+	/**
+	 * チャネルから位置を指定してバッファの先頭から読み込む。
+	 * 
+	 * @param aChannel チャネル
+	 * @param aBuffer バッファ
+	 * @param aPosition 位置
+	 * @param aEnd 読み込む終端
+	 * @return 読み込んだバイト数。ファイルの終端または読み込めなかった場合、<code>-1</code>
+	 */
+	private static int read(final FileChannel aChannel, final ByteBuffer aBuffer, final long aPosition, final long aEnd) {
+		if (null == aChannel) {
+			// 閉じられた場合
+			return -1;
+		}
+		aBuffer.clear();
+		aBuffer.limit((int) Math.min(aBuffer.capacity(), aEnd - aPosition));
+		try {
+			int read = aChannel.read(aBuffer, aPosition);
+			aBuffer.position(0);
+			return read;
+		} catch (ClosedChannelException ex) {
+			// 閉じられた、またはタスクが中止された場合
+			return -1;
+		} catch (IOException ex) {
+			ex.printStackTrace();
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.log;
+
+import org.azkfw.toolbox.task.AbstractToolBoxTask;
+
+/**
+ * このクラスは、{@link LogFile}の行の索引を作成するタスクです。
+ * <p>
+ * 索引は一定のバイト数毎に作成し、その都度進捗を通知して{@link #indexed()}を呼び出します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class LogIndexTask extends AbstractToolBoxTask {
+
+	/** 1回に走査するバイト数 */
+	private static final long CHUNK_SIZE = 8L * 1024L * 1024L;
+
+	/** ファイル */
+	private LogFile file;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aFile ファイル
+	 */
+	public LogIndexTask(final LogFile aFile) {
+		super("索引作成 " + aFile.getFile().getName());
+		file = aFile;
+	}
+
+	@Override
+	protected void doExecute() {
+		boolean remaining = true;
+		while (remaining && checkpoint()) {
+			remaining = file.index(CHUNK_SIZE);
+
+			long size = file.getSize();
+			double percent = (0 == size) ? 100 : file.getScannedSize() * 100.0 / size;
+			fireProgress(percent, String.format("%d 行", file.getLineCount()));
+			indexed();
+		}
+	}
+
+	/**
+	 * 索引の作成が進んだ時に呼び出される。
+	 * <p>
+	 * タスクのスレッドから呼び出されます。
+	 * </p>
+	 */
+	protected void indexed() {
+	}
+}
@@ -0,0 +1,247 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.log;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.azkfw.toolbox.task.AbstractToolBoxTask;
+
+/**
+ * このクラスは、{@link LogFile}を正規表現で検索するタスクです。
+ * <p>
+ * 索引済みの範囲をブロック単位のチャンクに分割し、全てのコアで並列に検索します。
+ * チャンクはブロック数と{@link #CHUNK_BYTES}の両方で区切り、長い行ばかりのブロックは行の区切りで分けて読み込む為、
+ * ファイルの大きさに関わらず一度に読み込むのは{@link #CHUNK_BYTES}までです。
+ * 一致した行番号は昇順で{@link #getResults()}から取得できます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class LogSearchTask extends AbstractToolBoxTask {
+
+	/** 1チャンクのブロック数 */
+	private static final int BLOCKS_PER_CHUNK = 64;
+
+	/** 1チャンクの最大バイト数 */
+	public static final int CHUNK_BYTES = 8 * 1024 * 1024;
+
+	/** 保持する最大件数 */
+	public static final int MAX_RESULTS = 10000;
+
+	/** 全検索で共有するプール */
+	private static ExecutorService pool;
+
+	/** ファイル */
+	private LogFile file;
+
+	/** パターン */
+	private Pattern pattern;
+
+	/** 一致した行 */
+	private List<Integer> results;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aFile ファイル
+	 * @param aPattern パターン
+	 */
+	public LogSearchTask(final LogFile aFile, final Pattern aPattern) {
+		super("検索 " + aPattern.pattern() + " " + aFile.getFile().getName());
+		file = aFile;
+		pattern = aPattern;
+		results = new ArrayList<Integer>();
+	}
+
+	/**
+	 * 一致した行を取得する。
+	 * 
+	 * @return 行番号(0始まり、昇順)
+	 */
+	public List<Integer> getResults() {
+		return results;
+	}
+
+	private static synchronized ExecutorService getPool() {
+		if (null == pool) {
+			pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable aRunnable) {
+					Thread thread = new Thread(aRunnable, "log-search");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return pool;
+	}
+
+	@Override
+	protected void doExecute() {
+		int blocks = file.getBlockCount();
+		List<Future<List<Integer>>> futures = new ArrayList<Future<List<Integer>>>();
+		for (int block = 0; block < blocks;) {
+			final int first = block;
+			// 最低1ブロックは含め、ブロック数とバイト数の上限までを1チャンクとする
+			long start = file.getBlockOffset(first);
+			int next = first + 1;
+			while (next < blocks && next - first < BLOCKS_PER_CHUNK && file.getBlockOffset(next + 1) - start <= CHUNK_BYTES) {
+				next++;
+			}
+			final int last = next;
+			block = next;
+			futures.add(getPool().submit(new Callable<List<Integer>>() {
+				@Override
+				public List<Integer> call() {
+					return search(first, last);
+				}
+			}));
+		}
+
+		fireProgress(0, "0 件");
+		for (int i = 0; i < futures.size(); i++) {
+			if (!checkpoint() || MAX_RESULTS <= results.size()) {
+				for (Future<List<Integer>> future : futures) {
+					future.cancel(true);
+				}
+				break;
+			}
+			try {
+				List<Integer> lines = futures.get(i).get();
+				results.addAll(lines.subList(0, Math.min(lines.size(), MAX_RESULTS - results.size())));
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (ExecutionException ex) {
+				ex.getCause().printStackTrace();
+			}
+			fireProgress((i + 1) * 100.0 / futures.size(), String.format("%d 件", results.size()));
+		}
+		searched();
+	}
+
+	/**
+	 * ブロックの範囲を検索する。
+	 * 
+	 * @param aFirst 最初のブロック
+	 * @param aLast 最後のブロック(含まない)
+	 * @return 一致した行
+	 */
+	private List<Integer> search(final int aFirst, final int aLast) {
+		List<Integer> lines = new ArrayList<Integer>();
+		long start = file.getBlockOffset(aFirst);
+		long end = file.getBlockOffset(aLast);
+		int line = aFirst * LogFile.INDEX_INTERVAL;
+		while (start < end && MAX_RESULTS > lines.size() && !Thread.currentThread().isInterrupted()) {
+			ByteBuffer buffer = file.readBytes(start, Math.min(end, start + CHUNK_BYTES));
+			int length = buffer.limit();
+			if (0 == length) {
+				break;
+			}
+			if (start + length < end) {
+				// 行の途中で区切らない
+				int last = lastIndexOf(buffer, (byte) '\n');
+				if (-1 != last) {
+					length = last + 1;
+				}
+			}
+			String text = new String(buffer.array(), 0, length, file.getCharset());
+			line = search(text, line, lines);
+			start += length;
+		}
+		return lines;
+	}
+
+	/**
+	 * テキストを検索する。
+	 * 
+	 * @param aText テキスト
+	 * @param aFirstLine テキストの先頭の行番号
+	 * @param aLines 一致した行の追加先
+	 * @return テキストの次の行番号
+	 */
+	private int search(final String aText, final int aFirstLine, final List<Integer> aLines) {
+		int line = aFirstLine;
+		int position = 0;
+		int matched = -1;
+		Matcher matcher = pattern.matcher(aText);
+		while (matcher.find() && MAX_RESULTS > aLines.size()) {
+			if (Thread.currentThread().isInterrupted()) {
+				break;
+			}
+			line += countLines(aText, position, matcher.start());
+			position = matcher.start();
+			if (line != matched) {
+				aLines.add(line);
+				matched = line;
+			}
+			// 同じ行の残りは読み飛ばす
+			int next = aText.indexOf('\n', Math.max(matcher.end(), position));
+			if (-1 == next) {
+				break;
+			}
+			matcher.region(next + 1, aText.length());
+		}
+		return line + countLines(aText, position, aText.length());
+	}
+
+	private static int countLines(final String aText, final int aStart, final int aEnd) {
+		int count = 0;
+		for (int i = aStart; i < aEnd; i++) {
+			if ('\n' == aText.charAt(i)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static int lastIndexOf(final ByteBuffer aBuffer, final byte aByte) {
+		for (int i = aBuffer.limit() - 1; i >= 0; i--) {
+			if (aByte == aBuffer.get(i)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public void taskCancelled() {
+		searched();
+	}
+
+	/**
+	 * 検索が終了した時に呼び出される。
+	 * <p>
+	 * 中止された場合も呼び出されます。タスクのスレッドから呼び出されます。 開始前に中止された場合は、中止したスレッドから呼び出されます。
+	 * </p>
+	 */
+	protected void searched() {
+	}
+}
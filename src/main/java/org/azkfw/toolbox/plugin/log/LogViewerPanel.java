@@ -0,0 +1,511 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.plugin.log;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import javax.swing.AbstractListModel;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+
+import org.azkfw.business.task.Task;
+
+/**
+ * このクラスは、巨大なテキストファイルを表示するパネルクラスです。
+ * <p>
+ * ファイルは{@link LogFile}で位置を指定して読み込み、行の索引は{@link LogIndexTask}でタスクとして作成します。
+ * 表示されている行のみをブロック単位でバックグラウンドでデコードし、直近のブロックのみを保持します。
+ * </p>
+ * <p>
+ * 末尾の追従を有効にすると、ファイルに追記された行を定期的に読み込み、最後の行を表示します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class LogViewerPanel extends JPanel {
+
+	/** serialVersionUID */
+	private static final long serialVersionUID = 6603931946049585215L;
+
+	/** 末尾を確認する間隔(ミリ秒) */
+	private static final int FOLLOW_INTERVAL = 1000;
+
+	/** 表示を更新する最小間隔(ミリ秒) */
+	private static final long UPDATE_INTERVAL = 200L;
+
+	/** 保持するブロック数 */
+	private static final int CACHE_BLOCKS = 8;
+
+	/** 表示する最大桁数 */
+	private static final int MAX_COLUMNS = 1024;
+
+	/** 追記分を走査する単位 */
+	private static final long FOLLOW_CHUNK_SIZE = 8L * 1024L * 1024L;
+
+	/** ファイル */
+	private LogFile file;
+
+	/** リスナー */
+	private List<LogViewerPanelListener> listeners;
+
+	/** 索引の作成が完了した場合、<code>true</code> */
+	private volatile boolean indexed;
+
+	/** 前回表示を更新した日時 */
+	private volatile long updateTime;
+
+	/** 末尾を確認中の場合、<code>true</code> */
+	private boolean following;
+
+	private LineListModel model;
+
+	private JList<String> lstLine;
+
+	private JCheckBox chkFollow;
+
+	private JTextField txtSearch;
+
+	private JButton btnSearch;
+
+	private JLabel lblStatus;
+
+	private ResultListModel resultModel;
+
+	private JList<Integer> lstResult;
+
+	private Timer timer;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aFile ファイル
+	 * @param aCharset 文字セット
+	 * @throws IOException ファイルを開けない場合
+	 */
+	public LogViewerPanel(final File aFile, final Charset aCharset) throws IOException {
+		file = new LogFile(aFile, aCharset);
+		file.open();
+		listeners = new ArrayList<LogViewerPanelListener>();
+
+		Font font = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+		model = new LineListModel();
+		lstLine = new JList<String>(model);
+		lstLine.setFont(font);
+		FontMetrics metrics = lstLine.getFontMetrics(font);
+		lstLine.setFixedCellHeight(metrics.getHeight());
+		lstLine.setFixedCellWidth(metrics.charWidth('m') * MAX_COLUMNS);
+		lstLine.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		lstLine.setCellRenderer(new LineCellRenderer());
+
+		resultModel = new ResultListModel();
+		lstResult = new JList<Integer>(resultModel);
+		lstResult.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		lstResult.setCellRenderer(new DefaultListCellRenderer() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public Component getListCellRendererComponent(final JList<?> aList, final Object aValue, final int aIndex,
+					final boolean aSelected, final boolean aFocus) {
+				return super.getListCellRendererComponent(aList, String.format("%d 行", (Integer) aValue + 1), aIndex,
+						aSelected, aFocus);
+			}
+		});
+		lstResult.addListSelectionListener(new ListSelectionListener() {
+			@Override
+			public void valueChanged(final ListSelectionEvent e) {
+				Integer line = lstResult.getSelectedValue();
+				if (!e.getValueIsAdjusting() && null != line && line < model.getSize()) {
+					chkFollow.setSelected(false);
+					lstLine.setSelectedIndex(line);
+					lstLine.ensureIndexIsVisible(line);
+				}
+			}
+		});
+
+		chkFollow = new JCheckBox("末尾を追従");
+		txtSearch = new JTextField(24);
+		btnSearch = new JButton("検索");
+		ActionListener search = new ActionListener() {
+			@Override
+			public void actionPerformed(final ActionEvent e) {
+				doSearch();
+			}
+		};
+		btnSearch.addActionListener(search);
+		txtSearch.addActionListener(search);
+		lblStatus = new JLabel();
+
+		JPanel pnlTool = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		pnlTool.add(chkFollow);
+		pnlTool.add(txtSearch);
+		pnlTool.add(btnSearch);
+		pnlTool.add(lblStatus);
+
+		JScrollPane scrLine = new JScrollPane(lstLine);
+		scrLine.setBorder(null);
+		JScrollPane scrResult = new JScrollPane(lstResult);
+		scrResult.setBorder(null);
+		JSplitPane split = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, scrLine, scrResult);
+		split.setResizeWeight(1.0);
+		split.setDividerLocation(0.8);
+
+		setLayout(new BorderLayout());
+		add(pnlTool, BorderLayout.NORTH);
+		add(split, BorderLayout.CENTER);
+
+		timer = new Timer(FOLLOW_INTERVAL, new ActionListener() {
+			@Override
+			public void actionPerformed(final ActionEvent e) {
+				if (chkFollow.isSelected()) {
+					doFollow();
+				}
+			}
+		});
+	}
+
+	/**
+	 * リスナーを追加する。
+	 * 
+	 * @param aListener リスナー
+	 */
+	public void addLogViewerPanelListener(final LogViewerPanelListener aListener) {
+		listeners.add(aListener);
+	}
+
+	/**
+	 * 行の索引の作成を開始する。
+	 * <p>
+	 * 索引を作成するタスクをリスナーへ渡します。
+	 * </p>
+	 */
+	public void start() {
+		LogIndexTask task = new LogIndexTask(file) {
+			@Override
+			protected void doExecute() {
+				super.doExecute();
+				indexed = true;
+				update();
+			}
+
+			@Override
+			protected void indexed() {
+				long now = System.currentTimeMillis();
+				if (UPDATE_INTERVAL <= now - updateTime) {
+					updateTime = now;
+					update();
+				}
+			}
+		};
+		queueTask(task);
+		timer.start();
+	}
+
+	@Override
+	public void removeNotify() {
+		super.removeNotify();
+		timer.stop();
+		try {
+			file.close();
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		}
+	}
+
+	private void queueTask(final Task aTask) {
+		for (LogViewerPanelListener listener : listeners) {
+			listener.logViewerPanelQueueTask(aTask);
+		}
+	}
+
+	/**
+	 * 索引の作成が進んだ行を表示に反映する。
+	 * <p>
+	 * 任意のスレッドから呼び出すことができます。
+	 * </p>
+	 */
+	private void update() {
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				model.update();
+				lblStatus.setText(String.format("%,d 行", model.getSize()));
+				if (chkFollow.isSelected() && 0 < model.getSize()) {
+					lstLine.ensureIndexIsVisible(model.getSize() - 1);
+				}
+			}
+		});
+	}
+
+	private void doFollow() {
+		if (following) {
+			return;
+		}
+		following = true;
+		new SwingWorker<Boolean, Void>() {
+			@Override
+			protected Boolean doInBackground() throws IOException {
+				boolean changed = file.refresh();
+				if (changed && indexed) {
+					// 索引の作成中は、タスクが追記分も走査する
+					while (file.index(FOLLOW_CHUNK_SIZE)) {
+					}
+				}
+				return changed;
+			}
+
+			@Override
+			protected void done() {
+				following = false;
+				try {
+					if (get()) {
+						update();
+					}
+				} catch (Exception ex) {
+					ex.printStackTrace();
+				}
+			}
+		}.execute();
+	}
+
+	private void doSearch() {
+		String text = txtSearch.getText();
+		if (0 == text.length()) {
+			return;
+		}
+		Pattern pattern;
+		try {
+			pattern = Pattern.compile(text);
+		} catch (PatternSyntaxException ex) {
+			JOptionPane.showMessageDialog(this, ex.getDescription(), "検索", JOptionPane.WARNING_MESSAGE);
+			return;
+		}
+
+		btnSearch.setEnabled(false);
+		resultModel.setResults(new ArrayList<Integer>());
+		LogSearchTask task = new LogSearchTask(file, pattern) {
+			@Override
+			protected void searched() {
+				final List<Integer> results = getResults();
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						btnSearch.setEnabled(true);
+						resultModel.setResults(results);
+					}
+				});
+			}
+		};
+		queueTask(task);
+	}
+
+	/**
+	 * 行のモデル
+	 */
+	private class LineListModel extends AbstractListModel<String> {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = -1227282467813003290L;
+
+		/** 行数 */
+		private int size;
+
+		/** 行を取得した時の{@link LogFile#getGeneration()} */
+		private int generation;
+
+		/** ブロック→行(参照順) */
+		private Map<Integer, String[]> blocks = new LinkedHashMap<Integer, String[]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Integer, String[]> aEldest) {
+				return CACHE_BLOCKS < size();
+			}
+		};
+
+		/** 読み込み中のブロック */
+		private Set<Integer> loadings = new HashSet<Integer>();
+
+		private void update() {
+			int oldSize = size;
+			int newSize = file.getLineCount();
+			int newGeneration = file.getGeneration();
+			if (newSize < oldSize || newGeneration != generation) {
+				// ファイルが短くなった、またはローテートされた場合
+				blocks.clear();
+				generation = newGeneration;
+				size = newSize;
+				fireContentsChanged(this, 0, Math.max(oldSize, newSize) - 1);
+				return;
+			}
+			// 最後のブロックは行が増えている可能性がある
+			if (0 < oldSize) {
+				blocks.remove((oldSize - 1) / LogFile.INDEX_INTERVAL);
+			}
+			size = newSize;
+			if (0 < oldSize) {
+				fireContentsChanged(this, oldSize - 1, oldSize - 1);
+			}
+			if (oldSize < newSize) {
+				fireIntervalAdded(this, oldSize, newSize - 1);
+			}
+		}
+
+		@Override
+		public int getSize() {
+			return size;
+		}
+
+		@Override
+		public String getElementAt(final int aIndex) {
+			Integer block = aIndex / LogFile.INDEX_INTERVAL;
+			String[] lines = blocks.get(block);
+			if (null == lines) {
+				// 読み込むまでは空行を表示する
+				load(block);
+				return "";
+			}
+			int index = aIndex % LogFile.INDEX_INTERVAL;
+			return (index < lines.length) ? lines[index] : "";
+		}
+
+		/**
+		 * ブロックをバックグラウンドで読み込み、読み込んだ行を再描画する。
+		 * 
+		 * @param aBlock ブロック
+		 */
+		private void load(final Integer aBlock) {
+			if (!loadings.add(aBlock)) {
+				return;
+			}
+			final int requestGeneration = generation;
+			new SwingWorker<String[], Void>() {
+				@Override
+				protected String[] doInBackground() throws Exception {
+					return file.getLines(aBlock);
+				}
+
+				@Override
+				protected void done() {
+					loadings.remove(aBlock);
+					String[] lines;
+					try {
+						lines = get();
+					} catch (InterruptedException | ExecutionException ex) {
+						ex.printStackTrace();
+						return;
+					}
+					if (requestGeneration != generation) {
+						// 読み込み中にローテートされた
+						return;
+					}
+					int first = aBlock * LogFile.INDEX_INTERVAL;
+					int last = Math.min(size, first + LogFile.INDEX_INTERVAL) - 1;
+					if (first + lines.length > last) {
+						blocks.put(aBlock, lines);
+					}
+					// 読み込み中に行が増えた場合は、再描画で改めて読み込む
+					if (first <= last) {
+						fireContentsChanged(LineListModel.this, first, last);
+					}
+				}
+			}.execute();
+		}
+	}
+
+	/**
+	 * 検索結果のモデル
+	 */
+	private static class ResultListModel extends AbstractListModel<Integer> {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = 4461447104934393024L;
+
+		private List<Integer> results = new ArrayList<Integer>();
+
+		private void setResults(final List<Integer> aResults) {
+			int oldSize = results.size();
+			results = aResults;
+			if (0 < oldSize) {
+				fireIntervalRemoved(this, 0, oldSize - 1);
+			}
+			if (0 < results.size()) {
+				fireIntervalAdded(this, 0, results.size() - 1);
+			}
+		}
+
+		@Override
+		public int getSize() {
+			return results.size();
+		}
+
+		@Override
+		public Integer getElementAt(final int aIndex) {
+			return results.get(aIndex);
+		}
+	}
+
+	/**
+	 * 行番号を付けて表示するレンダラー
+	 */
+	private static class LineCellRenderer extends DefaultListCellRenderer {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = -8563905474530536591L;
+
+		@Override
+		public Component getListCellRendererComponent(final JList<?> aList, final Object aValue, final int aIndex,
+				final boolean aSelected, final boolean aFocus) {
+			return super.getListCellRendererComponent(aList, String.format("%8d  %s", aIndex + 1, aValue), aIndex,
+					aSelected, aFocus);
+		}
+	}
+}
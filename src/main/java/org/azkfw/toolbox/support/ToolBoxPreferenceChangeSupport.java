@@ -0,0 +1,45 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.support;
+
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * このインターフェースは、外部で変更された設定の通知を受け取るプラグインが実装するインターフェースです。
+ * <p>
+ * 実装していないプラグインには、変更後の設定を{@link ToolBoxPreferenceSupport#load(Properties)}で読み込ませます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public interface ToolBoxPreferenceChangeSupport extends ToolBoxPreferenceSupport {
+
+	/**
+	 * 設定ファイルが外部で変更された時に呼び出される。
+	 * <p>
+	 * 変更された設定のみを反映してください。削除されたキーは<code>properties</code>に含まれません。EDTから呼び出されます。
+	 * </p>
+	 * 
+	 * @param properties 変更後の設定
+	 * @param changedKeys 変更・追加・削除されたキー
+	 */
+	public void preferenceChanged(final Properties properties, final Set<String> changedKeys);
+}
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.task;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.azkfw.business.progress.ProgressEvent;
+import org.azkfw.business.progress.ProgressListener;
+import org.azkfw.business.progress.ProgressSupport;
+import org.azkfw.business.task.Task;
+
+/**
+ * このクラスは、ツールボックスで提供するタスクの基底クラスです。
+ * <p>
+ * 進捗の通知と、{@link ToolBoxTaskControl}による中止・一時停止に対応します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public abstract class AbstractToolBoxTask implements Task, ProgressSupport, ToolBoxTaskControllable {
+
+	/** 名前 */
+	private String name;
+
+	/** 進捗リスナー */
+	private List<ProgressListener> listeners;
+
+	/** コントロール */
+	private volatile ToolBoxTaskControl control;
+
+	/** 失敗の原因 */
+	private volatile Throwable failure;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aName 名前
+	 */
+	public AbstractToolBoxTask(final String aName) {
+		name = aName;
+		listeners = new CopyOnWriteArrayList<ProgressListener>();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Object execute() {
+		try {
+			doExecute();
+		} catch (RuntimeException ex) {
+			ex.printStackTrace();
+			failure = ex;
+		}
+		return null;
+	}
+
+	/**
+	 * 失敗の原因を取得する。
+	 * 
+	 * @return 原因。失敗していない場合、<code>null</code>
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+
+	public void addProgressListener(final ProgressListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeProgressListener(final ProgressListener listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public void setTaskControl(final ToolBoxTaskControl aControl) {
+		control = aControl;
+	}
+
+	@Override
+	public void taskCancelled() {
+	}
+
+	/**
+	 * タスクの処理を行う。
+	 */
+	protected abstract void doExecute();
+
+	/**
+	 * 進捗を通知する。
+	 * 
+	 * @param aPercent 進捗率
+	 * @param aMessage メッセージ
+	 */
+	protected final void fireProgress(final double aPercent, final String aMessage) {
+		ProgressEvent event = new ProgressEvent(this, aPercent, aMessage);
+		for (ProgressListener listener : listeners) {
+			listener.progress(event);
+		}
+	}
+
+	/**
+	 * 処理を継続してよいか確認する。
+	 * 
+	 * @return 継続してよい場合、<code>true</code>
+	 * @see ToolBoxTaskControl#checkpoint()
+	 */
+	protected final boolean checkpoint() {
+		ToolBoxTaskControl c = control;
+		return (null == c) || c.checkpoint();
+	}
+
+	/**
+	 * 一時停止が要求されたか判断する。
+	 * <p>
+	 * {@link #checkpoint()}と異なり待機しません。
+	 * </p>
+	 * 
+	 * @return 一時停止が要求された場合、<code>true</code>
+	 */
+	protected final boolean isPaused() {
+		ToolBoxTaskControl c = control;
+		return (null != c) && c.isPaused();
+	}
+
+	/**
+	 * 中止が要求されたか判断する。
+	 * 
+	 * @return 中止が要求された場合、<code>true</code>
+	 */
+	protected final boolean isCancelled() {
+		ToolBoxTaskControl c = control;
+		return (null != c) && c.isCancelled();
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.task;
+
+import org.azkfw.business.task.Task;
+import org.azkfw.business.task.server.MultiTaskServer;
+import org.azkfw.business.task.server.MultiTaskServerListener;
+
+/**
+ * このクラスは、{@link MultiTaskServer}でタスクを実行するバックエンドです。
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class MultiTaskServerExecutor implements ToolBoxTaskExecutor {
+
+	/** タスクサーバ */
+	private MultiTaskServer server;
+
+	/**
+	 * コンストラクタ
+	 */
+	public MultiTaskServerExecutor() {
+		this(new MultiTaskServer());
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aServer タスクサーバ
+	 */
+	public MultiTaskServerExecutor(final MultiTaskServer aServer) {
+		server = aServer;
+	}
+
+	/**
+	 * タスクサーバを取得する。
+	 * 
+	 * @return タスクサーバ
+	 */
+	public MultiTaskServer getServer() {
+		return server;
+	}
+
+	@Override
+	public void start() {
+		server.start();
+	}
+
+	@Override
+	public void stop() {
+		server.stop();
+	}
+
+	@Override
+	public void queue(final Task aTask) {
+		server.queue(aTask);
+	}
+
+	/**
+	 * {@link MultiTaskServer}は投入済みのタスクの取り消しに対応していない為、 タスクの中止は{@link ToolBoxTaskControl}による協調的な中止のみとなる。
+	 */
+	@Override
+	public boolean cancel(final Task aTask) {
+		return false;
+	}
+
+	@Override
+	public void addMultiTaskServerListener(final MultiTaskServerListener aListener) {
+		server.addMultiTaskServerListener(aListener);
+	}
+}
@@ -0,0 +1,293 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * このクラスは、複数のファイルを全てのコアで並列に処理するタスクです。
+ * <p>
+ * ファイルの集合は分割統治で小さな単位に分けられ、ワークスティーリングにより空いたスレッドへ分配されます。
+ * 個々のファイルの失敗はバッチを中断せずに{@link #getFailures()}へ記録されます。
+ * </p>
+ * <p>
+ * 共有プールのスレッドを一時停止で塞がない様、一時停止中の範囲は処理せずに戻り、再開後に投入し直します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ToolBoxFileBatchTask extends AbstractToolBoxTask {
+
+	/** 分割しない件数 */
+	private static final int THRESHOLD = 8;
+
+	/** 進捗を通知する最小間隔(ミリ秒) */
+	private static final long PROGRESS_INTERVAL = 100L;
+
+	/** 全バッチで共有するプール */
+	private static ForkJoinPool pool;
+
+	/** ファイル */
+	private List<File> files;
+
+	/** 処理 */
+	private ToolBoxFileProcessor processor;
+
+	/** 処理済み件数 */
+	private AtomicInteger processedCount;
+
+	/** 前回進捗を通知した日時 */
+	private AtomicLong progressTime;
+
+	/** 失敗 */
+	private Queue<Failure> failures;
+
+	/** 一時停止により処理しなかった範囲 */
+	private Queue<int[]> deferreds;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aName 名前
+	 * @param aFiles ファイル
+	 * @param aProcessor 処理
+	 */
+	public ToolBoxFileBatchTask(final String aName, final Collection<File> aFiles, final ToolBoxFileProcessor aProcessor) {
+		super(aName);
+		files = new ArrayList<File>(aFiles);
+		processor = aProcessor;
+		processedCount = new AtomicInteger();
+		progressTime = new AtomicLong();
+		failures = new ConcurrentLinkedQueue<Failure>();
+		deferreds = new ConcurrentLinkedQueue<int[]>();
+	}
+
+	/**
+	 * ディレクトリ配下のファイルを再帰的に取得する。
+	 * <p>
+	 * ディレクトリへのシンボリックリンクは辿りません。
+	 * </p>
+	 * 
+	 * @param aDirectory ディレクトリ
+	 * @return ファイル
+	 */
+	public static List<File> listFiles(final File aDirectory) {
+		List<File> result = new ArrayList<File>();
+		doListFiles(aDirectory, result);
+		return result;
+	}
+
+	/**
+	 * 失敗したファイルを取得する。
+	 * 
+	 * @return 失敗
+	 */
+	public List<Failure> getFailures() {
+		return new ArrayList<Failure>(failures);
+	}
+
+	/**
+	 * 処理済みのファイル数を取得する。
+	 * 
+	 * @return ファイル数
+	 */
+	public int getProcessedCount() {
+		return processedCount.get();
+	}
+
+	@Override
+	protected void doExecute() {
+		fireProgress(0, String.format("0/%d", files.size()));
+
+		deferreds.add(new int[] { 0, files.size() });
+		while (!deferreds.isEmpty()) {
+			// 一時停止中はタスクのスレッドで待機する
+			if (!checkpoint()) {
+				break;
+			}
+			List<BatchAction> actions = new ArrayList<BatchAction>();
+			int[] range;
+			while (null != (range = deferreds.poll())) {
+				actions.add(new BatchAction(range[0], range[1]));
+			}
+			getPool().invoke(new GroupAction(actions));
+		}
+
+		int processed = processedCount.get();
+		String message;
+		if (isCancelled()) {
+			message = String.format("中止 %d/%d", processed, files.size());
+		} else if (failures.isEmpty()) {
+			message = String.format("完了 %d件", processed);
+		} else {
+			message = String.format("完了 %d件 (失敗 %d件)", processed, failures.size());
+		}
+		fireProgress(files.isEmpty() ? 100 : processed * 100.0 / files.size(), message);
+	}
+
+	private static synchronized ForkJoinPool getPool() {
+		if (null == pool) {
+			pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		}
+		return pool;
+	}
+
+	private static void doListFiles(final File aDirectory, final List<File> aFiles) {
+		// 深い階層でスタックを溢れさせない様、再帰しない
+		Deque<Path> directories = new ArrayDeque<Path>();
+		directories.push(aDirectory.toPath());
+		while (!directories.isEmpty()) {
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(directories.pop())) {
+				for (Path child : stream) {
+					BasicFileAttributes attrs;
+					try {
+						attrs = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+					} catch (IOException ex) {
+						continue;
+					}
+					if (attrs.isDirectory()) {
+						directories.push(child);
+					} else if (attrs.isRegularFile() || (attrs.isSymbolicLink() && Files.isRegularFile(child))) {
+						aFiles.add(child.toFile());
+					}
+				}
+			} catch (IOException | DirectoryIteratorException ex) {
+				// 読み込めないディレクトリは除く
+			}
+		}
+	}
+
+	private void doProcess(final File aFile) {
+		try {
+			processor.process(aFile);
+		} catch (Exception ex) {
+			failures.add(new Failure(aFile, ex));
+		}
+
+		int processed = processedCount.incrementAndGet();
+		long now = System.currentTimeMillis();
+		long last = progressTime.get();
+		if (now - last >= PROGRESS_INTERVAL && progressTime.compareAndSet(last, now)) {
+			fireProgress(processed * 100.0 / files.size(), String.format("%d/%d", processed, files.size()));
+		}
+	}
+
+	/**
+	 * ファイルの範囲を処理するアクション
+	 */
+	private class BatchAction extends RecursiveAction {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = 2811620127386870493L;
+
+		private final int start;
+		private final int end;
+
+		public BatchAction(final int aStart, final int aEnd) {
+			start = aStart;
+			end = aEnd;
+		}
+
+		@Override
+		protected void compute() {
+			if (isCancelled()) {
+				return;
+			}
+			if (isPaused()) {
+				deferreds.add(new int[] { start, end });
+				return;
+			}
+			if (end - start <= THRESHOLD) {
+				for (int i = start; i < end; i++) {
+					if (isCancelled()) {
+						return;
+					}
+					if (isPaused()) {
+						deferreds.add(new int[] { i, end });
+						return;
+					}
+					doProcess(files.get(i));
+				}
+			} else {
+				int middle = (start + end) >>> 1;
+				invokeAll(new BatchAction(start, middle), new BatchAction(middle, end));
+			}
+		}
+	}
+
+	/**
+	 * 再開した範囲をまとめて処理するアクション
+	 */
+	private static class GroupAction extends RecursiveAction {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = -5034715923470184271L;
+
+		private final List<BatchAction> actions;
+
+		public GroupAction(final List<BatchAction> aActions) {
+			actions = aActions;
+		}
+
+		@Override
+		protected void compute() {
+			invokeAll(actions);
+		}
+	}
+
+	/**
+	 * このクラスは、ファイルの処理の失敗を表すクラスです。
+	 */
+	public static final class Failure {
+		private final File file;
+		private final Exception exception;
+
+		public Failure(final File aFile, final Exception aException) {
+			file = aFile;
+			exception = aException;
+		}
+
+		public File getFile() {
+			return file;
+		}
+
+		public Exception getException() {
+			return exception;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.task;
+
+/**
+ * このクラスは、実行中のタスクへ中止・一時停止を伝えるトークンです。
+ * <p>
+ * タスクは処理の区切り毎に{@link #checkpoint()}を呼び出し、<code>false</code>が返された場合は速やかに処理を終了してください。
+ * 実行バックエンドが対応している場合、中止時にはタスクを実行しているスレッドへ割り込みも行われます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class ToolBoxTaskControl {
+
+	private boolean cancelled;
+	private boolean paused;
+
+	/**
+	 * 中止を要求する。
+	 */
+	public synchronized void cancel() {
+		if (cancelled) {
+			return;
+		}
+		cancelled = true;
+		paused = false;
+		notifyAll();
+	}
+
+	/**
+	 * 一時停止を要求する。
+	 */
+	public synchronized void pause() {
+		if (!cancelled) {
+			paused = true;
+		}
+	}
+
+	/**
+	 * 再開を要求する。
+	 */
+	public synchronized void resume() {
+		paused = false;
+		notifyAll();
+	}
+
+	public synchronized boolean isCancelled() {
+		return cancelled;
+	}
+
+	public synchronized boolean isPaused() {
+		return paused;
+	}
+
+	/**
+	 * 処理を継続してよいか確認する。
+	 * <p>
+	 * 一時停止中は再開または中止されるまで待機します。
+	 * </p>
+	 * 
+	 * @return 継続してよい場合、<code>true</code>。中止された場合、<code>false</code>
+	 */
+	public synchronized boolean checkpoint() {
+		while (paused && !cancelled) {
+			try {
+				wait();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return !cancelled;
+			}
+		}
+		return !cancelled;
+	}
+}
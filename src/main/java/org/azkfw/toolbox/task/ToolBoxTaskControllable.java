@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.task;
+
+/**
+ * このインターフェースは、中止・一時停止に対応するタスクが実装します。
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public interface ToolBoxTaskControllable {
+
+	/**
+	 * タスクのコントロールを設定する。
+	 * <p>
+	 * タスクがスケジューラへ投入された時に呼び出されます。
+	 * </p>
+	 * 
+	 * @param aControl コントロール
+	 */
+	public void setTaskControl(final ToolBoxTaskControl aControl);
+
+	/**
+	 * 開始前に中止されたことを通知する。
+	 * <p>
+	 * 実行されずに終了したタスクについて、中止したスレッドから呼び出されます。
+	 * </p>
+	 */
+	public void taskCancelled();
+}
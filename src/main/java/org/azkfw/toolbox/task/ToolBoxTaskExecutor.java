@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.task;
+
+import org.azkfw.business.task.Task;
+import org.azkfw.business.task.server.MultiTaskServerListener;
+
+/**
+ * このインターフェースは、タスクを実行するバックエンドを定義します。
+ * <p>
+ * 実装は{@link org.azkfw.business.task.server.MultiTaskServer}と同じイベントをリスナーへ通知します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public interface ToolBoxTaskExecutor {
+
+	/**
+	 * 実行を開始する。
+	 */
+	public void start();
+
+	/**
+	 * 実行を停止する。
+	 * <p>
+	 * 停止が完了すると、リスナーへ停止イベントが通知されます。
+	 * </p>
+	 */
+	public void stop();
+
+	/**
+	 * タスクを投入する。
+	 * 
+	 * @param aTask タスク
+	 */
+	public void queue(final Task aTask);
+
+	/**
+	 * タスクを中止する。
+	 * <p>
+	 * 開始前のタスクは取り除き、実行中のタスクには可能であれば割り込みを行います。
+	 * </p>
+	 * 
+	 * @param aTask タスク
+	 * @return 開始前に取り除いた場合、<code>true</code>
+	 */
+	public boolean cancel(final Task aTask);
+
+	/**
+	 * リスナーを追加する。
+	 * 
+	 * @param aListener リスナー
+	 */
+	public void addMultiTaskServerListener(final MultiTaskServerListener aListener);
+}
@@ -0,0 +1,264 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.azkfw.business.task.Task;
+
+/**
+ * このクラスは、依存関係を持つタスクの集合(有向非巡回グラフ)を表すクラスです。
+ * <p>
+ * 依存先のタスクは先に追加されている必要がある為、追加順が常にトポロジカル順となり巡回は発生しません。
+ * 依存先が全て完了したタスクから順に実行され、依存関係のないタスクは並列に実行されます。
+ * </p>
+ * 
+ * <pre>
+ * ToolBoxTaskGraph graph = new ToolBoxTaskGraph(&quot;変換&quot;);
+ * graph.add(scan);
+ * graph.add(convert1, scan);
+ * graph.add(convert2, scan);
+ * graph.add(aggregate, convert1, convert2);
+ * queueTaskGraph(graph);
+ * </pre>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ToolBoxTaskGraph {
+
+	/**
+	 * ノードの状態
+	 */
+	public static enum State {
+		/** 依存先の完了待ち */
+		WAITING,
+		/** 実行待ちまたは実行中 */
+		READY,
+		/** 完了 */
+		COMPLETED,
+		/** 中止 */
+		CANCELLED;
+	}
+
+	/** 名前 */
+	private String name;
+
+	/** ノード(追加順) */
+	private List<Node> nodes;
+
+	/** タスク→ノード */
+	private Map<Task, Node> nodeMap;
+
+	/** 終了したノード数 */
+	private int finishedCount;
+
+	/** 開始済み */
+	private boolean started;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aName 名前
+	 */
+	public ToolBoxTaskGraph(final String aName) {
+		name = aName;
+		nodes = new ArrayList<Node>();
+		nodeMap = new HashMap<Task, Node>();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * タスクを追加する。
+	 * 
+	 * @param aTask タスク
+	 * @param aDependencies 依存先のタスク
+	 * @return グラフ
+	 * @throws IllegalArgumentException 追加済みのタスク、または未追加の依存先が指定された場合
+	 * @throws IllegalStateException 開始済みの場合
+	 */
+	public synchronized ToolBoxTaskGraph add(final Task aTask, final Task... aDependencies) {
+		if (started) {
+			throw new IllegalStateException("Graph already started.");
+		}
+		if (nodeMap.containsKey(aTask)) {
+			throw new IllegalArgumentException("Task already added.[" + aTask.getName() + "]");
+		}
+		Node node = new Node(aTask);
+		for (Task dependency : aDependencies) {
+			Node parent = nodeMap.get(dependency);
+			if (null == parent) {
+				throw new IllegalArgumentException("Dependency not added.[" + dependency.getName() + "]");
+			}
+			parent.dependents.add(node);
+			node.remaining++;
+		}
+		nodes.add(node);
+		nodeMap.put(aTask, node);
+		return this;
+	}
+
+	/**
+	 * タスクを取得する。
+	 * 
+	 * @return タスク(追加順)
+	 */
+	public synchronized List<Task> getTasks() {
+		List<Task> tasks = new ArrayList<Task>(nodes.size());
+		for (Node node : nodes) {
+			tasks.add(node.task);
+		}
+		return tasks;
+	}
+
+	public synchronized int size() {
+		return nodes.size();
+	}
+
+	public synchronized boolean contains(final Task aTask) {
+		return nodeMap.containsKey(aTask);
+	}
+
+	public synchronized State getState(final Task aTask) {
+		Node node = nodeMap.get(aTask);
+		return (null != node) ? node.state : null;
+	}
+
+	/**
+	 * 終了したタスク数を取得する。
+	 * 
+	 * @return タスク数
+	 */
+	public synchronized int getFinishedCount() {
+		return finishedCount;
+	}
+
+	/**
+	 * 全てのタスクが終了したか判断する。
+	 * 
+	 * @return 終了した場合、<code>true</code>
+	 */
+	public synchronized boolean isFinished() {
+		return finishedCount == nodes.size();
+	}
+
+	/**
+	 * 中止されたタスクがあるか判断する。
+	 * 
+	 * @return 中止されたタスクがある場合、<code>true</code>
+	 */
+	public synchronized boolean isCancelled() {
+		for (Node node : nodes) {
+			if (State.CANCELLED == node.state) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 実行を開始する。
+	 * 
+	 * @return 実行可能になったタスク
+	 */
+	synchronized List<Task> start() {
+		started = true;
+		List<Task> tasks = new ArrayList<Task>();
+		for (Node node : nodes) {
+			if (0 == node.remaining) {
+				node.state = State.READY;
+				tasks.add(node.task);
+			}
+		}
+		return tasks;
+	}
+
+	/**
+	 * タスクの完了を通知する。
+	 * 
+	 * @param aTask タスク
+	 * @return 実行可能になったタスク
+	 */
+	synchronized List<Task> complete(final Task aTask) {
+		List<Task> tasks = new ArrayList<Task>();
+		Node node = nodeMap.get(aTask);
+		if (null == node || State.READY != node.state) {
+			return tasks;
+		}
+		node.state = State.COMPLETED;
+		finishedCount++;
+		for (Node dependent : node.dependents) {
+			dependent.remaining--;
+			if (0 == dependent.remaining && State.WAITING == dependent.state) {
+				dependent.state = State.READY;
+				tasks.add(dependent.task);
+			}
+		}
+		return tasks;
+	}
+
+	/**
+	 * タスクの中止を通知する。
+	 * <p>
+	 * 中止したタスクに依存するタスクも全て中止となります。
+	 * </p>
+	 * 
+	 * @param aTask タスク
+	 * @return 中止となったタスク(依存するタスクを含む)
+	 */
+	synchronized List<Task> cancel(final Task aTask) {
+		List<Task> tasks = new ArrayList<Task>();
+		Node node = nodeMap.get(aTask);
+		if (null != node) {
+			doCancel(node, tasks);
+		}
+		return tasks;
+	}
+
+	private void doCancel(final Node aNode, final List<Task> aTasks) {
+		if (State.COMPLETED == aNode.state || State.CANCELLED == aNode.state) {
+			return;
+		}
+		aNode.state = State.CANCELLED;
+		finishedCount++;
+		aTasks.add(aNode.task);
+		for (Node dependent : aNode.dependents) {
+			doCancel(dependent, aTasks);
+		}
+	}
+
+	private static class Node {
+		private final Task task;
+		private final List<Node> dependents;
+		private int remaining;
+		private State state;
+
+		public Node(final Task aTask) {
+			task = aTask;
+			dependents = new ArrayList<Node>();
+			state = State.WAITING;
+		}
+	}
+}
@@ -0,0 +1,476 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.azkfw.business.task.Task;
+import org.azkfw.business.task.server.MultiTaskServerAdapter;
+import org.azkfw.business.task.server.MultiTaskServerEvent;
+import org.azkfw.toolbox.task.annotation.TaskPriority;
+
+/**
+ * このクラスは、実行バックエンドの前段でタスクの実行順を制御するスケジューラです。
+ * <p>
+ * タスクは投入元(プラグイン)毎のキューに保持され、以下の順で実行バックエンドへ渡されます。
+ * <ol>
+ * <li>キュー先頭のタスクの優先度({@link TaskPriority})が最も高い投入元</li>
+ * <li>同じ優先度の場合、重みに対して実行数が最も少ない投入元(重み付き公平分配)</li>
+ * </ol>
+ * 実行バックエンドへ渡すタスク数はワーカー数までに制限されます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class ToolBoxTaskScheduler {
+
+	/** 重み1あたりの進み幅 */
+	private static final long STRIDE = 1L << 20;
+
+	/** 投入元不明のタスク用のキー */
+	private static final Object DEFAULT_OWNER = new Object();
+
+	/** 実行バックエンド */
+	private ToolBoxTaskExecutor executor;
+
+	/** ワーカー数 */
+	private int poolSize;
+
+	/** 投入元毎のキュー */
+	private Map<Object, OwnerQueue> queues;
+
+	/** 投入元毎の重み */
+	private Map<Object, Integer> weights;
+
+	/** 実行中のタスク→投入元 */
+	private Map<Task, OwnerQueue> runnings;
+
+	/** 未終了のタスク→コントロール */
+	private Map<Task, ToolBoxTaskControl> controls;
+
+	/** 未終了のタスク→所属するグラフ */
+	private Map<Task, ToolBoxTaskGraph> graphs;
+
+	/** グラフ→投入元 */
+	private Map<ToolBoxTaskGraph, Object> graphOwners;
+
+	/** 仮想時間 */
+	private long virtualTime;
+
+	/** 投入順序 */
+	private long sequence;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aExecutor 実行バックエンド
+	 * @param aPoolSize ワーカー数
+	 */
+	public ToolBoxTaskScheduler(final ToolBoxTaskExecutor aExecutor, final int aPoolSize) {
+		executor = aExecutor;
+		poolSize = Math.max(1, aPoolSize);
+		queues = new HashMap<Object, OwnerQueue>();
+		weights = new HashMap<Object, Integer>();
+		runnings = new HashMap<Task, OwnerQueue>();
+		controls = new HashMap<Task, ToolBoxTaskControl>();
+		graphs = new HashMap<Task, ToolBoxTaskGraph>();
+		graphOwners = new HashMap<ToolBoxTaskGraph, Object>();
+
+		executor.addMultiTaskServerListener(new MultiTaskServerAdapter() {
+			@Override
+			public void multiTaskServerStoppedTask(final MultiTaskServerEvent event, final Task aTask) {
+				release(aTask);
+			}
+		});
+	}
+
+	/**
+	 * ワーカー数を設定する。
+	 * 
+	 * @param aPoolSize ワーカー数
+	 */
+	public void setPoolSize(final int aPoolSize) {
+		synchronized (this) {
+			poolSize = Math.max(1, aPoolSize);
+		}
+		dispatch();
+	}
+
+	/**
+	 * 投入元の重みを設定する。
+	 * 
+	 * @param aOwner 投入元
+	 * @param aWeight 重み
+	 */
+	public synchronized void setWeight(final Object aOwner, final int aWeight) {
+		weights.put(aOwner, Math.max(1, aWeight));
+		OwnerQueue queue = queues.get(aOwner);
+		if (null != queue) {
+			queue.weight = Math.max(1, aWeight);
+		}
+	}
+
+	/**
+	 * タスクを投入する。
+	 * 
+	 * @param aOwner 投入元
+	 * @param aTask タスク
+	 */
+	public void queue(final Object aOwner, final Task aTask) {
+		synchronized (this) {
+			Object owner = (null != aOwner) ? aOwner : DEFAULT_OWNER;
+			OwnerQueue queue = queues.get(owner);
+			if (null == queue) {
+				Integer weight = weights.get(owner);
+				queue = new OwnerQueue((null != weight) ? weight.intValue() : 1);
+				queues.put(owner, queue);
+			}
+			if (queue.isEmpty() && 0 == queue.running) {
+				// 休止していた投入元が貯めた分で独占しないよう、現在の仮想時間に揃える
+				queue.pass = Math.max(queue.pass, virtualTime);
+			}
+			queue.add(new Entry(aTask, getPriority(aTask), sequence++));
+
+			ToolBoxTaskControl control = new ToolBoxTaskControl();
+			controls.put(aTask, control);
+			if (aTask instanceof ToolBoxTaskControllable) {
+				((ToolBoxTaskControllable) aTask).setTaskControl(control);
+			}
+		}
+		dispatch();
+	}
+
+	/**
+	 * タスクのグラフを投入する。
+	 * <p>
+	 * 依存先のないタスクから投入し、依存先が全て完了したタスクを順次投入します。
+	 * </p>
+	 * 
+	 * @param aOwner 投入元
+	 * @param aGraph グラフ
+	 */
+	public void queueGraph(final Object aOwner, final ToolBoxTaskGraph aGraph) {
+		List<Task> tasks;
+		synchronized (this) {
+			for (Task task : aGraph.getTasks()) {
+				graphs.put(task, aGraph);
+			}
+			graphOwners.put(aGraph, aOwner);
+			tasks = aGraph.start();
+		}
+		for (Task task : tasks) {
+			queue(aOwner, task);
+		}
+	}
+
+	/**
+	 * タスクのグラフを中止する。
+	 * 
+	 * @param aGraph グラフ
+	 */
+	public void cancelGraph(final ToolBoxTaskGraph aGraph) {
+		// 実行待ち・実行中のタスクを中止すれば、依存するタスクも全て中止となる
+		for (Task task : aGraph.getTasks()) {
+			if (ToolBoxTaskGraph.State.READY == aGraph.getState(task)) {
+				cancel(task);
+			}
+		}
+	}
+
+	/**
+	 * タスクを中止する。
+	 * <p>
+	 * 開始前のタスクはキューから取り除きます。依存先の完了待ちのタスクは依存するタスクと共にグラフ上で中止とします。
+	 * 実行中のタスクはコントロールへ中止を通知し、 タスクが実際に終了した時にワーカーを解放します。
+	 * </p>
+	 * 
+	 * @param aTask タスク
+	 * @return 開始前に中止した場合、<code>true</code>
+	 */
+	public boolean cancel(final Task aTask) {
+		boolean dropped = false;
+		boolean waiting = false;
+		// 開始されずに終了したタスク
+		List<Task> cancels = new ArrayList<Task>();
+		synchronized (this) {
+			ToolBoxTaskControl control = controls.get(aTask);
+			ToolBoxTaskGraph graph = graphs.get(aTask);
+			if (null == control) {
+				// 依存先の完了待ちのタスクはまだ投入していないため、グラフ上で中止とする
+				if (null == graph || ToolBoxTaskGraph.State.WAITING != graph.getState(aTask)) {
+					return false;
+				}
+				waiting = true;
+			} else {
+				control.cancel();
+				for (OwnerQueue queue : queues.values()) {
+					if (queue.remove(aTask)) {
+						dropped = true;
+						break;
+					}
+				}
+				if (dropped) {
+					controls.remove(aTask);
+				}
+			}
+
+			if (null != graph) {
+				for (Task task : graph.cancel(aTask)) {
+					graphs.remove(task);
+					if (aTask != task) {
+						cancels.add(task);
+					}
+				}
+				removeGraph(graph);
+			}
+			notifyAll();
+		}
+		if (!waiting && !dropped && executor.cancel(aTask)) {
+			// 開始前にバックエンドから取り除いた場合は終了が通知されない
+			dropped = true;
+			synchronized (this) {
+				controls.remove(aTask);
+				OwnerQueue queue = runnings.remove(aTask);
+				if (null != queue) {
+					queue.running--;
+				}
+				notifyAll();
+			}
+		}
+		if (waiting || dropped) {
+			cancels.add(aTask);
+		}
+		fireCancelled(cancels);
+		dispatch();
+		return waiting || dropped;
+	}
+
+	/**
+	 * 投入元のタスクが全て終了するまで待つ。
+	 * 
+	 * @param aOwner 投入元
+	 * @throws InterruptedException 待機中に割り込まれた場合
+	 */
+	public synchronized void awaitIdle(final Object aOwner) throws InterruptedException {
+		OwnerQueue queue = queues.get(aOwner);
+		while (null != queue && (!queue.isEmpty() || 0 < queue.running)) {
+			wait();
+		}
+	}
+
+	/**
+	 * タスクのコントロールを取得する。
+	 * 
+	 * @param aTask タスク
+	 * @return コントロール。終了したタスクの場合、<code>null</code>
+	 */
+	public synchronized ToolBoxTaskControl getControl(final Task aTask) {
+		return controls.get(aTask);
+	}
+
+	/**
+	 * 待機中のタスクを取得する。
+	 * 
+	 * @return タスク
+	 */
+	public synchronized List<Task> getQueuedTasks() {
+		List<Task> tasks = new ArrayList<Task>();
+		for (OwnerQueue queue : queues.values()) {
+			for (Entry entry : queue.entries) {
+				tasks.add(entry.task);
+			}
+		}
+		return tasks;
+	}
+
+	private void release(final Task aTask) {
+		List<Task> nexts = null;
+		List<Task> cancels = new ArrayList<Task>();
+		Object owner = null;
+		synchronized (this) {
+			controls.remove(aTask);
+			OwnerQueue queue = runnings.remove(aTask);
+			if (null != queue) {
+				queue.running--;
+				notifyAll();
+			}
+
+			ToolBoxTaskGraph graph = graphs.remove(aTask);
+			if (null != graph) {
+				if (aTask instanceof AbstractToolBoxTask && null != ((AbstractToolBoxTask) aTask).getFailure()) {
+					// 失敗したタスクに依存するタスクは実行せずに中止とする
+					for (Task task : graph.cancel(aTask)) {
+						graphs.remove(task);
+						if (aTask != task) {
+							cancels.add(task);
+						}
+					}
+				} else {
+					nexts = graph.complete(aTask);
+				}
+				owner = graphOwners.get(graph);
+				removeGraph(graph);
+			}
+		}
+		fireCancelled(cancels);
+		if (null != nexts) {
+			for (Task task : nexts) {
+				queue(owner, task);
+			}
+		}
+		dispatch();
+	}
+
+	/**
+	 * 開始されずに終了したタスクへ中止を通知する。
+	 * <p>
+	 * タスクから再入されても良いよう、ロックの外で呼び出す。
+	 * </p>
+	 * 
+	 * @param aTasks タスク
+	 */
+	private static void fireCancelled(final List<Task> aTasks) {
+		for (Task task : aTasks) {
+			if (task instanceof ToolBoxTaskControllable) {
+				((ToolBoxTaskControllable) task).taskCancelled();
+			}
+		}
+	}
+
+	private void removeGraph(final ToolBoxTaskGraph aGraph) {
+		if (aGraph.isFinished()) {
+			graphOwners.remove(aGraph);
+		}
+	}
+
+	/**
+	 * 実行可能なタスクを実行バックエンドへ渡す。
+	 * <p>
+	 * バックエンドのリスナーから再入されても良いよう、投入はロックの外で行う。
+	 * </p>
+	 */
+	private void dispatch() {
+		for (Task task : select()) {
+			executor.queue(task);
+		}
+	}
+
+	private synchronized List<Task> select() {
+		List<Task> tasks = new ArrayList<Task>();
+		while (runnings.size() < poolSize) {
+			OwnerQueue select = null;
+			for (OwnerQueue queue : queues.values()) {
+				if (queue.isEmpty()) {
+					continue;
+				}
+				if (null == select) {
+					select = queue;
+					continue;
+				}
+				int priority = queue.peek().priority;
+				int selectPriority = select.peek().priority;
+				if (priority > selectPriority || (priority == selectPriority && queue.pass < select.pass)) {
+					select = queue;
+				}
+			}
+			if (null == select) {
+				break;
+			}
+
+			Entry entry = select.poll();
+			virtualTime = select.pass;
+			select.pass += STRIDE / select.weight;
+			select.running++;
+			runnings.put(entry.task, select);
+			tasks.add(entry.task);
+		}
+		return tasks;
+	}
+
+	private static int getPriority(final Task aTask) {
+		TaskPriority an = aTask.getClass().getAnnotation(TaskPriority.class);
+		return (null != an) ? an.value() : TaskPriority.NORMAL;
+	}
+
+	private static class Entry {
+		private final Task task;
+		private final int priority;
+		private final long sequence;
+
+		public Entry(final Task aTask, final int aPriority, final long aSequence) {
+			task = aTask;
+			priority = aPriority;
+			sequence = aSequence;
+		}
+	}
+
+	private static class OwnerQueue {
+
+		private static final Comparator<Entry> COMPARATOR = new Comparator<Entry>() {
+			@Override
+			public int compare(final Entry o1, final Entry o2) {
+				if (o1.priority != o2.priority) {
+					return (o1.priority > o2.priority) ? -1 : 1;
+				}
+				return (o1.sequence < o2.sequence) ? -1 : ((o1.sequence == o2.sequence) ? 0 : 1);
+			}
+		};
+
+		private final PriorityQueue<Entry> entries;
+		private int weight;
+		private long pass;
+		private int running;
+
+		public OwnerQueue(final int aWeight) {
+			entries = new PriorityQueue<Entry>(16, COMPARATOR);
+			weight = Math.max(1, aWeight);
+		}
+
+		public boolean isEmpty() {
+			return entries.isEmpty();
+		}
+
+		public void add(final Entry aEntry) {
+			entries.add(aEntry);
+		}
+
+		public Entry peek() {
+			return entries.peek();
+		}
+
+		public Entry poll() {
+			return entries.poll();
+		}
+
+		public boolean remove(final Task aTask) {
+			for (Entry entry : entries) {
+				if (entry.task.equals(aTask)) {
+					return entries.remove(entry);
+				}
+			}
+			return false;
+		}
+	}
+}
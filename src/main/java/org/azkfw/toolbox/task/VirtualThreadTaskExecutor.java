@@ -0,0 +1,235 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.toolbox.task;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.azkfw.business.task.Task;
+import org.azkfw.business.task.server.MultiTaskServerEvent;
+import org.azkfw.business.task.server.MultiTaskServerListener;
+
+/**
+ * このクラスは、タスク毎に仮想スレッドを割り当てて実行するバックエンドです。
+ * <p>
+ * 同時実行数はセマフォで制限します。 仮想スレッドは実行環境がJava 21以降の場合のみ使用し、それ以前の環境ではデーモンスレッドで代替します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class VirtualThreadTaskExecutor implements ToolBoxTaskExecutor {
+
+	/** 停止要求を表すキュー要素 */
+	private static final Object STOP = new Object();
+
+	/** 同時実行数 */
+	private Semaphore semaphore;
+
+	/** 同時実行数の上限 */
+	private int concurrency;
+
+	/** 待機中のタスク */
+	private LinkedBlockingQueue<Object> queue;
+
+	/** 実行中のタスク→スレッド */
+	private Map<Task, Thread> runnings;
+
+	/** スレッドファクトリ */
+	private ThreadFactory factory;
+
+	/** リスナー */
+	private List<MultiTaskServerListener> listeners;
+
+	/** 停止要求 */
+	private volatile boolean stopRequest;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aConcurrency 同時実行数の上限
+	 */
+	public VirtualThreadTaskExecutor(final int aConcurrency) {
+		concurrency = Math.max(1, aConcurrency);
+		semaphore = new Semaphore(concurrency);
+		queue = new LinkedBlockingQueue<Object>();
+		runnings = new ConcurrentHashMap<Task, Thread>();
+		factory = createThreadFactory();
+		listeners = new CopyOnWriteArrayList<MultiTaskServerListener>();
+	}
+
+	/**
+	 * 同時実行数の上限を取得する。
+	 * 
+	 * @return 同時実行数の上限
+	 */
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	/**
+	 * 仮想スレッドを使用しているか判断する。
+	 * 
+	 * @return 仮想スレッドを使用している場合、<code>true</code>
+	 */
+	public boolean isVirtual() {
+		return !(factory instanceof DaemonThreadFactory);
+	}
+
+	@Override
+	public void start() {
+		Thread dispatcher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				doDispatch();
+			}
+		}, "ToolBox-TaskDispatcher");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+	}
+
+	@Override
+	public void stop() {
+		stopRequest = true;
+		// 待機中のタスクは開始しない
+		queue.clear();
+		queue.offer(STOP);
+	}
+
+	@Override
+	public void queue(final Task aTask) {
+		if (stopRequest) {
+			return;
+		}
+		queue.offer(aTask);
+
+		MultiTaskServerEvent event = new MultiTaskServerEvent(this);
+		for (MultiTaskServerListener listener : listeners) {
+			listener.multiTaskServerQueuedTask(event, aTask);
+		}
+	}
+
+	@Override
+	public boolean cancel(final Task aTask) {
+		if (queue.remove(aTask)) {
+			return true;
+		}
+		Thread thread = runnings.get(aTask);
+		if (null != thread) {
+			thread.interrupt();
+		}
+		return false;
+	}
+
+	@Override
+	public void addMultiTaskServerListener(final MultiTaskServerListener aListener) {
+		listeners.add(aListener);
+	}
+
+	private void doDispatch() {
+		try {
+			while (true) {
+				semaphore.acquire();
+				Object obj = queue.take();
+				if (STOP == obj || stopRequest) {
+					// 停止要求後に取り出したタスクは開始せずに破棄する
+					semaphore.release();
+					break;
+				}
+				factory.newThread(new TaskRunner((Task) obj)).start();
+			}
+			// 実行中のタスクの終了を待つ。待機中のタスクは開始しない。
+			semaphore.acquire(concurrency);
+			semaphore.release(concurrency);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+
+		MultiTaskServerEvent event = new MultiTaskServerEvent(this);
+		for (MultiTaskServerListener listener : listeners) {
+			listener.multiTaskServerStopped(event);
+		}
+	}
+
+	private class TaskRunner implements Runnable {
+
+		private final Task task;
+
+		public TaskRunner(final Task aTask) {
+			task = aTask;
+		}
+
+		@Override
+		public void run() {
+			MultiTaskServerEvent event = new MultiTaskServerEvent(VirtualThreadTaskExecutor.this);
+			runnings.put(task, Thread.currentThread());
+			try {
+				for (MultiTaskServerListener listener : listeners) {
+					listener.multiTaskServerStartedTask(event, task);
+				}
+				task.execute();
+			} catch (RuntimeException ex) {
+				ex.printStackTrace();
+			} finally {
+				runnings.remove(task);
+				semaphore.release();
+				for (MultiTaskServerListener listener : listeners) {
+					listener.multiTaskServerStoppedTask(event, task);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 仮想スレッドのスレッドファクトリを生成する。
+	 * <p>
+	 * Java 7をターゲットにコンパイルする為、<code>Thread.ofVirtual().factory()</code>をリフレクションで呼び出す。
+	 * </p>
+	 * 
+	 * @return スレッドファクトリ
+	 */
+	private static ThreadFactory createThreadFactory() {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "ToolBox-Task-", 0L);
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException ex) {
+			return new DaemonThreadFactory();
+		}
+	}
+
+	private static class DaemonThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(final Runnable aRunnable) {
+			Thread thread = new Thread(aRunnable, "ToolBox-Task-" + count.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}